@@ -0,0 +1,47 @@
+package com.finera.config;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.vertexai.gemini.VertexAiGeminiChatModel;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sağlayıcı başına bir kez kurulan ChatClient'lar.
+ * ChatClient değişmez ve thread-safe olduğundan servisler her çağrıda yeniden oluşturmak yerine bunları paylaşır.
+ * DeepSeek client'ı {@link DeepseekAiConfiguration} içinde tanımlı.
+ */
+@Configuration
+public class AiChatClientConfiguration {
+
+    // Ekstre çıkarımı için model ve sıcaklık ayarlı OpenAI client'ı
+    @Bean
+    @Qualifier("openAiExtractionChatClient")
+    public ChatClient openAiExtractionChatClient(
+            OpenAiChatModel openAiChatModel,
+            @Value("${spring.ai.openai.chat.options.model:gpt-4o}") String model,
+            @Value("${spring.ai.openai.chat.options.temperature:0.2}") Double temperature
+    ) {
+        return ChatClient.builder(openAiChatModel)
+                .defaultOptions(OpenAiChatOptions.builder()
+                        .model(model)
+                        .temperature(temperature)
+                        .build())
+                .build();
+    }
+
+    @Bean
+    @Qualifier("openAiChatClient")
+    public ChatClient openAiChatClient(OpenAiChatModel openAiChatModel) {
+        return ChatClient.builder(openAiChatModel).build();
+    }
+
+    @Bean
+    @Qualifier("geminiChatClient")
+    public ChatClient geminiChatClient(VertexAiGeminiChatModel vertexAiChatModel) {
+        return ChatClient.builder(vertexAiChatModel).build();
+    }
+}
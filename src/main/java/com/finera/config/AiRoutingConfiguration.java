@@ -0,0 +1,13 @@
+package com.finera.config;
+
+import com.finera.service.ai.AiRoutingProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * finera.ai.routing.* altındaki AUTO sağlayıcı seçimi ayarlarını bağlar.
+ */
+@Configuration
+@EnableConfigurationProperties(AiRoutingProperties.class)
+public class AiRoutingConfiguration {
+}
@@ -0,0 +1,99 @@
+package com.finera.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Uygulamanın arka plan executor'ları.
+ * spring.threads.virtual.enabled=true olduğunda Tomcat istek thread'leri ile birlikte
+ * bu executor'lar da Java 21 virtual thread'lerine geçer.
+ */
+@Configuration
+public class ExecutorConfiguration {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Ekstre işleme işleri için sınırlı havuz: kuyruk dolarsa yeni yüklemeler reddedilir (503).
+    // PDF okuma CPU ağırlıklı olduğu için virtual thread modunda da sınır korunur.
+    @Bean(name = "statementIngestionExecutor")
+    public ThreadPoolTaskExecutor statementIngestionExecutor(
+            @Value("${finera.ingestion.executor.core-pool-size:2}") int corePoolSize,
+            @Value("${finera.ingestion.executor.max-pool-size:4}") int maxPoolSize,
+            @Value("${finera.ingestion.executor.queue-capacity:50}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("statement-ingestion-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    // AI işlerini yöneten görevler (ingestion aşamaları, parça ve hedge denemeleri) için executor.
+    // Virtual modda her görev kendi virtual thread'inde çalışır, havuz sınırı yoktur.
+    // Platform modda sabit boyutlu havuz; doluysa görev çağıran thread'de çalışır (geri basınç).
+    // Sağlayıcı çağrılarının kendisi ve zaman aşımları aiGuardExecutor'dadır.
+    @Bean(name = "aiCallExecutor")
+    public AsyncTaskExecutor aiCallExecutor(
+            @Value("${finera.ai.executor.pool-size:16}") int poolSize
+    ) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("ai-call-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("ai-call-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    // AiProviderGuard'ın zaman aşımı uyguladığı sağlayıcı çağrıları için ayrı executor.
+    // Çağıran thread çağrıyı asla kendisi çalıştırmaz (CallerRuns yok): havuz doluysa görev reddedilir,
+    // böylece zaman aşımı her durumda çağıran tarafından uygulanabilir. Eşzamanlılık guard'daki bulkhead ile sınırlı.
+    @Bean(name = "aiGuardExecutor")
+    public AsyncTaskExecutor aiGuardExecutor(
+            @Value("${finera.ai.resilience.executor-pool-size:32}") int poolSize
+    ) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("ai-guarded-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("ai-guarded-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    // Büyük PDF'lerin sayfa aralıklarını paralel çözmek için CPU sınırlı fork-join havuzu.
+    // CPU ağırlıklı iş olduğundan virtual thread modunda da platform thread'leri kullanılır.
+    @Bean(name = "pdfExtractionPool", destroyMethod = "shutdown")
+    public ForkJoinPool pdfExtractionPool(
+            @Value("${finera.pdf.parallel.pool-size:0}") int poolSize
+    ) {
+        int parallelism = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism);
+    }
+}
@@ -0,0 +1,13 @@
+package com.finera.config;
+
+import com.finera.service.savings.LocalSavingsProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * finera.savings.local.* altındaki yerel tasarruf optimizasyonu ayarlarını bağlar.
+ */
+@Configuration
+@EnableConfigurationProperties(LocalSavingsProperties.class)
+public class SavingsConfiguration {
+}
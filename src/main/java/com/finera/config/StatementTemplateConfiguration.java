@@ -0,0 +1,13 @@
+package com.finera.config;
+
+import com.finera.service.template.StatementTemplateProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * finera.extraction.* altındaki yerel ekstre şablonlarını bağlar.
+ */
+@Configuration
+@EnableConfigurationProperties(StatementTemplateProperties.class)
+public class StatementTemplateConfiguration {
+}
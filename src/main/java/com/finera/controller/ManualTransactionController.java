@@ -2,11 +2,11 @@ package com.finera.controller;
 
 import com.finera.dto.ManualTransactionRequestDto;
 import com.finera.dto.TransactionResponseDto;
-import com.finera.entities.User;
 import com.finera.exception.BadRequestException;
 import com.finera.exception.ResourceNotFoundException; // Exception import
-import com.finera.repository.UserRepository; // User Repo import
+import com.finera.security.CurrentUserId;
 import com.finera.service.ManualTransactionService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,8 +15,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -34,30 +32,20 @@ import java.util.UUID;
 public class ManualTransactionController {
 
     private final ManualTransactionService manualTransactionService;
-    private final UserRepository userRepository; // User ID'yi bulmak için
 
     @PostMapping
     @Operation(summary = "Add a manual transaction for the logged-in user")
     public ResponseEntity<TransactionResponseDto> addManualTransaction(
             @Valid @RequestBody ManualTransactionRequestDto requestDto,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @Parameter(hidden = true) @CurrentUserId UUID userId) { // Token'daki kullanıcı ID'si
 
-        if (userDetails == null) {
+        if (userId == null) {
             log.warn("Unauthorized attempt to add manual transaction.");
             // SecurityConfig genellikle bunu engeller ama yine de kontrol edelim
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
         try {
-            // UserDetails'den email alıp User ID'yi bul
-            String userEmail = userDetails.getUsername();
-            User currentUser = userRepository.findByEmail(userEmail)
-                    .orElseThrow(() -> {
-                        log.error("Authenticated user not found in database: {}", userEmail);
-                        return new ResourceNotFoundException("Authenticated user not found: " + userEmail);
-                    });
-            UUID userId = currentUser.getUserId();
-
             TransactionResponseDto createdTransaction = manualTransactionService.addManualTransaction(userId, requestDto);
             return new ResponseEntity<>(createdTransaction, HttpStatus.CREATED);
 
@@ -69,7 +57,7 @@ public class ManualTransactionController {
             log.warn("Failed to add manual transaction due to bad request: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build(); // Veya mesajı body'de döndür
         } catch (Exception e) {
-            log.error("Unexpected error adding manual transaction for user {}: {}", userDetails.getUsername(), e.getMessage(), e);
+            log.error("Unexpected error adding manual transaction for user {}: {}", userId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -1,9 +1,7 @@
 package com.finera.controller;
 
 import com.finera.dto.PeriodSummaryResponseDto;
-import com.finera.entities.User;
-import com.finera.exception.ResourceNotFoundException;
-import com.finera.repository.UserRepository;
+import com.finera.security.CurrentUserId;
 import com.finera.service.PeriodSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,8 +10,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 
@@ -26,7 +22,6 @@ import java.util.UUID;
 public class PeriodSummaryController {
 
     private final PeriodSummaryService periodSummaryService;
-    private final UserRepository userRepository;
 
     @GetMapping("/expenses/{year}/{month}")
     @Operation(summary = "Get Expense Summary by User and Period",
@@ -40,20 +35,15 @@ public class PeriodSummaryController {
             @Parameter(description = "Month of the period (1-12)", required = true, example = "1") @PathVariable int month,
             // categoryId query parametresi olarak kalabilir (opsiyonel filtreleme için)
             @Parameter(description = "Optional category ID to filter by") @RequestParam(required = false) Integer categoryId,
-            @AuthenticationPrincipal UserDetails userDetails
+            @Parameter(hidden = true) @CurrentUserId UUID currentUserId // Token'daki kullanıcının UUID'si (DB sorgusu yok)
     ) {
 
-        if (userDetails == null) {
+        if (currentUserId == null) {
             // Bu durum JwtAuthenticationFilter tarafından zaten engellenmiş olmalı,
             // ama ek bir kontrol olarak kalabilir.
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        String userEmail = userDetails.getUsername(); // Token'dan e-postayı al
-        User currentUser = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found for email: " + userEmail + " from token."));
-        UUID currentUserId = currentUser.getUserId(); // Veritabanından kullanıcının UUID'sini al
-
         // Ay validasyonu
         if (month < 1 || month > 12) {
             return ResponseEntity.badRequest().build();
@@ -2,20 +2,26 @@ package com.finera.controller;
 
 import com.finera.dto.SavingsRequestDto;
 import com.finera.dto.SavingsResponseDto;
+import com.finera.exception.AiProviderUnavailableException;
+import com.finera.exception.BadRequestException;
+import com.finera.security.CurrentUserId;
 import com.finera.service.SavingsRecommendationService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/savings")
@@ -29,21 +35,32 @@ public class SavingsController {
 
     @PostMapping("/recommendations")
     @Operation(summary = "Get Savings Recommendations",
-            description = "Provides AI-based recommendations on how to achieve a savings goal based on current spending.")
+            description = "Provides AI-based recommendations on how to achieve a savings goal based on current spending. "
+                    + "If currentSpending is omitted, the spending profile is computed on the server from the user's transactions "
+                    + "for periodYear/periodMonth (default: last completed month), averaged over trailingMonths.")
     @ApiResponse(responseCode = "200", description = "Recommendations generated successfully")
-    @ApiResponse(responseCode = "400", description = "Invalid input data or unsupported AI provider")
+    @ApiResponse(responseCode = "400", description = "Invalid input data, unsupported AI provider or no expenses for the requested period")
     @ApiResponse(responseCode = "500", description = "Internal AI processing error")
+    @ApiResponse(responseCode = "503", description = "AI providers are temporarily unavailable")
     public ResponseEntity<SavingsResponseDto> getSavingsRecommendations(
-            @Valid @RequestBody SavingsRequestDto request // Girdi DTO'sunu al
+            @Valid @RequestBody SavingsRequestDto request, // Girdi DTO'sunu al
+            @Parameter(hidden = true) @CurrentUserId UUID userId
     ) {
         log.info("Received savings recommendation request. Goal: {}, Provider: {}", request.getDesiredSavingsAmount(), request.getProvider());
+        if (userId == null) {
+            log.warn("Unauthorized attempt to get savings recommendations.");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
         try {
-            SavingsResponseDto response = savingsRecommendationService.getRecommendations(request);
+            SavingsResponseDto response = savingsRecommendationService.getRecommendations(userId, request);
             return ResponseEntity.ok(response);
-        } catch (IllegalArgumentException e) { // Geçersiz provider vb.
+        } catch (BadRequestException | IllegalArgumentException e) { // Geçersiz provider, boş harcama profili vb.
             log.warn("Bad request for savings recommendations: {}", e.getMessage());
             // Hata detayını içeren bir yanıt döndürmek daha iyi olabilir
             return ResponseEntity.badRequest().body(new SavingsResponseDto(e.getMessage(), null));
+        } catch (AiProviderUnavailableException e) { // Sağlayıcılar yavaş veya devre dışı
+            log.warn("AI providers unavailable for savings recommendations: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new SavingsResponseDto(e.getMessage(), null));
         } catch (Exception e) {
             log.error("Error generating savings recommendations: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().body(new SavingsResponseDto("Error generating recommendations: " + e.getMessage(), null));
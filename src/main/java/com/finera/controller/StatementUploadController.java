@@ -1,8 +1,12 @@
 package com.finera.controller;
 
-import com.finera.dto.FileUploadResponseDto;
+import com.finera.dto.IngestionJobResponseDto;
+import com.finera.exception.IngestionQueueFullException;
 import com.finera.exception.ResourceNotFoundException;
-import com.finera.service.PdfProcessingService;
+import com.finera.security.CurrentUserId;
+import com.finera.service.ingestion.DuplicateStatementPolicy;
+import com.finera.service.ingestion.StatementIngestionService;
+import com.finera.service.ingestion.UploadedStatement;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,17 +16,17 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal; // Giriş yapan kullanıcıyı almak için
-import org.springframework.security.core.userdetails.UserDetails; // UserDetails için
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import com.finera.service.ai.AiProvider; // Enum'u import et
 import org.springframework.web.bind.annotation.RequestParam;
 
 
+import java.io.IOException;
 import java.util.UUID;
 
 @RestController
@@ -33,59 +37,87 @@ import java.util.UUID;
 @Slf4j
 public class StatementUploadController {
 
-    private final PdfProcessingService pdfProcessingService;
-    private final com.finera.repository.UserRepository userRepository;
+    private final StatementIngestionService statementIngestionService;
+
+    @Value("${finera.ingestion.duplicate-policy:REUSE}")
+    private DuplicateStatementPolicy defaultDuplicatePolicy;
+
+    // Düşük bellek modunda yükleme heap'e kopyalanmaz, iş bitene kadar geçici dosyada bekler
+    @Value("${finera.pdf.low-memory:false}")
+    private boolean lowMemory;
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    @Operation(summary = "Upload and process a PDF bank statement",
-            description = "Uploads a PDF, extracts text, sends to AI for analysis using the specified provider, and saves transactions.")
-    @ApiResponse(responseCode = "200", description = "Statement processed successfully")
+    @Operation(summary = "Upload a PDF bank statement for asynchronous processing",
+            description = "Uploads a PDF and queues it for processing (text extraction, AI analysis with the specified provider, persistence). Returns a job id that can be polled via /api/v1/statements/jobs/{jobId}.")
+    @ApiResponse(responseCode = "202", description = "Statement accepted and queued for processing")
     @ApiResponse(responseCode = "400", description = "Invalid file, user not found, or unsupported AI provider")
-    @ApiResponse(responseCode = "500", description = "Internal processing error")
+    @ApiResponse(responseCode = "503", description = "Processing queue is full, retry later")
     @RequestBody(content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE))
-    public ResponseEntity<FileUploadResponseDto> uploadStatement(
+    public ResponseEntity<IngestionJobResponseDto> uploadStatement(
             @Parameter(description = "PDF statement file to upload", required = true)
             @RequestParam("statementFile") MultipartFile file,
             @Parameter(description = "Optional prefix for the source name (e.g., 'Isbank Kredi Karti')", required = false)
             @RequestParam(value = "sourcePrefix", required = false) String sourcePrefix,
-            @Parameter(description = "AI provider to use for extraction (GEMINI, OPENAI, etc.)", required = true, example = "GEMINI")
+            @Parameter(description = "AI provider to use for extraction (GEMINI, OPENAI, DEEPSEEK, or AUTO to let the server pick the fastest healthy provider)", required = true, example = "GEMINI")
             @RequestParam(value = "provider") AiProvider provider, // <-- AI Provider parametresi
-            @AuthenticationPrincipal UserDetails userDetails
+            @Parameter(description = "What to do if the same PDF was already uploaded (REUSE, REJECT, REPLACE). Defaults to the server setting.", required = false)
+            @RequestParam(value = "duplicatePolicy", required = false) DuplicateStatementPolicy duplicatePolicy,
+            @Parameter(hidden = true) @CurrentUserId UUID userId
     ) {
-        if (userDetails == null) {
+        if (userId == null) {
             log.warn("Unauthorized attempt to upload statement.");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         if (file.isEmpty() || !MediaType.APPLICATION_PDF.toString().equals(file.getContentType())) {
-            log.warn("Invalid file upload attempt by user {}: incorrect type or empty file.", userDetails.getUsername());
-            return ResponseEntity.badRequest().body(new FileUploadResponseDto("Invalid file. Please upload a PDF.", null, 0));
+            log.warn("Invalid file upload attempt by user {}: incorrect type or empty file.", userId);
+            return ResponseEntity.badRequest().body(errorBody("Invalid file. Please upload a PDF."));
         }
 
         try {
-            String userEmail = userDetails.getUsername();
-            com.finera.entities.User currentUser = userRepository.findByEmail(userEmail)
-                    .orElseThrow(() -> {
-                        log.error("User not found for email {} during statement upload.", userEmail);
-                        return new ResourceNotFoundException("User not found with email: " + userEmail);
-                    });
-            UUID userId = currentUser.getUserId();
-
-            log.info("Processing statement upload for user ID: {} with provider: {}", userId, provider);
-            // Provider parametresini service metoduna ilet
-            FileUploadResponseDto response = pdfProcessingService.processPdfStatement(file, userId, sourcePrefix, provider);
-            log.info("Statement processing completed for user ID: {}. Response: {}", userId, response);
-            return ResponseEntity.ok(response);
+            log.info("Queueing statement upload for user ID: {} with provider: {}", userId, provider);
+            // Dosya içeriği istek bitmeden kopyalanır, işleme arka planda devam eder
+            UploadedStatement statement = lowMemory ? UploadedStatement.spool(file) : UploadedStatement.from(file);
+            IngestionJobResponseDto job = statementIngestionService.submit(
+                    statement, userId, sourcePrefix, provider,
+                    duplicatePolicy != null ? duplicatePolicy : defaultDuplicatePolicy);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
 
         } catch (ResourceNotFoundException e) {
             log.error("User not found during upload: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new FileUploadResponseDto(e.getMessage(), null, 0));
-        } catch (IllegalArgumentException e) { // Geçersiz provider hatasını yakala
-            log.warn("Invalid AI provider requested: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new FileUploadResponseDto(e.getMessage(), null, 0));
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorBody(e.getMessage()));
+        } catch (IngestionQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorBody(e.getMessage()));
+        } catch (IOException e) {
+            log.error("Failed to read uploaded statement for user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorBody("Failed to read uploaded file: " + e.getMessage()));
         } catch (Exception e) {
-            log.error("Error processing uploaded statement for user {}: {}", userDetails.getUsername(), e.getMessage(), e);
+            log.error("Error queueing uploaded statement for user {}: {}", userId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new FileUploadResponseDto("Error processing file: " + e.getMessage(), null, 0));
+                    .body(errorBody("Error processing file: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get statement processing job status",
+            description = "Returns the current stage of an uploaded statement's processing job and, once completed, its result.")
+    @ApiResponse(responseCode = "200", description = "Job status retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Job not found for the authenticated user")
+    public ResponseEntity<IngestionJobResponseDto> getJobStatus(
+            @Parameter(description = "Job id returned by the upload endpoint", required = true) @PathVariable UUID jobId,
+            @Parameter(hidden = true) @CurrentUserId UUID userId
+    ) {
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.ok(statementIngestionService.getJob(jobId, userId));
+        } catch (ResourceNotFoundException e) {
+            log.warn("Ingestion job lookup failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorBody(e.getMessage()));
+        }
+    }
+
+    private IngestionJobResponseDto errorBody(String message) {
+        return IngestionJobResponseDto.builder().message(message).build();
+    }
+}
@@ -1,9 +1,9 @@
 package com.finera.controller;
 
 import com.finera.dto.CategoryTotalDto;
+import com.finera.dto.CategoryTrendResponseDto;
 import com.finera.dto.PeriodSummaryResponseDto; // Önceki endpoint için
-import com.finera.exception.ResourceNotFoundException;
-import com.finera.repository.UserRepository;
+import com.finera.security.CurrentUserId;
 import com.finera.service.CategorySummaryService; // YENİ SERVİSİ import et
 import com.finera.service.PeriodSummaryService; // Mevcut servisiniz (eğer varsa)
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,11 +14,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -34,7 +33,6 @@ public class SummaryController {
 
     private final PeriodSummaryService periodSummaryService; // Mevcut olabilir
     private final CategorySummaryService categorySummaryService; // YENİ SERVİSİ inject et
-    private final UserRepository userRepository;
 
     // Mevcut endpoint (Excel benzeri özet için)
     @GetMapping("/expenses-by-source/{year}/{month}") // URL'yi biraz değiştirdim karışmaması için
@@ -44,13 +42,9 @@ public class SummaryController {
     public ResponseEntity<PeriodSummaryResponseDto> getExpenseSummaryBySource(
             @Parameter(description = "Year of the period", required = true, example = "2024") @PathVariable int year,
             @Parameter(description = "Month of the period (1-12)", required = true, example = "1") @PathVariable int month,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @Parameter(hidden = true) @CurrentUserId UUID userId) {
 
-        if (userDetails == null) return ResponseEntity.status(401).build();
-        String userEmail = userDetails.getUsername();
-        com.finera.entities.User currentUser = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found for email: " + userEmail));
-        UUID userId = currentUser.getUserId();
+        if (userId == null) return ResponseEntity.status(401).build();
 
         if (month < 1 || month > 12) return ResponseEntity.badRequest().build();
 
@@ -69,21 +63,13 @@ public class SummaryController {
     public ResponseEntity<List<CategoryTotalDto>> getNetCategoryTotals(
             @Parameter(description = "Year of the period", required = true, example = "2025") @PathVariable int year,
             @Parameter(description = "Month of the period (1-12)", required = true, example = "5") @PathVariable int month,
-            @AuthenticationPrincipal UserDetails userDetails
+            @Parameter(hidden = true) @CurrentUserId UUID userId // Token'daki kullanıcı (DB sorgusu yok)
     ) {
-        if (userDetails == null) {
+        if (userId == null) {
             log.warn("Unauthorized attempt to get category totals.");
             return ResponseEntity.status(401).build();
         }
 
-        String userEmail = userDetails.getUsername();
-        com.finera.entities.User currentUser = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> {
-                    log.error("User not found for email {} while fetching category totals.", userEmail);
-                    return new ResourceNotFoundException("User not found for email: " + userEmail);
-                });
-        UUID userId = currentUser.getUserId();
-
         if (month < 1 || month > 12) {
             log.warn("Invalid month parameter for category totals: {}", month);
             return ResponseEntity.badRequest().build();
@@ -93,4 +79,28 @@ public class SummaryController {
         List<CategoryTotalDto> categoryTotals = categorySummaryService.getNetCategoryTotalsForPeriod(userId, year, month);
         return ResponseEntity.ok(categoryTotals);
     }
-}
\ No newline at end of file
+
+    // Çok aylı trend: 12 ayrı istek yerine tek istek ve tek sorgu
+    @GetMapping("/category-net-totals/trend")
+    @Operation(summary = "Get Monthly Net Category Totals for a Period Range",
+            description = "Retrieves per-month net category totals between two periods (inclusive) in a single request, "
+                    + "with running totals from the start of the range and year-to-date totals for each month.")
+    @ApiResponse(responseCode = "200", description = "Category trend retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid or too long period range")
+    @ApiResponse(responseCode = "401", description = "Unauthorized if JWT token is missing or invalid")
+    public ResponseEntity<CategoryTrendResponseDto> getNetCategoryTrend(
+            @Parameter(description = "Start year", required = true, example = "2025") @RequestParam int fromYear,
+            @Parameter(description = "Start month (1-12)", required = true, example = "1") @RequestParam int fromMonth,
+            @Parameter(description = "End year (inclusive)", required = true, example = "2025") @RequestParam int toYear,
+            @Parameter(description = "End month (1-12, inclusive)", required = true, example = "12") @RequestParam int toMonth,
+            @Parameter(hidden = true) @CurrentUserId UUID userId
+    ) {
+        if (userId == null) {
+            log.warn("Unauthorized attempt to get category trend.");
+            return ResponseEntity.status(401).build();
+        }
+
+        log.info("Request received for category trend. User: {}, From: {}-{}, To: {}-{}", userId, fromYear, fromMonth, toYear, toMonth);
+        return ResponseEntity.ok(categorySummaryService.getNetCategoryTrend(userId, fromYear, fromMonth, toYear, toMonth));
+    }
+}
@@ -0,0 +1,21 @@
+package com.finera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryTrendResponseDto {
+    private int fromYear;
+    private int fromMonth;
+    private int toYear;
+    private int toMonth;
+    private List<MonthlyCategoryTotalsDto> months; // Aralıktaki her ay (verisi olmayan aylar dahil), kronolojik
+    private List<CategoryTotalDto> rangeCategoryTotals; // Tüm aralık için kategori bazında net toplamlar
+    private BigDecimal rangeTotal;
+}
@@ -0,0 +1,29 @@
+package com.finera.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.finera.service.ai.AiProvider;
+import com.finera.service.ingestion.IngestionJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestionJobResponseDto {
+    private UUID jobId;
+    private IngestionJobStatus status; // Hangi aşamada olduğu (QUEUED, AI_PROCESSING, ...)
+    private String message;
+    private String fileName;
+    private AiProvider provider;
+    private FileUploadResponseDto result; // Sadece COMPLETED durumunda dolu
+    @JsonFormat(pattern="yyyy-MM-dd'T'HH:mm:ssZ")
+    private OffsetDateTime createdAt;
+    @JsonFormat(pattern="yyyy-MM-dd'T'HH:mm:ssZ")
+    private OffsetDateTime updatedAt;
+}
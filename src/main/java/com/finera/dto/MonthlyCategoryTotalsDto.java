@@ -0,0 +1,21 @@
+package com.finera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyCategoryTotalsDto {
+    private int year;
+    private int month;
+    private String periodName; // örn: "2024 Ocak"
+    private List<CategoryTotalDto> categoryTotals; // Ayın kategori bazında net toplamları
+    private BigDecimal monthTotal; // Ayın net toplamı
+    private BigDecimal runningTotal; // Aralığın başından bu aya kadar kümülatif toplam
+    private BigDecimal yearToDateTotal; // Yılın başından (Ocak) bu aya kadar kümülatif toplam
+}
@@ -2,7 +2,8 @@ package com.finera.dto;
 
 import com.finera.service.ai.AiProvider; // Enum import
 import jakarta.validation.Valid;
-import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
@@ -14,9 +15,16 @@ public class SavingsRequestDto {
     @NotNull @Positive
     private BigDecimal desiredSavingsAmount; // Hedeflenen tasarruf tutarı
 
-    @NotEmpty
     @Valid // İçindeki DTO'ları da doğrula
-    private List<SpendingCategoryDto> currentSpending; // Mevcut harcama dökümü
+    private List<SpendingCategoryDto> currentSpending; // Mevcut harcama dökümü; boşsa sunucu işlemlerden hesaplar
+
+    // currentSpending gönderilmezse harcama profili bu dönemden (veya son trailingMonths ayın ortalamasından) hesaplanır
+    @Min(2000)
+    private Integer periodYear; // Boşsa son tamamlanan ay
+    @Min(1) @Max(12)
+    private Integer periodMonth;
+    @Min(1) @Max(24)
+    private Integer trailingMonths; // Varsayılan 1 (sadece seçilen ay)
 
     @NotNull
     private AiProvider provider = AiProvider.GEMINI; // Varsayılan sağlayıcı veya zorunlu
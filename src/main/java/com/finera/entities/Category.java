@@ -1,6 +1,7 @@
 package com.finera.entities;
 
 import com.finera.entities.enums.CategoryType;
+import com.finera.service.category.CategoryCatalogInvalidator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -14,6 +15,7 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
+@EntityListeners(CategoryCatalogInvalidator.class)
 @Table(name = "categories", schema = "public")
 public class Category {
 
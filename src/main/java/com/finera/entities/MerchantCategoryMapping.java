@@ -0,0 +1,51 @@
+package com.finera.entities;
+
+import com.finera.entities.enums.MappingSource;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "merchant_category_mappings", schema = "public")
+public class MerchantCategoryMapping {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "mapping_id", updatable = false, nullable = false)
+    private Long mappingId;
+
+    // NULL: tüm kullanıcılar için geçerli (global) eşleme
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @NotBlank
+    @Column(name = "normalized_description", nullable = false, length = 255)
+    private String normalizedDescription;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "mapping_source", nullable = false, length = 10)
+    private MappingSource mappingSource;
+
+    @Column(name = "hit_count", nullable = false)
+    private long hitCount;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+}
@@ -64,4 +64,11 @@ public class Period {
 
     @OneToMany(mappedBy = "period", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Transaction> transactions;
+
+    /**
+     * transactions tablosunun bölüm anahtarı (period_index): yıl * 12 + ay.
+     */
+    public static int index(int year, int month) {
+        return year * 12 + month;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.finera.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * (Kullanıcı, dönem, kaynak, kategori) başına önceden hesaplanmış işlem toplamları.
+ * İşlemler eklenip silindikçe {@link com.finera.service.PeriodAggregateService} tarafından güncellenir;
+ * ilişkiler sadece okuma (JPQL join) içindir.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "period_category_aggregates", schema = "public")
+public class PeriodCategoryAggregate {
+
+    @EmbeddedId
+    private PeriodCategoryAggregateId id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "period_id", insertable = false, updatable = false)
+    private Period period;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "source_id", insertable = false, updatable = false)
+    private PeriodSource periodSource;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", insertable = false, updatable = false)
+    private Category category;
+
+    // Negatif tutarların toplamı (gider özetleri)
+    @Column(name = "negative_amount_total", nullable = false, precision = 17, scale = 2)
+    private BigDecimal negativeAmountTotal;
+
+    // Mutlak tutarların toplamı (net kategori toplamları, işaret kategori türünden gelir)
+    @Column(name = "absolute_amount_total", nullable = false, precision = 17, scale = 2)
+    private BigDecimal absoluteAmountTotal;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+}
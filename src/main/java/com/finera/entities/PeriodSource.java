@@ -52,6 +52,10 @@ public class PeriodSource {
     @Column(name = "upload_timestamp")
     private OffsetDateTime uploadTimestamp;
 
+    // Ekstreden oluşturulan kaynaklar için PDF içeriğinin SHA-256 özeti (tekrar yükleme tespiti)
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
@@ -0,0 +1,47 @@
+package com.finera.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.OffsetDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "statement_extraction_cache", schema = "public")
+@IdClass(StatementExtractionCacheId.class)
+public class StatementExtractionCache {
+
+    // PDF içeriğinin SHA-256 özeti (hex, 64 karakter)
+    @Id
+    @Column(name = "content_hash", nullable = false, updatable = false, length = 64)
+    private String contentHash;
+
+    // AI'dan dönen ExtractedDataDto'nun JSON hali
+    @NotBlank
+    @Column(name = "extracted_data", nullable = false, columnDefinition = "TEXT")
+    private String extractedData;
+
+    // Sonucu gerçekten üreten sağlayıcı (AiProvider adı) veya TEMPLATE; aynı içerik için sağlayıcı başına bir kayıt
+    @Id
+    @Column(name = "ai_provider", nullable = false, updatable = false, length = 20)
+    private String aiProvider;
+
+    @Column(name = "transaction_count", nullable = false)
+    private int transactionCount;
+
+    @Column(name = "hit_count", nullable = false)
+    private long hitCount;
+
+    @Column(name = "last_hit_at")
+    private OffsetDateTime lastHitAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+}
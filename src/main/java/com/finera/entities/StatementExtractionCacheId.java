@@ -0,0 +1,21 @@
+package com.finera.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class StatementExtractionCacheId implements Serializable {
+
+    private String contentHash;
+
+    private String aiProvider;
+}
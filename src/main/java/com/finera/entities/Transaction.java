@@ -40,6 +40,11 @@ public class Transaction {
     @JoinColumn(name = "period_id", nullable = false)
     private Period period;
 
+    // Bölüm anahtarı, Period.index(yıl, ay); dönemle birlikte yazılır ve değişmez
+    @NotNull
+    @Column(name = "period_index", nullable = false, updatable = false)
+    private Integer periodIndex;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = true)
     private Category category;
@@ -2,6 +2,7 @@
 
 package com.finera.entities;
 
+import com.finera.security.UserDetailsCacheInvalidator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -20,6 +21,7 @@ import java.util.UUID;
 @Builder
 @Entity
 @Table(name = "users", schema = "public")
+@EntityListeners(UserDetailsCacheInvalidator.class) // Şifre/e-posta değişince UserDetails önbelleği temizlenir
 public class User {
 
     @Id
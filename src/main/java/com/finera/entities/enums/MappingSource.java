@@ -0,0 +1,7 @@
+package com.finera.entities.enums;
+
+public enum MappingSource {
+    AI,     // AI'ın bu açıklama için verdiği kategori
+    MANUAL, // Kullanıcının kendi girdiği/düzelttiği kategori
+    SEED    // Mevcut işlemlerden öğrenilen kategori
+}
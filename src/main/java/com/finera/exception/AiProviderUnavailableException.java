@@ -0,0 +1,14 @@
+package com.finera.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE) // Sağlayıcı devre dışı, meşgul veya zaman aşımında; istemci daha sonra tekrar denemeli
+public class AiProviderUnavailableException extends AiProcessingException {
+    public AiProviderUnavailableException(String message) {
+        super(message);
+    }
+    public AiProviderUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
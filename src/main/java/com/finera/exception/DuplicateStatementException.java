@@ -0,0 +1,11 @@
+package com.finera.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT) // Aynı ekstre daha önce yüklenmiş
+public class DuplicateStatementException extends RuntimeException {
+    public DuplicateStatementException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.finera.projection;
+
+import java.util.UUID;
+
+public interface DescriptionCategoryProjection {
+    UUID getUserId();
+    String getDescription();
+    Integer getCategoryId();
+    Long getOccurrences();
+}
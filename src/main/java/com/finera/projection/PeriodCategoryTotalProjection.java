@@ -0,0 +1,12 @@
+package com.finera.projection;
+
+import java.math.BigDecimal;
+
+public interface PeriodCategoryTotalProjection {
+    Integer getPeriodYear();
+    Integer getPeriodMonth();
+    Integer getCategoryId();
+    String getCategoryNameTr();
+    String getCategoryNameEn();
+    BigDecimal getNetAmount();
+}
@@ -0,0 +1,71 @@
+package com.finera.repository;
+
+import com.finera.entities.MerchantCategoryMapping;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MerchantCategoryMappingRepository extends JpaRepository<MerchantCategoryMapping, Long> {
+
+    // Kullanıcıya özel ve global eşlemeleri tek sorguda getirir
+    @Query("""
+            SELECT m FROM MerchantCategoryMapping m
+            WHERE m.normalizedDescription IN :descriptions
+              AND (m.userId = :userId OR m.userId IS NULL)
+            """)
+    List<MerchantCategoryMapping> findUserAndGlobalMappings(@Param("userId") UUID userId,
+                                                            @Param("descriptions") Collection<String> descriptions);
+
+    // Kullanıcı düzeltmesi: mevcut eşlemenin üzerine yazar
+    @Modifying
+    @Query(value = """
+            INSERT INTO public.merchant_category_mappings (user_id, normalized_description, category_id, mapping_source, hit_count, updated_at)
+            VALUES (:userId, :description, :categoryId, :source, 0, now())
+            ON CONFLICT (user_id, normalized_description) WHERE user_id IS NOT NULL
+            DO UPDATE SET category_id = EXCLUDED.category_id, mapping_source = EXCLUDED.mapping_source, updated_at = now()
+            """, nativeQuery = true)
+    int upsertUserMapping(@Param("userId") UUID userId, @Param("description") String description,
+                          @Param("categoryId") Integer categoryId, @Param("source") String source);
+
+    // Öğrenilen eşleme: kullanıcının mevcut (ör. manuel) eşlemesini ezmez
+    @Modifying
+    @Query(value = """
+            INSERT INTO public.merchant_category_mappings (user_id, normalized_description, category_id, mapping_source, hit_count, updated_at)
+            VALUES (:userId, :description, :categoryId, :source, 0, now())
+            ON CONFLICT (user_id, normalized_description) WHERE user_id IS NOT NULL DO NOTHING
+            """, nativeQuery = true)
+    int insertUserMappingIfAbsent(@Param("userId") UUID userId, @Param("description") String description,
+                                  @Param("categoryId") Integer categoryId, @Param("source") String source);
+
+    // Yeterli sayıda farklı kullanıcının aynı kategoride birleştiği açıklamaları global eşlemeye terfi ettirir.
+    // Aynı açıklama için birden fazla kategori eşiği geçerse en çok kullanıcının seçtiği alınır.
+    @Modifying
+    @Query(value = """
+            INSERT INTO public.merchant_category_mappings (user_id, normalized_description, category_id, mapping_source, hit_count, updated_at)
+            SELECT DISTINCT ON (agreed.normalized_description)
+                   NULL, agreed.normalized_description, agreed.category_id, :source, 0, now()
+            FROM (
+                SELECT m.normalized_description, m.category_id, COUNT(DISTINCT m.user_id) AS user_count
+                FROM public.merchant_category_mappings m
+                WHERE m.user_id IS NOT NULL
+                  AND m.normalized_description IN (:descriptions)
+                GROUP BY m.normalized_description, m.category_id
+                HAVING COUNT(DISTINCT m.user_id) >= :minUsers
+            ) agreed
+            ORDER BY agreed.normalized_description, agreed.user_count DESC, agreed.category_id
+            ON CONFLICT (normalized_description) WHERE user_id IS NULL DO NOTHING
+            """, nativeQuery = true)
+    int promoteAgreedMappings(@Param("descriptions") Collection<String> descriptions,
+                              @Param("minUsers") int minUsers, @Param("source") String source);
+
+    @Modifying
+    @Query("UPDATE MerchantCategoryMapping m SET m.hitCount = m.hitCount + 1 WHERE m.mappingId IN :mappingIds")
+    int recordHits(@Param("mappingIds") Collection<Long> mappingIds);
+}
@@ -0,0 +1,127 @@
+package com.finera.repository;
+
+import com.finera.dto.CategoryTotalDto;
+import com.finera.entities.PeriodCategoryAggregate;
+import com.finera.entities.PeriodCategoryAggregateId;
+import com.finera.projection.CategorySourceProjection;
+import com.finera.projection.PeriodCategoryTotalProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PeriodCategoryAggregateRepository extends JpaRepository<PeriodCategoryAggregate, PeriodCategoryAggregateId> {
+
+    // Yeni işlemlerin katkısını mevcut satıra ekler (satır yoksa oluşturur); eşzamanlı yüklemelerde de tutarlı
+    @Modifying
+    @Query(value = """
+            INSERT INTO public.period_category_aggregates (user_id, period_id, source_id, category_id,
+                                                           negative_amount_total, absolute_amount_total, transaction_count)
+            VALUES (:userId, :periodId, :sourceId, :categoryId, :negativeAmount, :absoluteAmount, :transactionCount)
+            ON CONFLICT (user_id, period_id, source_id, category_id)
+            DO UPDATE SET negative_amount_total = period_category_aggregates.negative_amount_total + EXCLUDED.negative_amount_total,
+                          absolute_amount_total = period_category_aggregates.absolute_amount_total + EXCLUDED.absolute_amount_total,
+                          transaction_count     = period_category_aggregates.transaction_count + EXCLUDED.transaction_count
+            """, nativeQuery = true)
+    int addDelta(@Param("userId") UUID userId, @Param("periodId") UUID periodId,
+                 @Param("sourceId") UUID sourceId, @Param("categoryId") Integer categoryId,
+                 @Param("negativeAmount") BigDecimal negativeAmount, @Param("absoluteAmount") BigDecimal absoluteAmount,
+                 @Param("transactionCount") long transactionCount);
+
+    @Modifying
+    @Query("DELETE FROM PeriodCategoryAggregate a WHERE a.id.sourceId = :sourceId")
+    int deleteBySourceId(@Param("sourceId") UUID sourceId);
+
+    // Dönem gider özeti (kaynak ve kategori bazında), işlem tablosunu taramadan
+    @Query("""
+        SELECT
+            ps.sourceName AS sourceName,
+            c.categoryNameTr AS categoryNameTr,
+            SUM(a.negativeAmountTotal) AS totalAmount
+        FROM
+            PeriodCategoryAggregate a
+        JOIN
+            a.periodSource ps
+        JOIN
+            a.category c
+        JOIN
+            a.period p
+        WHERE
+            a.id.userId = :userId
+            AND p.periodYear = :year
+            AND p.periodMonth = :month
+            AND c.categoryType = com.finera.entities.enums.CategoryType.EXPENSE
+            AND a.negativeAmountTotal < 0
+        GROUP BY
+            ps.sourceName,
+            c.categoryNameTr
+        ORDER BY
+            ps.sourceName,
+            c.categoryNameTr
+        """)
+    List<CategorySourceProjection> findExpenseSummaryByUserAndPeriod(
+            @Param("userId") UUID userId,
+            @Param("year") int year,
+            @Param("month") int month
+    );
+
+    // Dönemin kategori bazında net toplamları: gider pozitif, gelir negatif
+    @Query("""
+            SELECT new com.finera.dto.CategoryTotalDto(
+                c.categoryNameTr,
+                c.categoryNameEn,
+                c.categoryId,
+                SUM(CASE
+                        WHEN c.categoryType = com.finera.entities.enums.CategoryType.EXPENSE THEN a.absoluteAmountTotal
+                        WHEN c.categoryType = com.finera.entities.enums.CategoryType.INCOME THEN a.absoluteAmountTotal * -1
+                        ELSE 0
+                    END)
+            )
+            FROM PeriodCategoryAggregate a
+            JOIN a.category c
+            JOIN a.period p
+            WHERE a.id.userId = :userId
+              AND p.periodYear = :year
+              AND p.periodMonth = :month
+            GROUP BY c.categoryId, c.categoryNameTr, c.categoryNameEn
+            ORDER BY c.categoryNameTr ASC
+            """)
+    List<CategoryTotalDto> findNetCategoryTotalsByUserAndPeriod(
+            @Param("userId") UUID userId,
+            @Param("year") int year,
+            @Param("month") int month
+    );
+
+    // Dönem aralığındaki (yıl * 12 + ay) aylık net kategori toplamları tek sorguda; trend ve yıl başından bu yana özetler için
+    @Query("""
+            SELECT
+                p.periodYear AS periodYear,
+                p.periodMonth AS periodMonth,
+                c.categoryId AS categoryId,
+                c.categoryNameTr AS categoryNameTr,
+                c.categoryNameEn AS categoryNameEn,
+                SUM(CASE
+                        WHEN c.categoryType = com.finera.entities.enums.CategoryType.EXPENSE THEN a.absoluteAmountTotal
+                        WHEN c.categoryType = com.finera.entities.enums.CategoryType.INCOME THEN a.absoluteAmountTotal * -1
+                        ELSE 0
+                    END) AS netAmount
+            FROM PeriodCategoryAggregate a
+            JOIN a.category c
+            JOIN a.period p
+            WHERE a.id.userId = :userId
+              AND (p.periodYear * 12 + p.periodMonth) BETWEEN :fromPeriodIndex AND :toPeriodIndex
+            GROUP BY p.periodYear, p.periodMonth, c.categoryId, c.categoryNameTr, c.categoryNameEn
+            ORDER BY p.periodYear ASC, p.periodMonth ASC, c.categoryNameTr ASC
+            """)
+    List<PeriodCategoryTotalProjection> findNetCategoryTotalsByUserBetweenPeriods(
+            @Param("userId") UUID userId,
+            @Param("fromPeriodIndex") int fromPeriodIndex,
+            @Param("toPeriodIndex") int toPeriodIndex
+    );
+}
@@ -2,6 +2,8 @@ package com.finera.repository;
 
 import com.finera.entities.Period;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -21,6 +23,16 @@ public interface PeriodRepository extends JpaRepository<Period, UUID> {
      */
     Optional<Period> findByUserUserIdAndPeriodYearAndPeriodMonth(UUID userId, int year, int month);
 
+    /**
+     * Verilen yıl için transactions tablosunun bölümünü yoksa oluşturur; varsayılan bölümdeki o yıla ait
+     * satırları yeni bölüme taşır (V8 migration'daki fonksiyon).
+     *
+     * @param year Dönem yılı.
+     * @return Çağrıdan sonra bölüm varsa true; oluşturulamadıysa (yarış, yetki) false.
+     */
+    @Query(value = "SELECT public.ensure_transactions_partition(:year)", nativeQuery = true)
+    boolean ensureTransactionPartition(@Param("year") int year);
+
     // İleride ihtiyaç duyulabilecek başka sorgu metotları buraya eklenebilir
     // Örneğin: List<Period> findByUserUserIdOrderByPeriodYearDescPeriodMonthDesc(UUID userId);
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package com.finera.repository;
 import com.finera.entities.PeriodSource;
 import com.finera.entities.enums.SourceType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,4 +24,17 @@ public interface PeriodSourceRepository extends JpaRepository<PeriodSource, UUID
     // Başka özel sorgular gerekirse buraya eklenebilir
     Optional<PeriodSource> findByPeriodPeriodIdAndUserUserIdAndSourceNameAndSourceType(
             UUID periodId, UUID userId, String sourceName, SourceType sourceType);
-}
\ No newline at end of file
+
+    // Aynı içerikteki ekstrenin kullanıcı tarafından daha önce yüklenip yüklenmediğini bulur
+    Optional<PeriodSource> findFirstByUserUserIdAndContentHashOrderByUploadTimestampDesc(UUID userId, String contentHash);
+
+    // Cascade'i atlayan toplu silme; işlemler önceden TransactionRepository ile silinmelidir
+    @Modifying
+    @Query("DELETE FROM PeriodSource ps WHERE ps.sourceId = :sourceId")
+    int deleteBySourceId(@Param("sourceId") UUID sourceId);
+
+    // Akışla yazılan kaynağa tamamlanınca kalıcı adını verir
+    @Modifying
+    @Query("UPDATE PeriodSource ps SET ps.sourceName = :sourceName WHERE ps.sourceId = :sourceId")
+    int renameSource(@Param("sourceId") UUID sourceId, @Param("sourceName") String sourceName);
+}
@@ -0,0 +1,28 @@
+package com.finera.repository;
+
+import com.finera.entities.StatementExtractionCache;
+import com.finera.entities.StatementExtractionCacheId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface StatementExtractionCacheRepository extends JpaRepository<StatementExtractionCache, StatementExtractionCacheId> {
+
+    // Aynı içerik için farklı sağlayıcıların ürettiği kayıtlar (en yenisi önce)
+    List<StatementExtractionCache> findByContentHashOrderByCreatedAtDesc(String contentHash);
+
+    // Entity'yi yüklemeden isabet sayacını artırır
+    @Modifying
+    @Query("""
+            UPDATE StatementExtractionCache c SET c.hitCount = c.hitCount + 1, c.lastHitAt = :hitAt
+            WHERE c.contentHash = :contentHash AND c.aiProvider = :aiProvider
+            """)
+    int recordHit(@Param("contentHash") String contentHash, @Param("aiProvider") String aiProvider,
+                  @Param("hitAt") OffsetDateTime hitAt);
+}
@@ -0,0 +1,20 @@
+package com.finera.repository;
+
+import com.finera.entities.Transaction;
+
+import java.util.List;
+
+/**
+ * Ekstreden çıkarılan işlemler için toplu yazma yolu.
+ * JPA'nın satır başına INSERT'i yerine JDBC batch ile tek seferde yazar.
+ */
+public interface TransactionBulkRepository {
+
+    /**
+     * İşlemleri batch INSERT ile kaydeder; ID'ler uygulama tarafında üretilip entity'lere yazılır.
+     * İlişkili kaynak, kullanıcı, dönem ve kategori entity'lerinin ID'leri dolu olmalıdır.
+     *
+     * @return eklenen satır sayısı
+     */
+    int bulkInsert(List<Transaction> transactions);
+}
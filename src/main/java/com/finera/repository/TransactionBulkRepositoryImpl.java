@@ -0,0 +1,89 @@
+package com.finera.repository;
+
+import com.finera.entities.Transaction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link TransactionBulkRepository} için JDBC uygulaması (Spring Data fragment'ı).
+ * PostgreSQL sürücüsünde reWriteBatchedInserts=true ile her batch tek bir çok satırlı INSERT'e dönüşür.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionBulkRepositoryImpl implements TransactionBulkRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO public.transactions (
+                transaction_id, source_id, user_id, period_id, category_id,
+                transaction_date, description_original, amount, currency,
+                ai_category_suggestion_id, ai_confidence_score, is_categorized_by_ai, notes,
+                created_at, updated_at, period_index
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${finera.persistence.transaction-batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public int bulkInsert(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        Timestamp nowTs = Timestamp.from(now.toInstant());
+        for (Transaction tx : transactions) {
+            if (tx.getTransactionId() == null) {
+                tx.setTransactionId(UUID.randomUUID());
+            }
+            tx.setCreatedAt(now);
+            tx.setUpdatedAt(now);
+        }
+
+        long started = System.nanoTime();
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, batchSize, (ps, tx) -> {
+            ps.setObject(1, tx.getTransactionId());
+            ps.setObject(2, tx.getPeriodSource().getSourceId());
+            ps.setObject(3, tx.getUser().getUserId());
+            ps.setObject(4, tx.getPeriod().getPeriodId());
+            if (tx.getCategory() != null) {
+                ps.setInt(5, tx.getCategory().getCategoryId());
+            } else {
+                ps.setNull(5, Types.INTEGER);
+            }
+            ps.setObject(6, tx.getTransactionDate());
+            ps.setString(7, tx.getDescriptionOriginal());
+            ps.setBigDecimal(8, tx.getAmount());
+            ps.setString(9, tx.getCurrency() != null ? tx.getCurrency() : "TRY");
+            if (tx.getAiSuggestedCategory() != null) {
+                ps.setInt(10, tx.getAiSuggestedCategory().getCategoryId());
+            } else {
+                ps.setNull(10, Types.INTEGER);
+            }
+            if (tx.getAiConfidenceScore() != null) {
+                ps.setDouble(11, tx.getAiConfidenceScore());
+            } else {
+                ps.setNull(11, Types.DOUBLE);
+            }
+            ps.setBoolean(12, tx.isCategorizedByAi());
+            ps.setString(13, tx.getNotes());
+            ps.setTimestamp(14, nowTs);
+            ps.setTimestamp(15, nowTs);
+            ps.setInt(16, tx.getPeriodIndex());
+        });
+        long elapsedMicros = Math.max(1, (System.nanoTime() - started) / 1_000);
+        log.info("Bulk inserted {} transactions in {} ms ({} rows/s, batch size {})",
+                transactions.size(), elapsedMicros / 1_000,
+                transactions.size() * 1_000_000L / elapsedMicros, batchSize);
+        return transactions.size();
+    }
+}
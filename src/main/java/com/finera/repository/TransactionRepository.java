@@ -1,9 +1,9 @@
 package com.finera.repository;
 
-import com.finera.dto.CategoryTotalDto; // Yeni DTO'yu import edin
 import com.finera.entities.Transaction;
-import com.finera.projection.CategorySourceProjection;
+import com.finera.projection.DescriptionCategoryProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,65 +12,23 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
+public interface TransactionRepository extends JpaRepository<Transaction, UUID>, TransactionBulkRepository {
 
-    @Query("""
-        SELECT
-            ps.sourceName AS sourceName,
-            c.categoryNameTr AS categoryNameTr,
-            SUM(t.amount) AS totalAmount
-        FROM
-            Transaction t
-        JOIN
-            t.periodSource ps
-        JOIN
-            t.category c
-        JOIN
-            t.period p
-        WHERE
-            t.user.userId = :userId
-            AND p.periodYear = :year
-            AND p.periodMonth = :month
-            AND c.categoryType = com.finera.entities.enums.CategoryType.EXPENSE
-            AND t.amount < 0
-        GROUP BY
-            ps.sourceName,
-            c.categoryNameTr
-        ORDER BY
-            ps.sourceName,
-            c.categoryNameTr
-        """)
-    List<CategorySourceProjection> findExpenseSummaryByUserAndPeriod(
-            @Param("userId") UUID userId,
-            @Param("year") int year,
-            @Param("month") int month
-    );
+    long countByPeriodSourceSourceId(UUID sourceId);
 
-    // YENİ METOT BURADA EKLENDİ
+    // Açıklama -> kategori önbelleğini mevcut işlemlerden beslemek için
     @Query("""
-            SELECT new com.finera.dto.CategoryTotalDto(
-                c.categoryNameTr,
-                c.categoryNameEn,
-                c.categoryId,
-                SUM(CASE
-                        WHEN c.categoryType = com.finera.entities.enums.CategoryType.EXPENSE THEN (CASE WHEN t.amount < 0 THEN t.amount * -1 ELSE t.amount END)
-                        WHEN c.categoryType = com.finera.entities.enums.CategoryType.INCOME THEN (CASE WHEN t.amount > 0 THEN t.amount * -1 ELSE t.amount END)
-                        ELSE 0
-                    END)
-            )
+            SELECT t.user.userId AS userId, t.descriptionOriginal AS description,
+                   t.category.categoryId AS categoryId, COUNT(t) AS occurrences
             FROM Transaction t
-            JOIN t.category c
-            JOIN t.period p
-            WHERE t.user.userId = :userId
-              AND p.periodYear = :year
-              AND p.periodMonth = :month
-            GROUP BY c.categoryId, c.categoryNameTr, c.categoryNameEn
-            ORDER BY c.categoryNameTr ASC
+            WHERE t.category IS NOT NULL
+            GROUP BY t.user.userId, t.descriptionOriginal, t.category.categoryId
             """)
-    List<CategoryTotalDto> findNetCategoryTotalsByUserAndPeriod(
-            @Param("userId") UUID userId,
-            @Param("year") int year,
-            @Param("month") int month
-    );
+    List<DescriptionCategoryProjection> findDescriptionCategoryPairs();
+
+    // Kaynağa ait tüm işlemleri tek sorguda siler (entity'leri tek tek yüklemeden); dönem indeksi tek bölüme indirger
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.periodSource.sourceId = :sourceId AND t.periodIndex = :periodIndex")
+    int deleteAllBySourceId(@Param("sourceId") UUID sourceId, @Param("periodIndex") int periodIndex);
 
-}
\ No newline at end of file
+}
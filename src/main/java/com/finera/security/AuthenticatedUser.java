@@ -0,0 +1,23 @@
+package com.finera.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Kimliği doğrulanmış kullanıcı: Spring Security'nin {@link User}'ına ek olarak kullanıcının ID'sini taşır.
+ * Controller'lar ID için veritabanına gitmek yerine {@link CurrentUserId} ile bunu kullanır.
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+    private final UUID userId;
+
+    public AuthenticatedUser(UUID userId, String email, String passwordHash, Collection<? extends GrantedAuthority> authorities) {
+        super(email, passwordHash, authorities);
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,17 @@
+package com.finera.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Controller parametresine token'daki kullanıcının ID'sini (UUID) enjekte eder.
+ * Kimlik doğrulanmamış isteklerde değer null olur.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUserId {
+}
@@ -33,7 +33,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         // Header yoksa veya "Bearer " ile başlamıyorsa sonraki filtreye geç
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -45,14 +44,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Tek parse ile imza, süre ve subject doğrulanır (daha önce görülen token için önbellekten)
+            JwtService.VerifiedToken verifiedToken = jwtService.verify(jwt);
+            final String userEmail = verifiedToken.username();
 
             // Kullanıcı adı varsa ve SecurityContext'te authentication yoksa
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail); // Önbellekli
 
                 // Token geçerli ise SecurityContext'i güncelle
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (userEmail.equals(userDetails.getUsername()) && !verifiedToken.isExpired() && sameUser(verifiedToken, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null, // Credentials (password) JWT ile gerekli değil
@@ -78,4 +79,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, response); // Veya devam et (Spring halleder)
         }
     }
-}
\ No newline at end of file
+
+    // Token'daki kullanıcı ID'si (varsa) yüklenen kullanıcıyla eşleşmeli: e-posta başka bir hesaba geçtiyse token reddedilir
+    private boolean sameUser(JwtService.VerifiedToken verifiedToken, UserDetails userDetails) {
+        return verifiedToken.userId() == null
+                || (userDetails instanceof AuthenticatedUser authenticatedUser
+                    && verifiedToken.userId().equals(authenticatedUser.getUserId()));
+    }
+}
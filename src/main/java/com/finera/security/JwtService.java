@@ -1,32 +1,76 @@
 package com.finera.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 
 import javax.crypto.SecretKey;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    /**
+     * İmzası doğrulanmış token'ın istek başına gereken bilgileri.
+     */
+    public record VerifiedToken(String username, UUID userId, Date expiration) {
+        public boolean isExpired() {
+            return expiration.before(new Date());
+        }
+    }
+
+    // Kullanıcı ID'si claim'i; eski token'larda bulunmayabilir
+    public static final String USER_ID_CLAIM = "uid";
+
     @Value("${jwt.secret}")
     private String secretKeyString;
 
     @Value("${jwt.expiration.ms}")
     private long jwtExpirationMs;
 
+    @Value("${jwt.cache.max-entries:10000}")
+    private int verifiedTokenCacheSize;
+
+    // Anahtar ve parser bir kez kurulur (ikisi de thread-safe); her istekte base64 çözümü yapılmaz
+    private SecretKey signInKey;
+    private JwtParser jwtParser;
+
+    // Doğrulanmış token'lar: aynı token'ın her istekte yeniden HMAC doğrulaması yapılmaz (LRU, süre dolunca geçersiz)
+    private Map<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKeyString));
+        jwtParser = Jwts.parser().verifyWith(signInKey).build();
+        int maxEntries = verifiedTokenCacheSize;
+        verifiedTokens = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
     // --- Token Generation ---
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof AuthenticatedUser authenticatedUser) {
+            claims.put(USER_ID_CLAIM, authenticatedUser.getUserId().toString());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -47,22 +91,37 @@ public class JwtService {
     }
 
     // --- Token Validation ---
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Token'ı doğrular; daha önce doğrulanmış ve süresi dolmamışsa önbellekten döner.
+     * Aksi halde imza tek bir parse ile doğrulanır ve gereken claim'ler birlikte okunur.
+     *
+     * @throws io.jsonwebtoken.JwtException Token geçersiz veya süresi dolmuşsa.
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedTokens.remove(token);
+        }
+        Claims claims = extractAllClaims(token); // Süresi dolmuşsa ExpiredJwtException fırlatır
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(),
+                userId != null ? UUID.fromString(userId) : null, claims.getExpiration());
+        verifiedTokens.put(token, verified);
+        return verified;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        final VerifiedToken verified = verify(token);
+        return verified.username().equals(userDetails.getUsername()) && !verified.isExpired();
     }
 
     // --- Claim Extraction ---
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).username();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -72,16 +131,13 @@ public class JwtService {
 
     private Claims extractAllClaims(String token) {
         // Parse methods automatically handle signature verification based on the key
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
     // --- Key Generation ---
     private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKeyString);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signInKey;
     }
 }
\ No newline at end of file
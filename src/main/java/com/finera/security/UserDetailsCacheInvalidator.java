@@ -0,0 +1,39 @@
+package com.finera.security;
+
+import com.finera.entities.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link User} entity listener'ı: kullanıcı güncellenince veya silinince (şifre, e-posta değişikliği)
+ * {@link UserDetailsServiceImpl} önbelleğini commit sonrasında temizler.
+ */
+@Component
+public class UserDetailsCacheInvalidator {
+
+    private final UserDetailsServiceImpl userDetailsService;
+
+    public UserDetailsCacheInvalidator(@Lazy UserDetailsServiceImpl userDetailsService) {
+        this.userDetailsService = userDetailsService;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Commit'ten önce yeniden yüklenirse eski veri okunur; bu yüzden commit sonrasına ertele
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userDetailsService.evict(user.getUserId());
+                }
+            });
+        } else {
+            userDetailsService.evict(user.getUserId());
+        }
+    }
+}
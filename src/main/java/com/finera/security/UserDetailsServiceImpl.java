@@ -2,41 +2,80 @@ package com.finera.security;
 
 import com.finera.entities.User;
 import com.finera.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 
 import java.util.Collections; // Basit yetkilendirme için
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
+    // Önbellekte sadece alanlar tutulur: Spring Security kimlik doğrulamadan sonra dönen
+    // UserDetails'in şifresini siler, bu yüzden her çağrıda yeni nesne üretilir
+    private record CachedUser(UUID userId, String email, String passwordHash, long expiresAt) {
+    }
+
     private final UserRepository userRepository;
+    private final Map<String, CachedUser> cache;
+    private final long ttlMillis;
+
+    public UserDetailsServiceImpl(UserRepository userRepository,
+                                  @Value("${finera.security.user-details-cache.max-entries:10000}") int maxEntries,
+                                  @Value("${finera.security.user-details-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        // Erişim sıralı LinkedHashMap: en uzun süredir kullanılmayan kayıt atılır (LRU)
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
 
+    // Bilerek @Transactional değil: önbellekten dönen isteklerde JPA transaction'ı ve havuzdan bağlantı alınmaz;
+    // findByEmail kendi kısa okumasını yapar
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        CachedUser cached = cache.get(email);
+        if (cached == null || cached.expiresAt() < System.currentTimeMillis()) {
+            User user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+            cached = new CachedUser(user.getUserId(), user.getEmail(), user.getPasswordHash(), System.currentTimeMillis() + ttlMillis);
+            cache.put(email, cached);
+        }
 
-        // Spring Security'nin UserDetails arayüzünü kullanın
+        // Spring Security'nin UserDetails arayüzünü kullanın (ID'yi de taşıyan alt sınıf)
         // Şimdilik roller/yetkiler olmadan basit bir implementasyon
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPasswordHash(),
+        return new AuthenticatedUser(
+                cached.userId(),
+                cached.email(),
+                cached.passwordHash(),
                 Collections.emptyList() // Roller/Authorities buraya eklenebilir (örn: user.getRoles()...)
         );
     }
 
     // JWT Filter'ın User entity'sine erişmesi için helper method (isteğe bağlı)
-    @Transactional(readOnly = true)
     public UserDetails loadUserDetailsById(String email) {
         // Yukarıdaki metodun aynısı gibi ama direkt UserDetails döner
         return loadUserByUsername(email);
     }
-}
\ No newline at end of file
+
+    /**
+     * Kullanıcı güncellendiğinde veya silindiğinde önbellekten çıkarır. E-posta değişmiş olabileceği için
+     * kayıt ID'ye göre aranır.
+     */
+    public void evict(UUID userId) {
+        synchronized (cache) {
+            cache.values().removeIf(cached -> cached.userId().equals(userId));
+        }
+    }
+}
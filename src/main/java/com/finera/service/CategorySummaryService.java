@@ -1,6 +1,7 @@
 package com.finera.service;
 
 import com.finera.dto.CategoryTotalDto;
+import com.finera.dto.CategoryTrendResponseDto;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,4 +17,17 @@ public interface CategorySummaryService {
      * @return Kategori bazında net toplamları içeren CategoryTotalDto listesi.
      */
     List<CategoryTotalDto> getNetCategoryTotalsForPeriod(UUID userId, int year, int month);
-}
\ No newline at end of file
+
+    /**
+     * Bir dönem aralığı için aylık kategori bazında net toplamları tek sorguda getirir;
+     * her ay için aralık başından itibaren kümülatif ve yıl başından bu yana (YTD) toplamları içerir.
+     *
+     * @param userId    Kullanıcı ID'si.
+     * @param fromYear  Başlangıç yılı.
+     * @param fromMonth Başlangıç ayı (1-12).
+     * @param toYear    Bitiş yılı (dahil).
+     * @param toMonth   Bitiş ayı (1-12, dahil).
+     * @return Aralıktaki tüm ayları (verisi olmayanlar sıfır toplamla) içeren trend özeti.
+     */
+    CategoryTrendResponseDto getNetCategoryTrend(UUID userId, int fromYear, int fromMonth, int toYear, int toMonth);
+}
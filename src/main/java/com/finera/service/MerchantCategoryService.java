@@ -0,0 +1,50 @@
+package com.finera.service;
+
+import com.finera.entities.Category;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * İşlem açıklamalarından (normalize edilmiş) kategori tahmini yapan, öğrenen önbellek.
+ * Kullanıcıya özel eşlemeler global eşlemelerden önce gelir.
+ */
+public interface MerchantCategoryService {
+
+    /**
+     * Bir eşleşme: kategori ve eşlemenin kullanıcıya özel olup olmadığı.
+     */
+    record Match(Category category, boolean userSpecific) {
+    }
+
+    /**
+     * Açıklamaların bilinen kategorilerini toplu olarak çözer (bellekte yoksa tek sorgu).
+     *
+     * @param userId Kullanıcı ID'si.
+     * @param descriptions Ham işlem açıklamaları.
+     * @return Ham açıklama -> eşleşme; bilinmeyen açıklamalar haritada yer almaz.
+     */
+    Map<String, Match> resolve(UUID userId, Collection<String> descriptions);
+
+    /**
+     * AI'ın verdiği kategorileri yükleyen kullanıcıya özel eşleme olarak öğrenir. Mevcut eşlemelerin üzerine yazmaz.
+     * Bir açıklama ancak yeterli sayıda farklı kullanıcıda aynı kategoriye eşlendiğinde global eşlemeye terfi eder.
+     *
+     * @param userId Ekstreyi yükleyen kullanıcının ID'si.
+     * @param categoriesByDescription Ham açıklama -> AI'ın kategorisi.
+     */
+    void learnFromAi(UUID userId, Map<String, Category> categoriesByDescription);
+
+    /**
+     * Kullanıcının girdiği veya düzelttiği kategoriyi kullanıcıya özel eşleme olarak kaydeder.
+     */
+    void learnManual(UUID userId, String description, Category category);
+
+    /**
+     * Mevcut işlemlerin açıklama/kategori çiftlerinden kullanıcı eşlemeleri oluşturur.
+     *
+     * @return Eklenen eşleme sayısı.
+     */
+    int seedFromTransactions();
+}
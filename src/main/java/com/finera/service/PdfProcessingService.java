@@ -1,28 +1,50 @@
 package com.finera.service; // Veya uygun bir paket adı
 
-import com.finera.dto.FileUploadResponseDto;
 import com.finera.service.ai.AiProvider;
-import org.springframework.web.multipart.MultipartFile;
+import com.finera.service.ai.ExtractionResult;
+import com.finera.service.ai.StreamingExtractionListener;
+import com.finera.service.ingestion.UploadedStatement;
 
 import java.util.UUID;
 
+/**
+ * Ekstre işleme hattının transaction dışı aşamaları.
+ * Aşamalar farklı executor'larda çalışabilsin diye ayrı metotlar olarak sunulur;
+ * kayıt aşaması için bkz. {@link StatementPersistenceService}.
+ */
 public interface PdfProcessingService {
 
     /**
-     * Yüklenen bir PDF banka ekstresini işler.
-     * Metni çıkarır, AI kullanarak verileri analiz eder ve işlemleri veritabanına kaydeder.
+     * Yüklenen PDF'ten temizlenmiş metni çıkarır (CPU ağırlıklı aşama).
      *
-     * @param file Yüklenen PDF dosyası.
-     * @param userId Dosyayı yükleyen kullanıcının ID'si.
-     * @param sourceNamePrefix Kaynak adı için isteğe bağlı önek (örn: "Garanti Bonus").
-     * @return İşlem sonucunu ve kaydedilen işlem sayısını içeren bir DTO.
-     * @throws RuntimeException İşlem sırasında bir hata oluşursa (dosya okuma, AI, veritabanı).
+     * @param statement Yüklenen PDF içeriği.
+     * @param userId Dosyayı yükleyen kullanıcının ID'si (AI maliyetinden önce doğrulanır).
+     * @return Temizlenmiş ekstre metni.
+     * @throws RuntimeException Dosya okunamazsa veya metin boşsa.
      */
-    FileUploadResponseDto processPdfStatement(
-            MultipartFile file,
-            UUID userId,
-            String sourceNamePrefix,
-            AiProvider provider // <-- AI Sağlayıcı parametresi eklendi
-    );
+    String extractStatementText(UploadedStatement statement, UUID userId);
 
-}
\ No newline at end of file
+    /**
+     * Ekstre metnini seçilen AI sağlayıcısına göndererek dönem ve işlem verilerini çıkarır
+     * (bloklayan I/O aşaması).
+     *
+     * @param statementText Temizlenmiş ekstre metni.
+     * @param provider Kullanılacak AI sağlayıcısı.
+     * @return Çıkarılan veriler ve onları üreten sağlayıcı (yedeğe geçişte veya şablon eşleşmesinde istenenden farklı).
+     * @throws IllegalArgumentException Sağlayıcı için bir implementasyon yoksa.
+     */
+    ExtractionResult extractStatementData(String statementText, AiProvider provider);
+
+    /**
+     * {@link #extractStatementData}'nın akış modu: AI yanıtı geldikçe dönem ve her işlem listener'a iletilir.
+     * Parçalanması gereken uzun metinlerde parçalar tamamlandıktan sonra sonuç sırayla iletilir.
+     *
+     * @param statementText Temizlenmiş ekstre metni.
+     * @param provider Kullanılacak AI sağlayıcısı.
+     * @param listener Dönem ve işlemleri alacak listener.
+     * @return Sonucu üreten sağlayıcının adı veya {@link ExtractionResult#TEMPLATE}.
+     * @throws IllegalArgumentException Sağlayıcı için bir implementasyon yoksa.
+     */
+    String streamStatementData(String statementText, AiProvider provider, StreamingExtractionListener listener);
+
+}
@@ -0,0 +1,27 @@
+package com.finera.service;
+
+import com.finera.entities.Transaction;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Dönem özetlerinin okunduğu önceden hesaplanmış (kullanıcı, dönem, kaynak, kategori) toplamlarını güncel tutar.
+ * İşlem yazan her yol aynı transaction içinde bu servisi çağırmalıdır.
+ */
+public interface PeriodAggregateService {
+
+    /**
+     * Yeni kaydedilen işlemlerin katkısını toplamlara ekler. Kategorisiz işlemler özetlere girmediği için atlanır.
+     *
+     * @param transactions Kaydedilmiş işlemler (kullanıcı, dönem ve kaynak atanmış olmalı).
+     */
+    void recordTransactions(Collection<Transaction> transactions);
+
+    /**
+     * Bir kaynağın işlemleri silinirken toplamlarını da kaldırır.
+     *
+     * @return Silinen toplam satırı sayısı.
+     */
+    int removeSource(UUID sourceId);
+}
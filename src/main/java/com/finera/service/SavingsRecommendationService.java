@@ -4,8 +4,20 @@ import com.finera.dto.SavingsRequestDto;
 import com.finera.dto.SavingsResponseDto;
 import com.finera.service.ai.AiProvider; // Enum import
 
+import java.util.UUID;
+
 public interface SavingsRecommendationService {
 
     SavingsResponseDto getRecommendations(SavingsRequestDto request);
 
+    /**
+     * İstekte currentSpending yoksa harcama profilini kullanıcının işlemlerinden (seçilen dönem
+     * veya son N ay) hesaplayıp öneri üretir; böylece istemcinin önce özet çekmesi gerekmez.
+     *
+     * @param userId  Token'daki kullanıcının ID'si.
+     * @param request Tasarruf isteği.
+     * @throws com.finera.exception.BadRequestException Dönem için hiç gider bulunamazsa.
+     */
+    SavingsResponseDto getRecommendations(UUID userId, SavingsRequestDto request);
+
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.finera.service;
+
+import com.finera.dto.SpendingCategoryDto;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface SpendingProfileService {
+    /**
+     * Kullanıcının işlemlerinden kategori bazında aylık gider profilini oluşturur.
+     * trailingMonths > 1 ise bitiş dönemi dahil son N ayın aylık ortalaması alınır.
+     *
+     * @param userId         Kullanıcı ID'si.
+     * @param year           Bitiş dönemi yılı.
+     * @param month          Bitiş dönemi ayı (1-12).
+     * @param trailingMonths Kaç ayın ortalaması alınacağı (en az 1).
+     * @return Pozitif tutarlı kategori harcamaları (tasarruf isteğinin currentSpending alanıyla aynı biçimde).
+     */
+    List<SpendingCategoryDto> buildSpendingProfile(UUID userId, int year, int month, int trailingMonths);
+}
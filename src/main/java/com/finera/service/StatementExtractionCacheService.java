@@ -0,0 +1,28 @@
+package com.finera.service;
+
+import com.finera.dto.ExtractedDataDto;
+import com.finera.service.ai.AiProvider;
+
+import java.util.Optional;
+
+public interface StatementExtractionCacheService {
+
+    /**
+     * Aynı PDF içeriği için istenen sağlayıcıyla daha önce yapılmış çıkarımı döner.
+     * Bulunursa PDF okuma ve AI çağrısı tamamen atlanabilir. Yerel şablonla üretilmiş sonuçlar
+     * sağlayıcıdan bağımsız olduğu için her istekte kullanılabilir; AUTO herhangi bir kaydı kabul eder.
+     *
+     * @param contentHash PDF içeriğinin SHA-256 özeti.
+     * @param requested İstenen sağlayıcı.
+     * @return Önbellekteki çıkarım, yoksa Optional.empty().
+     */
+    Optional<ExtractedDataDto> find(String contentHash, AiProvider requested);
+
+    /**
+     * Başarılı bir çıkarımı içerik özeti ve onu gerçekten üreten kaynakla birlikte saklar.
+     * Hata durumunda sadece loglanır; önbellek yazılamaması yüklemeyi başarısız yapmaz.
+     *
+     * @param producedBy Sonucu üreten sağlayıcının adı veya {@link com.finera.service.ai.ExtractionResult#TEMPLATE}.
+     */
+    void store(String contentHash, String producedBy, ExtractedDataDto extractedData);
+}
@@ -0,0 +1,71 @@
+package com.finera.service;
+
+import com.finera.dto.ExtractedDataDto;
+import com.finera.dto.FileUploadResponseDto;
+import com.finera.dto.TransactionDto;
+import com.finera.service.ingestion.DuplicateStatementPolicy;
+import com.finera.service.ingestion.OpenedStatementSource;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface StatementPersistenceService {
+
+    /**
+     * Kullanıcının aynı içerikteki bir ekstreyi daha önce yükleyip yüklemediğini kontrol eder.
+     *
+     * @param userId Kullanıcı ID'si.
+     * @param contentHash PDF içeriğinin SHA-256 özeti.
+     * @return Mevcut kaynağın adı ve işlem sayısı, yoksa Optional.empty().
+     */
+    Optional<FileUploadResponseDto> findExistingStatement(UUID userId, String contentHash);
+
+    /**
+     * AI tarafından çıkarılan ekstre verisini kısa bir transaction içinde kaydeder.
+     * Gerekirse Period oluşturur, ekstre için yeni bir PeriodSource açar ve işlemleri yazar.
+     * PDF okuma ve AI çağrısı bu metodun dışında (transaction açılmadan) yapılmalıdır.
+     *
+     * @param userId Dosyayı yükleyen kullanıcının ID'si.
+     * @param extractedData AI'dan gelen dönem ve işlem verisi.
+     * @param originalFilename Yüklenen dosyanın adı (kaynak adı için).
+     * @param sourceNamePrefix Kaynak adı için isteğe bağlı önek.
+     * @param contentHash PDF içeriğinin SHA-256 özeti (kaynağa yazılır).
+     * @param duplicatePolicy Aynı içerik daha önce yüklenmişse uygulanacak politika.
+     * @return Oluşturulan (veya REUSE ile mevcut) kaynak adı ve işlem sayısı.
+     * @throws com.finera.exception.DuplicateStatementException Politika REJECT ise ve ekstre zaten varsa.
+     */
+    FileUploadResponseDto persistStatement(UUID userId, ExtractedDataDto extractedData,
+                                           String originalFilename, String sourceNamePrefix,
+                                           String contentHash, DuplicateStatementPolicy duplicatePolicy);
+
+    /**
+     * Akış modu için dönemi bulur/oluşturur ve ekstre için yeni bir PeriodSource açar (kısa transaction).
+     * İşlemler daha sonra {@link #appendTransactions} ile parça parça yazılır. REPLACE politikasında
+     * eski ekstre silinmez; {@link #completeStatementSource} ile akış tamamlanınca silinir.
+     *
+     * @return Açılan kaynak; REUSE politikasıyla mevcut ekstre bulunduysa onu taşıyan bir kayıt.
+     * @throws com.finera.exception.DuplicateStatementException Politika REJECT ise ve ekstre zaten varsa.
+     */
+    OpenedStatementSource openStatementSource(UUID userId, int periodYear, int periodMonth,
+                                              String originalFilename, String sourceNamePrefix,
+                                              String contentHash, DuplicateStatementPolicy duplicatePolicy);
+
+    /**
+     * Açılmış kaynağa bir grup işlemi kendi transaction'ında ekler.
+     *
+     * @return Kaydedilen işlem sayısı (eksik alanlı işlemler atlanır).
+     */
+    int appendTransactions(OpenedStatementSource source, List<TransactionDto> transactions);
+
+    /**
+     * Akış başarıyla bittiğinde çağrılır. REPLACE politikasıyla açılmış kaynakta eski ekstreyi siler ve
+     * yeni kaynağa kalıcı adını verir (tek transaction); eski ekstre bu ana kadar yerinde kalır.
+     */
+    void completeStatementSource(OpenedStatementSource source);
+
+    /**
+     * Akış yarıda kaldığında açılmış kaynağı ve o ana kadar yazılan işlemleri siler.
+     */
+    void discardStatementSource(OpenedStatementSource source);
+}
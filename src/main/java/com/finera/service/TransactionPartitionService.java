@@ -0,0 +1,16 @@
+package com.finera.service;
+
+/**
+ * transactions tablosunun yıllık bölümlerinin, işlem yazılmadan önce var olmasını sağlar.
+ * İşlem yazan her yol aynı transaction içinde yazmadan önce çağırmalıdır.
+ */
+public interface TransactionPartitionService {
+
+    /**
+     * Verilen dönem indeksinin (Period.index) yılı için bölüm yoksa oluşturur; varsayılan bölüme düşmüş
+     * satırlar varsa yeni bölüme taşınır. Bölümü bilinen yıllar için veritabanına gitmez.
+     *
+     * @param periodIndex Yazılacak işlemlerin dönem indeksi.
+     */
+    void ensurePartition(int periodIndex);
+}
@@ -11,4 +11,17 @@ public interface AiExtractorService {
      * @throws AiProcessingException AI işlemi sırasında hata olursa.
      */
     ExtractedDataDto extractData(String statementText);
-}
\ No newline at end of file
+
+    /**
+     * Akış modunda çıkarım: yanıt geldikçe dönem ve her işlem listener'a iletilir.
+     * Varsayılan implementasyon yanıtın tamamını bekleyip sonucu sırayla iletir.
+     * @param statementText Banka ekstresi metni.
+     * @param listener Dönem ve işlemleri alacak listener.
+     * @throws AiProcessingException AI işlemi sırasında hata olursa.
+     */
+    default void extractDataStreaming(String statementText, StreamingExtractionListener listener) {
+        ExtractedDataDto extractedData = extractData(statementText);
+        listener.onPeriod(extractedData.getPeriodYear(), extractedData.getPeriodMonth());
+        extractedData.getTransactions().forEach(listener::onTransaction);
+    }
+}
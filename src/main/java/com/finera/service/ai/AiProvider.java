@@ -3,6 +3,10 @@ package com.finera.service.ai; // Veya com.finera.enums
 public enum AiProvider {
     GEMINI,
     OPENAI,
-    DEEPSEEK
+    DEEPSEEK,
+    // LLM kullanmayan yerel tasarruf optimizasyonu (yalnızca tasarruf önerileri; yedek sağlayıcı olarak en sonda denenir)
+    LOCAL,
+    // Sağlayıcıyı sunucu seçer: o an en hızlı ve sağlıklı olan (bkz. AiProviderRouter)
+    AUTO
     // Gelecekte eklenecek diğer sağlayıcılar (örn: OLLAMA, ANTHROPIC)
-}
\ No newline at end of file
+}
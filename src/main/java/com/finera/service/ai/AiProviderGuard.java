@@ -0,0 +1,358 @@
+package com.finera.service.ai;
+
+import com.finera.exception.AiProcessingException;
+import com.finera.exception.AiProviderUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * AI sağlayıcı çağrıları için dayanıklılık katmanı: sağlayıcı başına zaman aşımı, devre kesici
+ * ve eşzamanlı çağrı sınırı (bulkhead). Ayrıca sağlayıcılar arası yedeğe geçiş ve isteğe bağlı
+ * hedged (gecikirse ikinci sağlayıcıya da gönderilen) çağrılar sunar.
+ * Böylece tek bir sağlayıcının yavaşlaması istekleri süresiz bekletmez.
+ */
+@Slf4j
+@Component
+public class AiProviderGuard {
+
+    private final AsyncTaskExecutor aiCallExecutor;
+    private final AsyncTaskExecutor aiGuardExecutor;
+    private final AiProviderRouter aiProviderRouter;
+    private final Map<AiProvider, ProviderState> states = new EnumMap<>(AiProvider.class);
+
+    private final long callTimeoutMillis;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final long bulkheadWaitMillis;
+    private final boolean failoverEnabled;
+    private final long hedgeDelayMillis;
+
+    public AiProviderGuard(@Qualifier("aiCallExecutor") AsyncTaskExecutor aiCallExecutor,
+                           @Qualifier("aiGuardExecutor") AsyncTaskExecutor aiGuardExecutor,
+                           AiProviderRouter aiProviderRouter,
+                           @Value("${finera.ai.resilience.call-timeout-seconds:90}") long callTimeoutSeconds,
+                           @Value("${finera.ai.resilience.failure-threshold:5}") int failureThreshold,
+                           @Value("${finera.ai.resilience.open-duration-seconds:30}") long openDurationSeconds,
+                           @Value("${finera.ai.resilience.max-concurrent-calls:8}") int maxConcurrentCalls,
+                           @Value("${finera.ai.resilience.bulkhead-wait-millis:2000}") long bulkheadWaitMillis,
+                           @Value("${finera.ai.resilience.failover-enabled:true}") boolean failoverEnabled,
+                           @Value("${finera.ai.resilience.hedge-delay-millis:0}") long hedgeDelayMillis) {
+        this.aiCallExecutor = aiCallExecutor;
+        this.aiGuardExecutor = aiGuardExecutor;
+        this.aiProviderRouter = aiProviderRouter;
+        this.callTimeoutMillis = TimeUnit.SECONDS.toMillis(callTimeoutSeconds);
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMillis = TimeUnit.SECONDS.toMillis(openDurationSeconds);
+        this.bulkheadWaitMillis = bulkheadWaitMillis;
+        this.failoverEnabled = failoverEnabled;
+        this.hedgeDelayMillis = hedgeDelayMillis;
+        for (AiProvider provider : AiProvider.values()) {
+            states.put(provider, new ProviderState(Math.max(1, maxConcurrentCalls)));
+        }
+    }
+
+    /**
+     * Tek bir sağlayıcı çağrısını devre kesici, bulkhead ve zaman aşımı ile çalıştırır.
+     * Çağrı her zaman aiGuardExecutor'da çalışır; çağıran thread sadece bekler, böylece zaman aşımı
+     * havuz dolu olsa bile uygulanır. Zaman aşımında çağrı iptal edilir (thread kesilir) ve hata sayılır.
+     *
+     * @throws AiProviderUnavailableException Devre açıksa, sağlayıcı meşgulse, çağrı için boş thread yoksa
+     *                                        veya zaman aşımı olduysa.
+     * @throws AiProcessingException Çağrı başka bir sebeple başarısız olursa.
+     */
+    public <T> T call(AiProvider provider, Supplier<T> call) {
+        ProviderState state = states.get(provider);
+        boolean trial = acquire(provider, state);
+        try {
+            return execute(provider, state, call);
+        } finally {
+            // Yarı açık deneme hangi sonuçla biterse bitsin (kesinti, Error dahil) bir sonraki denemeye yer aç
+            if (trial) {
+                state.releaseTrial();
+            }
+        }
+    }
+
+    private <T> T execute(AiProvider provider, ProviderState state, Supplier<T> call) {
+        long started = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = aiGuardExecutor.submit(() -> {
+                try {
+                    result.complete(call.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    state.bulkhead.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            // Yerel kapasite sorunu: sağlayıcının hatası sayılmaz
+            state.bulkhead.release();
+            throw new AiProviderUnavailableException("No free thread to schedule AI call for provider " + provider + ".", e);
+        }
+        // Süre görev teslim edildiği anda başlar ve çağıran thread'in durumundan bağımsız işler
+        result.orTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS);
+
+        try {
+            T value = result.get();
+            state.onSuccess(provider);
+            aiProviderRouter.record(provider, System.nanoTime() - started, true);
+            return value;
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AiProcessingException("Interrupted while waiting for AI provider " + provider + ".", e);
+        } catch (ExecutionException e) {
+            state.onFailure(provider);
+            aiProviderRouter.record(provider, System.nanoTime() - started, false);
+            if (e.getCause() instanceof TimeoutException) {
+                task.cancel(true);
+                throw new AiProviderUnavailableException("AI provider " + provider + " did not respond within " + callTimeoutMillis + " ms.", e.getCause());
+            }
+            throw asAiProcessingException(provider, e.getCause());
+        }
+    }
+
+    /**
+     * Çağrıyı mevcut thread'de devre kesici ve bulkhead ile çalıştırır; zaman aşımı uygulanmaz.
+     * Yanıtı akış olarak tüketen çağrılar için (süre, HTTP istemcisinin okuma zaman aşımıyla sınırlıdır).
+     * {@link StreamingListenerException} devre kesiciye ve yönlendiriciye hata olarak sayılmaz.
+     */
+    public void callInline(AiProvider provider, Runnable call) {
+        ProviderState state = states.get(provider);
+        boolean trial = acquire(provider, state);
+        long started = System.nanoTime();
+        try {
+            call.run();
+            state.onSuccess(provider);
+            aiProviderRouter.record(provider, System.nanoTime() - started, true);
+        } catch (StreamingListenerException e) {
+            // Hata akışı tüketen taraftan (DB yazması vb.) geldi; sağlayıcının sağlığı hakkında bilgi vermez
+            throw e;
+        } catch (RuntimeException e) {
+            state.onFailure(provider);
+            aiProviderRouter.record(provider, System.nanoTime() - started, false);
+            throw e;
+        } finally {
+            state.bulkhead.release();
+            if (trial) {
+                state.releaseTrial();
+            }
+        }
+    }
+
+    /**
+     * Tercih edilen sağlayıcıyla başlayıp başarısızlıkta diğer kullanılabilir sağlayıcılara geçer.
+     * Devresi açık sağlayıcılar atlanır. hedge-delay-millis > 0 ise ilk sağlayıcı bu süre içinde
+     * yanıt vermezse ikinci sağlayıcıya da gönderilir ve ilk başarılı yanıt kullanılır.
+     * attempt fonksiyonu her sağlayıcı için {@link #call} ile korunan çağrıyı yapmalıdır.
+     *
+     * @param requested Kullanıcının seçtiği sağlayıcı (AUTO ise yönlendirici seçer).
+     * @param available Implementasyonu olan sağlayıcılar.
+     * @param attempt Sağlayıcı -> sonuç.
+     */
+    public <T> T callWithFailover(AiProvider requested, Collection<AiProvider> available, Function<AiProvider, T> attempt) {
+        AiProvider preferred = route(requested, available);
+        List<AiProvider> candidates = failoverOrder(preferred, available);
+        if (candidates.isEmpty()) {
+            throw new AiProviderUnavailableException("AI provider " + preferred + " is temporarily unavailable (circuit open).");
+        }
+
+        RuntimeException lastFailure = null;
+        int index = 0;
+        if (hedgeDelayMillis > 0 && candidates.size() > 1) {
+            try {
+                return hedged(candidates.get(0), candidates.get(1), attempt);
+            } catch (AiProcessingException e) {
+                lastFailure = e;
+                index = 2;
+            }
+        }
+        for (; index < candidates.size(); index++) {
+            AiProvider provider = candidates.get(index);
+            try {
+                if (index > 0) {
+                    log.warn("Failing over AI call from {} to {}", preferred, provider);
+                }
+                return attempt.apply(provider);
+            } catch (AiProcessingException e) {
+                log.warn("AI call with provider {} failed: {}", provider, e.getMessage());
+                lastFailure = e;
+            }
+        }
+        throw lastFailure;
+    }
+
+    /**
+     * AUTO isteğini gecikme ve hata istatistiklerine göre somut bir sağlayıcıya çevirir;
+     * diğer sağlayıcılar aynen döner.
+     */
+    public AiProvider route(AiProvider requested, Collection<AiProvider> available) {
+        return aiProviderRouter.route(requested, available, this::isAvailable);
+    }
+
+    /**
+     * Sağlayıcının devresi çağrı kabul ediyor mu?
+     */
+    public boolean isAvailable(AiProvider provider) {
+        return states.get(provider).isCallPermitted();
+    }
+
+    private <T> T hedged(AiProvider primary, AiProvider secondary, Function<AiProvider, T> attempt) {
+        // Denemeler sadece bekleyen görevler; asıl sağlayıcı çağrıları ve zaman aşımları aiGuardExecutor'da.
+        // aiCallExecutor doluysa deneme çağıran thread'de çalışır ve hedge sıralı denemeye dönüşür.
+        CompletableFuture<T> primaryCall = CompletableFuture.supplyAsync(() -> attempt.apply(primary), aiCallExecutor);
+        try {
+            return primaryCall.get(hedgeDelayMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.info("AI provider {} slower than {} ms, hedging request to {}", primary, hedgeDelayMillis, secondary);
+        } catch (ExecutionException e) {
+            log.warn("AI call with provider {} failed: {}", primary, e.getCause().getMessage());
+            return attempt.apply(secondary);
+        } catch (InterruptedException e) {
+            primaryCall.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AiProcessingException("Interrupted while waiting for AI provider " + primary + ".", e);
+        }
+
+        CompletableFuture<T> secondaryCall = CompletableFuture.supplyAsync(() -> attempt.apply(secondary), aiCallExecutor);
+        // İlk başarılı yanıt kazanır; ikisi de başarısız olursa son hata fırlatılır
+        CompletableFuture<T> firstSuccess = new CompletableFuture<>();
+        List<CompletableFuture<T>> calls = List.of(primaryCall, secondaryCall);
+        calls.forEach(call -> call.thenAccept(firstSuccess::complete));
+        CompletableFuture.allOf(primaryCall, secondaryCall)
+                .whenComplete((ignored, e) -> firstSuccess.completeExceptionally(e != null ? e : new CancellationException()));
+        try {
+            return firstSuccess.join();
+        } catch (CompletionException e) {
+            throw asAiProcessingException(secondary, e.getCause());
+        } finally {
+            // Kaybeden çağrının sonucu kullanılmaz; call() içindeki zaman aşımı onu sınırlar
+            calls.forEach(call -> call.cancel(false));
+        }
+    }
+
+    private List<AiProvider> failoverOrder(AiProvider preferred, Collection<AiProvider> available) {
+        List<AiProvider> order = new ArrayList<>();
+        if (isAvailable(preferred)) {
+            order.add(preferred);
+        }
+        if (failoverEnabled) {
+            for (AiProvider provider : AiProvider.values()) {
+                if (provider != preferred && available.contains(provider) && isAvailable(provider)) {
+                    order.add(provider);
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Devre kesiciden izin ve bulkhead'den yer alır.
+     *
+     * @return Çağrı yarı açık devrenin deneme çağrısıysa true; çağıran bitişte {@link ProviderState#releaseTrial()} çağırmalı.
+     */
+    private boolean acquire(AiProvider provider, ProviderState state) {
+        Permission permission = state.tryAcquirePermission();
+        if (permission == Permission.DENIED) {
+            throw new AiProviderUnavailableException("AI provider " + provider + " is temporarily unavailable (circuit open).");
+        }
+        boolean trial = permission == Permission.TRIAL;
+        boolean acquired = false;
+        try {
+            acquired = state.bulkhead.tryAcquire(bulkheadWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiProcessingException("Interrupted while waiting for an AI call slot.", e);
+        } finally {
+            if (!acquired && trial) {
+                state.releaseTrial();
+            }
+        }
+        if (!acquired) {
+            throw new AiProviderUnavailableException("AI provider " + provider + " has too many calls in flight.");
+        }
+        return trial;
+    }
+
+    private static AiProcessingException asAiProcessingException(AiProvider provider, Throwable cause) {
+        if (cause instanceof AiProcessingException aiProcessingException) {
+            return aiProcessingException;
+        }
+        return new AiProcessingException("AI call with provider " + provider + " failed: " + cause.getMessage(), cause);
+    }
+
+    private enum Permission { ALLOWED, TRIAL, DENIED }
+
+    /**
+     * Sağlayıcı başına devre kesici durumu. Art arda failureThreshold hata devreyi açar;
+     * openDuration sonunda tek bir deneme çağrısına izin verilir (yarı açık), başarılıysa devre kapanır.
+     * Deneme bayrağını sadece denemeyi alan çağrı bırakır (releaseTrial), sonuç ne olursa olsun.
+     */
+    private final class ProviderState {
+        private final Semaphore bulkhead;
+        private int consecutiveFailures;
+        private long openUntil;
+        private boolean trialInFlight;
+
+        private ProviderState(int maxConcurrentCalls) {
+            this.bulkhead = new Semaphore(maxConcurrentCalls);
+        }
+
+        private synchronized boolean isCallPermitted() {
+            return consecutiveFailures < failureThreshold || (System.currentTimeMillis() >= openUntil && !trialInFlight);
+        }
+
+        private synchronized Permission tryAcquirePermission() {
+            if (consecutiveFailures < failureThreshold) {
+                return Permission.ALLOWED;
+            }
+            if (System.currentTimeMillis() >= openUntil && !trialInFlight) {
+                trialInFlight = true;
+                return Permission.TRIAL;
+            }
+            return Permission.DENIED;
+        }
+
+        private synchronized void releaseTrial() {
+            trialInFlight = false;
+        }
+
+        private synchronized void onSuccess(AiProvider provider) {
+            if (consecutiveFailures >= failureThreshold) {
+                log.info("Circuit for AI provider {} closed after successful trial call", provider);
+            }
+            consecutiveFailures = 0;
+        }
+
+        private synchronized void onFailure(AiProvider provider) {
+            consecutiveFailures++;
+            if (consecutiveFailures >= failureThreshold) {
+                openUntil = System.currentTimeMillis() + openDurationMillis;
+                log.warn("Circuit for AI provider {} opened for {} ms after {} consecutive failures",
+                        provider, openDurationMillis, consecutiveFailures);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.finera.service.ai;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * AUTO modunda isteği o an en hızlı sağlıklı sağlayıcıya yönlendirir.
+ * Her sağlayıcı için son çağrıların gecikme ve başarı bilgisi kayan pencerede tutulur;
+ * skor = p95 gecikme * (1 + hata oranı * ceza) * göreli maliyet. En düşük skor kazanır.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiProviderRouter {
+
+    /**
+     * Bir sağlayıcının anlık istatistikleri (metrik olarak loglanır).
+     */
+    public record ProviderStats(AiProvider provider, int samples, long p50Millis, long p95Millis,
+                                double errorRate, double score, long routed) {
+    }
+
+    private final AiRoutingProperties properties;
+    private final Map<AiProvider, Window> windows = new EnumMap<>(AiProvider.class);
+    private final AtomicLong decisions = new AtomicLong();
+
+    /**
+     * İstenen sağlayıcı AUTO değilse aynen döner; AUTO ise kullanılabilir ve sağlıklı
+     * sağlayıcılar arasından en düşük skorluyu seçer.
+     *
+     * @param requested İstemcinin seçtiği sağlayıcı.
+     * @param available Implementasyonu olan sağlayıcılar.
+     * @param healthy Devre kesici durumu (çağrı kabul eden sağlayıcılar).
+     */
+    public AiProvider route(AiProvider requested, Collection<AiProvider> available, Predicate<AiProvider> healthy) {
+        if (requested != AiProvider.AUTO) {
+            return requested;
+        }
+        // LOCAL hızlı ama LLM değil: AUTO onu yalnızca başka sağlayıcı yoksa seçer (yedek olarak failover'da kalır)
+        List<AiProvider> remote = available.stream()
+                .filter(provider -> provider != AiProvider.AUTO && provider != AiProvider.LOCAL)
+                .toList();
+        List<AiProvider> candidates = remote.stream().filter(healthy).toList();
+        if (candidates.isEmpty()) {
+            // Hepsinin devresi açık: yine de birini seç, koruma katmanı uygun hatayı verir
+            candidates = !remote.isEmpty() ? remote : available.stream().filter(provider -> provider != AiProvider.AUTO).toList();
+        }
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("No AI provider implementation available for AUTO routing.");
+        }
+
+        AiProvider chosen = choose(candidates);
+        window(chosen).routed.incrementAndGet();
+        long decision = decisions.incrementAndGet();
+        if (properties.getLogEvery() > 0 && decision % properties.getLogEvery() == 0) {
+            log.info("AI routing stats after {} decisions: {}", decision, stats());
+        }
+        log.debug("AUTO routed to AI provider {}", chosen);
+        return chosen;
+    }
+
+    /**
+     * Tamamlanan bir sağlayıcı çağrısını kaydeder.
+     */
+    public void record(AiProvider provider, long latencyNanos, boolean success) {
+        window(provider).add(latencyNanos / 1_000_000, success);
+    }
+
+    public List<ProviderStats> stats() {
+        List<ProviderStats> stats = new ArrayList<>();
+        for (AiProvider provider : AiProvider.values()) {
+            if (provider != AiProvider.AUTO && provider != AiProvider.LOCAL) {
+                stats.add(window(provider).stats(provider));
+            }
+        }
+        return stats;
+    }
+
+    private AiProvider choose(List<AiProvider> candidates) {
+        // Yeterli örneği olmayan sağlayıcı önce denenir
+        for (AiProvider candidate : candidates) {
+            if (window(candidate).size() < properties.getMinSamples()) {
+                return candidate;
+            }
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (candidates.size() > 1 && random.nextInt(100) < properties.getExplorePercent()) {
+            return candidates.get(random.nextInt(candidates.size()));
+        }
+
+        List<ProviderStats> stats = candidates.stream().map(candidate -> window(candidate).stats(candidate)).toList();
+        List<ProviderStats> acceptable = stats.stream()
+                .filter(candidate -> candidate.errorRate() <= properties.getMaxErrorRate())
+                .toList();
+        return (acceptable.isEmpty() ? stats : acceptable).stream()
+                .min(Comparator.comparingDouble(ProviderStats::score))
+                .map(ProviderStats::provider)
+                .orElse(candidates.get(0));
+    }
+
+    private synchronized Window window(AiProvider provider) {
+        return windows.computeIfAbsent(provider, p -> new Window(Math.max(1, properties.getWindowSize())));
+    }
+
+    /**
+     * Son N çağrının gecikme ve sonuçlarını tutan halka tampon.
+     */
+    private final class Window {
+        private final long[] latencies;
+        private final boolean[] failures;
+        private final AtomicLong routed = new AtomicLong();
+        private int next;
+        private int count;
+
+        private Window(int size) {
+            this.latencies = new long[size];
+            this.failures = new boolean[size];
+        }
+
+        private synchronized void add(long latencyMillis, boolean success) {
+            latencies[next] = latencyMillis;
+            failures[next] = !success;
+            next = (next + 1) % latencies.length;
+            count = Math.min(count + 1, latencies.length);
+        }
+
+        private synchronized int size() {
+            return count;
+        }
+
+        private synchronized ProviderStats stats(AiProvider provider) {
+            if (count == 0) {
+                return new ProviderStats(provider, 0, 0, 0, 0, 0, routed.get());
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int failed = 0;
+            for (int i = 0; i < count; i++) {
+                if (failures[i]) {
+                    failed++;
+                }
+            }
+            long p50 = sorted[(count - 1) / 2];
+            long p95 = sorted[(int) Math.ceil(count * 0.95) - 1];
+            double errorRate = (double) failed / count;
+            double score = p95 * (1 + errorRate * properties.getErrorPenalty())
+                    * properties.getCostWeight().getOrDefault(provider, 1.0);
+            return new ProviderStats(provider, count, p50, p95, errorRate, score, routed.get());
+        }
+    }
+}
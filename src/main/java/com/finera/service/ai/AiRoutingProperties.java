@@ -0,0 +1,30 @@
+package com.finera.service.ai;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * AUTO sağlayıcı seçimi ayarları (finera.ai.routing.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "finera.ai.routing")
+public class AiRoutingProperties {
+
+    /** Sağlayıcı başına tutulan son çağrı sayısı (gecikme yüzdelikleri ve hata oranı bu pencereden hesaplanır). */
+    private int windowSize = 100;
+    /** Bu kadar örneği olmayan sağlayıcı önce denenir (soğuk başlangıç). */
+    private int minSamples = 5;
+    /** İsteklerin bu yüzdesi, istatistikleri güncel tutmak için rastgele sağlıklı bir sağlayıcıya gönderilir. */
+    private int explorePercent = 5;
+    /** Hata oranının skora etkisi: skor = p95 * (1 + hataOranı * errorPenalty) * costWeight. */
+    private double errorPenalty = 4.0;
+    /** Bu hata oranının üzerindeki sağlayıcılar başka seçenek varsa seçilmez. */
+    private double maxErrorRate = 0.5;
+    /** Sağlayıcıların göreli token maliyeti (varsayılan 1.0); pahalı sağlayıcı aynı hızda daha az tercih edilir. */
+    private Map<AiProvider, Double> costWeight = new EnumMap<>(AiProvider.class);
+    /** Her N yönlendirme kararında istatistikler loglanır. */
+    private int logEvery = 50;
+}
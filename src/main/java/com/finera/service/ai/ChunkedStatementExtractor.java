@@ -0,0 +1,167 @@
+package com.finera.service.ai;
+
+import com.finera.dto.ExtractedDataDto;
+import com.finera.dto.TransactionDto;
+import com.finera.exception.AiProcessingException;
+import com.finera.exception.AiProviderUnavailableException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Uzun ekstre metinlerini işlem sınırlarından parçalara bölüp AI sağlayıcısına eşzamanlı gönderen katman.
+ * Toplam süre parçaların toplamı yerine en yavaş parçayla sınırlanır; sağlayıcı başına eşzamanlı çağrı sayısı sınırlıdır.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChunkedStatementExtractor {
+
+    // Temizlenmiş metinde satır sonu kalmadığı için işlem başlangıcı tarih kalıbından tanınır (ör. 05.01.2024, 05/01/2024)
+    private static final Pattern TRANSACTION_START_PATTERN = Pattern.compile("\\b\\d{2}[./-]\\d{2}[./-]\\d{2,4}\\b");
+
+    @Qualifier("aiCallExecutor")
+    private final AsyncTaskExecutor aiCallExecutor;
+    private final AiProviderGuard aiProviderGuard;
+
+    private final Map<AiProvider, Semaphore> providerPermits = new EnumMap<>(AiProvider.class);
+
+    @Value("${finera.ai.chunking.max-chunk-chars:12000}")
+    private int maxChunkChars;
+
+    @Value("${finera.ai.chunking.max-concurrency-per-provider:4}")
+    private int maxConcurrencyPerProvider;
+
+    /**
+     * Metin tek bir AI çağrısı için fazla uzun mu?
+     */
+    public boolean shouldChunk(String statementText) {
+        return statementText != null && statementText.length() > maxChunkChars;
+    }
+
+    /**
+     * Metni parçalara bölüp her parçayı eşzamanlı olarak extractor'a gönderir ve sonuçları birleştirir.
+     * Başarısız olan parça bir kez yeniden denenir; yine başarısız olursa tüm çıkarım başarısız sayılır
+     * (eksik işlemle kayıt yapılmaz).
+     */
+    public ExtractedDataDto extract(String statementText, AiProvider provider, AiExtractorService extractor) {
+        List<String> chunks = split(statementText);
+        log.info("Splitting statement text ({} chars) into {} chunks for provider {}", statementText.length(), chunks.size(), provider);
+
+        Semaphore permits = permitsFor(provider);
+        List<CompletableFuture<ExtractedDataDto>> futures = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            int chunkIndex = i;
+            String chunk = chunks.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> extractChunk(chunk, chunkIndex, provider, permits, extractor), aiCallExecutor));
+        }
+
+        List<ExtractedDataDto> results;
+        try {
+            results = futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof AiProcessingException aiProcessingException) {
+                throw aiProcessingException;
+            }
+            throw new AiProcessingException("Chunked AI extraction failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return merge(results);
+    }
+
+    private ExtractedDataDto extractChunk(String chunk, int chunkIndex, AiProvider provider, Semaphore permits, AiExtractorService extractor) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiProcessingException("Interrupted while waiting for an AI call slot.", e);
+        }
+        try {
+            try {
+                return aiProviderGuard.call(provider, () -> extractor.extractData(chunk));
+            } catch (AiProviderUnavailableException e) {
+                // Devre açık veya zaman aşımı: aynı sağlayıcıyı tekrar denemek anlamsız
+                throw e;
+            } catch (AiProcessingException e) {
+                log.warn("Chunk {} failed ({}), retrying once", chunkIndex, e.getMessage());
+                return aiProviderGuard.call(provider, () -> extractor.extractData(chunk));
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Metni en fazla maxChunkChars uzunluğunda parçalara böler. Parça sınırı, sınırdan önceki son
+     * işlem başlangıcına (tarih) çekilir; bulunamazsa son boşluk kullanılır.
+     */
+    List<String> split(String text) {
+        List<String> chunks = new ArrayList<>();
+        int start = 0;
+        while (text.length() - start > maxChunkChars) {
+            int limit = start + maxChunkChars;
+            int cut = lastTransactionStart(text, start + maxChunkChars / 2, limit);
+            if (cut <= start) {
+                cut = text.lastIndexOf(' ', limit);
+            }
+            if (cut <= start) {
+                cut = limit;
+            }
+            chunks.add(text.substring(start, cut).trim());
+            start = cut;
+        }
+        chunks.add(text.substring(start).trim());
+        return chunks;
+    }
+
+    private int lastTransactionStart(String text, int from, int to) {
+        Matcher matcher = TRANSACTION_START_PATTERN.matcher(text).region(from, to);
+        int last = -1;
+        while (matcher.find()) {
+            last = matcher.start();
+        }
+        return last;
+    }
+
+    /**
+     * Parça sonuçlarını sırayla birleştirir. Dönem ekstre başlığının bulunduğu ilk parçadan alınır;
+     * diğer parçalar dönemi işlem tarihlerinden tahmin ettiği için (çoğu zaman bir önceki ay) yalnızca
+     * ilk parça dönem bildirmediğinde, sıradaki ilk dönem bildiren parçaya bakılır.
+     * Parçalar örtüşmediği (her satır tam olarak bir parçada) için tekrar ayıklama yapılmaz:
+     * sınırın iki yanındaki aynı gün, aynı tutarlı iki işlem gerçek iki işlemdir.
+     */
+    ExtractedDataDto merge(List<ExtractedDataDto> results) {
+        List<TransactionDto> merged = new ArrayList<>();
+        for (ExtractedDataDto result : results) {
+            if (result.getTransactions() != null) {
+                merged.addAll(result.getTransactions());
+            }
+        }
+
+        ExtractedDataDto period = results.stream()
+                .filter(result -> result.getPeriodYear() > 0 && result.getPeriodMonth() > 0)
+                .findFirst()
+                .orElseThrow(() -> new AiProcessingException("AI did not return a statement period for any chunk."));
+
+        log.info("Merged {} chunks into {} transactions for period {}-{}",
+                results.size(), merged.size(), period.getPeriodYear(), period.getPeriodMonth());
+        return new ExtractedDataDto(period.getPeriodYear(), period.getPeriodMonth(), merged);
+    }
+
+    private synchronized Semaphore permitsFor(AiProvider provider) {
+        return providerPermits.computeIfAbsent(provider, p -> new Semaphore(Math.max(1, maxConcurrencyPerProvider)));
+    }
+}
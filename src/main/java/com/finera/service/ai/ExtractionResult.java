@@ -0,0 +1,23 @@
+package com.finera.service.ai;
+
+import com.finera.dto.ExtractedDataDto;
+
+/**
+ * Ekstre çıkarımının sonucu ve sonucu gerçekte üreten kaynak.
+ * İstenen sağlayıcıdan farklı olabilir: AUTO yönlendirmesi, yedek sağlayıcıya geçiş veya yerel şablon.
+ *
+ * @param extractedData Dönem ve işlemler.
+ * @param producedBy    Üreten sağlayıcının adı ({@link AiProvider#name()}) veya {@link #TEMPLATE}.
+ */
+public record ExtractionResult(ExtractedDataDto extractedData, String producedBy) {
+
+    public static final String TEMPLATE = "TEMPLATE";
+
+    public static ExtractionResult ofTemplate(ExtractedDataDto extractedData) {
+        return new ExtractionResult(extractedData, TEMPLATE);
+    }
+
+    public static ExtractionResult of(AiProvider provider, ExtractedDataDto extractedData) {
+        return new ExtractionResult(extractedData, provider.name());
+    }
+}
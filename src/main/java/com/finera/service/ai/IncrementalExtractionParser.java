@@ -0,0 +1,203 @@
+package com.finera.service.ai;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.finera.dto.TransactionDto;
+import com.finera.exception.AiProcessingException;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * AI'dan parça parça gelen ExtractedDataDto JSON'unu Jackson'ın bloklamayan parser'ı ile ayrıştırır.
+ * Her işlem nesnesi kapanır kapanmaz {@link StreamingExtractionListener}'a iletilir; yanıtın tamamı bellekte tutulmaz.
+ * Baştaki ```json işareti ve kök nesneden sonra gelen her şey yok sayılır.
+ * Listener'ın fırlattığı hatalar {@link StreamingListenerException} ile sarılır (ayrıştırma hatalarından ayrılabilsin diye).
+ * Thread-safe değildir; her yanıt için yeni bir örnek oluşturulmalıdır.
+ */
+public class IncrementalExtractionParser {
+
+    private final ObjectMapper objectMapper;
+    private final StreamingExtractionListener listener;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private boolean started;   // kök nesnenin '{' karakteri görüldü mü
+    private boolean finished;  // kök nesne kapandı mı
+    private int depth;
+    private String currentField;
+    private boolean inTransactions;
+    private TokenBuffer transactionBuffer;
+    private int transactionDepth;
+    private Integer periodYear;
+    private Integer periodMonth;
+    private boolean periodEmitted;
+    private int transactionCount;
+
+    public IncrementalExtractionParser(ObjectMapper objectMapper, StreamingExtractionListener listener) {
+        this.objectMapper = objectMapper;
+        this.listener = listener;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create non-blocking JSON parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Akışın tamamını tüketir ve bitince ayrıştırmayı kapatır (çağıran thread'i bloklar).
+     * Parçalar HTTP istemcisinin event-loop thread'inde değil çağıran thread'de işlenir;
+     * listener'ın DB yazması güvenlidir.
+     */
+    public void consume(Flux<String> contentStream) {
+        for (String chunk : contentStream.toIterable()) {
+            feed(chunk);
+        }
+        finish();
+    }
+
+    public void feed(String chunk) {
+        if (finished || chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        if (!started) {
+            int objectStart = chunk.indexOf('{');
+            if (objectStart < 0) {
+                return; // Kod bloğu işareti vb. JSON öncesi metin
+            }
+            started = true;
+            chunk = chunk.substring(objectStart);
+        }
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            drain();
+        } catch (IOException e) {
+            throw new AiProcessingException("Failed to parse streamed AI response.", e);
+        }
+    }
+
+    public void finish() {
+        if (!finished) {
+            feeder.endOfInput();
+            try {
+                drain();
+            } catch (IOException e) {
+                throw new AiProcessingException("Failed to parse streamed AI response.", e);
+            }
+        }
+        if (!finished) {
+            throw new AiProcessingException("Streamed AI response ended before the JSON object was complete.");
+        }
+        if (!periodEmitted) {
+            throw new AiProcessingException("Streamed AI response did not contain a statement period.");
+        }
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            handle(token);
+        }
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        if (transactionBuffer != null) {
+            transactionBuffer.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                transactionDepth++;
+            } else if (token.isStructEnd() && --transactionDepth == 0) {
+                emitTransaction();
+            }
+            return;
+        }
+
+        switch (token) {
+            case START_OBJECT -> {
+                depth++;
+                if (inTransactions && depth == 3) {
+                    transactionBuffer = new TokenBuffer(parser, null);
+                    transactionBuffer.forceUseOfBigDecimal(true);
+                    transactionBuffer.copyCurrentEvent(parser);
+                    transactionDepth = 1;
+                    depth--; // İşlem nesnesinin kapanışı tampon tarafından sayılır
+                }
+            }
+            case START_ARRAY -> {
+                depth++;
+                if (depth == 2 && "transactions".equals(currentField)) {
+                    inTransactions = true;
+                }
+            }
+            case END_ARRAY -> {
+                if (depth == 2) {
+                    inTransactions = false;
+                }
+                depth--;
+            }
+            case END_OBJECT -> {
+                depth--;
+                if (depth == 0) {
+                    finished = true;
+                }
+            }
+            case FIELD_NAME -> currentField = parser.currentName();
+            default -> {
+                if (depth == 1 && token.isScalarValue()) {
+                    readPeriodField();
+                }
+            }
+        }
+    }
+
+    private void readPeriodField() throws IOException {
+        if ("periodYear".equals(currentField)) {
+            periodYear = parseInt();
+        } else if ("periodMonth".equals(currentField)) {
+            periodMonth = parseInt();
+        }
+        if (!periodEmitted && periodYear != null && periodMonth != null) {
+            periodEmitted = true;
+            try {
+                listener.onPeriod(periodYear, periodMonth);
+            } catch (RuntimeException e) {
+                throw new StreamingListenerException(e);
+            }
+        }
+    }
+
+    // Model yılı/ayı bazen sayı, bazen metin olarak döndürüyor ("2024", "01")
+    private Integer parseInt() throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        try {
+            return Integer.parseInt(parser.getText().trim());
+        } catch (NumberFormatException e) {
+            throw new AiProcessingException("Invalid period value in streamed AI response: " + parser.getText());
+        }
+    }
+
+    private void emitTransaction() throws IOException {
+        try (JsonParser bufferedParser = transactionBuffer.asParser(objectMapper)) {
+            TransactionDto transaction = objectMapper.readValue(bufferedParser, TransactionDto.class);
+            transactionCount++;
+            try {
+                listener.onTransaction(transaction);
+            } catch (RuntimeException e) {
+                throw new StreamingListenerException(e);
+            }
+        } finally {
+            transactionBuffer = null;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.finera.service.ai;
+
+import com.finera.dto.TransactionDto;
+
+/**
+ * Akış (streaming) modunda AI yanıtı ayrıştırıldıkça çağrılan geri bildirimler.
+ * Dönem genellikle işlemlerden önce gelir ama sıralama garanti değildir.
+ */
+public interface StreamingExtractionListener {
+
+    void onPeriod(int periodYear, int periodMonth);
+
+    void onTransaction(TransactionDto transaction);
+}
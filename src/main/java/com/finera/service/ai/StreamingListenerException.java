@@ -0,0 +1,18 @@
+package com.finera.service.ai;
+
+/**
+ * Akış modunda {@link StreamingExtractionListener} geri bildiriminin (ör. DB yazması, tekrar yükleme reddi)
+ * fırlattığı hatayı taşır. Sağlayıcının hatası olmadığından extractor'lar bunu AiProcessingException'a
+ * çevirmez ve {@link AiProviderGuard} devre kesici ile yönlendirici istatistiklerine saymaz.
+ */
+public class StreamingListenerException extends RuntimeException {
+
+    public StreamingListenerException(RuntimeException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized RuntimeException getCause() {
+        return (RuntimeException) super.getCause();
+    }
+}
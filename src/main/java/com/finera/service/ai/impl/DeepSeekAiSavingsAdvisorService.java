@@ -52,7 +52,11 @@ public class DeepSeekAiSavingsAdvisorService implements AiSavingsAdvisorService
               }}
             ]
             ```
-            """; // Prompt metnini kısa tuttum, önceki gibi detaylı olabilir
+            """; 
+    // Ayrıştırılmış şablon iş parçacığı başına tutulur (PromptTemplate thread-safe değil)
+    private final ThreadLocal<PromptTemplate> promptTemplate =
+            ThreadLocal.withInitial(() -> new PromptTemplate(basePromptTemplate));
+// Prompt metnini kısa tuttum, önceki gibi detaylı olabilir
 
     @Override
     public List<SavingsRecommendationDto> generateRecommendations(
@@ -65,8 +69,7 @@ public class DeepSeekAiSavingsAdvisorService implements AiSavingsAdvisorService
 
         log.info("Sending savings request to DeepSeekAI. Goal: {}, Spending Count: {}", desiredSavings, currentSpending.size());
 
-        PromptTemplate template = new PromptTemplate(basePromptTemplate, Map.of());
-        Prompt prompt = template.create(Map.of(
+        Prompt prompt = promptTemplate.get().create(Map.of(
                 "desired_savings", desiredSavings.toPlainString(),
                 "spending_details", spendingDetails
         ));
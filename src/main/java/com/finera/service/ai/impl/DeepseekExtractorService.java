@@ -3,10 +3,12 @@ package com.finera.service.ai.impl;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.finera.dto.ExtractedDataDto;
-import com.finera.entities.Category;
 import com.finera.exception.AiProcessingException;
-import com.finera.repository.CategoryRepository;
 import com.finera.service.ai.AiExtractorService;
+import com.finera.service.ai.IncrementalExtractionParser;
+import com.finera.service.ai.StreamingExtractionListener;
+import com.finera.service.ai.StreamingListenerException;
+import com.finera.service.category.CategoryCatalog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
@@ -16,9 +18,7 @@ import org.springframework.beans.factory.annotation.Qualifier; // Qualifier impo
 import org.springframework.stereotype.Service;
 
 
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service("deepseekExtractor") // Bean adı enum ile eşleşiyor (küçük harf)
@@ -29,7 +29,7 @@ public class DeepseekExtractorService implements AiExtractorService {
     @Qualifier("deepseekChatClient") // Doğru bean'i seçmek için Qualifier kullan
     private final ChatClient deepseekChatClient;
     private final ObjectMapper objectMapper;
-    private final CategoryRepository categoryRepository;
+    private final CategoryCatalog categoryCatalog;
 
     // Prompt, diğer modellerle aynı olabilir veya DeepSeek için ince ayar gerektirebilir
     private final String basePromptTemplate =  """
@@ -63,24 +63,13 @@ public class DeepseekExtractorService implements AiExtractorService {
         >>>
         """;
 
+    // Şablon iş parçacığı başına bir kez ayrıştırılır; PromptTemplate render sırasında iç durumunu değiştirdiği için paylaşılamaz
+    private final ThreadLocal<PromptTemplate> promptTemplate =
+            ThreadLocal.withInitial(() -> new PromptTemplate(basePromptTemplate));
+
     @Override
     public ExtractedDataDto extractData(String statementText) {
-        List<String> validCategoryNames = categoryRepository.findAll() // Tüm kategorileri al
-                .stream()
-                .map(Category::getCategoryNameTr) // Türkçe isimleri al
-                .collect(Collectors.toList());
-        String categoryListString = String.join(", ", validCategoryNames); // Virgülle ayır
-        String defaultCategory = "Diğer / Belirsiz"; // Varsayılan kategori adı
-
-        PromptTemplate template = new PromptTemplate(basePromptTemplate, Map.of());
-        Prompt prompt = template.create(Map.of(
-                "statement_text", statementText,
-                "category_list", categoryListString,
-                "default_category", defaultCategory
-        ));
-
-
-        log.debug("Generated Prompt for AI: {}", prompt.getContents());
+        Prompt prompt = buildPrompt(statementText);
 
         try {
             // Inject edilen DeepSeek ChatClient'ını kullan
@@ -108,6 +97,39 @@ public class DeepseekExtractorService implements AiExtractorService {
         }
     }
 
+    @Override
+    public void extractDataStreaming(String statementText, StreamingExtractionListener listener) {
+        log.info("Streaming statement text to DeepSeek for extraction...");
+        Prompt prompt = buildPrompt(statementText);
+        IncrementalExtractionParser parser = new IncrementalExtractionParser(objectMapper, listener);
+        try {
+            // İşlemler JSON nesneleri tamamlandıkça listener'a iletilir
+            parser.consume(deepseekChatClient.prompt(prompt).stream().content());
+            log.info("Successfully streamed {} transactions using DeepSeek", parser.getTransactionCount());
+        } catch (AiProcessingException | StreamingListenerException e) {
+            // Listener hatası (DB, tekrar yükleme reddi) sağlayıcı hatası değildir; olduğu gibi iletilir
+            throw e;
+        } catch (Exception e) {
+            log.error("Error during DeepSeek streaming extraction: {}", e.getMessage(), e);
+            throw new AiProcessingException("Error calling DeepSeek service (streaming).", e);
+        }
+    }
+
+    private Prompt buildPrompt(String statementText) {
+        // Kategori listesi uygulama genelindeki katalogdan hazır gelir (DB'ye gidilmez)
+        String categoryListString = categoryCatalog.promptCategoryList();
+        String defaultCategory = CategoryCatalog.DEFAULT_CATEGORY_NAME;
+
+        Prompt prompt = promptTemplate.get().create(Map.of(
+                "statement_text", statementText,
+                "category_list", categoryListString,
+                "default_category", defaultCategory
+        ));
+
+        log.debug("Generated Prompt for AI: {}", prompt.getContents());
+        return prompt;
+    }
+
     private String cleanJsonResponse(String response) {
         // Diğer servislerdeki ile aynı temizleme mantığı
         if (response == null) return "{}";
@@ -3,35 +3,34 @@ package com.finera.service.ai.impl;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.finera.dto.ExtractedDataDto;
-import com.finera.entities.Category; // Category importu
 import com.finera.exception.AiProcessingException;
-import com.finera.repository.CategoryRepository; // CategoryRepository importu
 import com.finera.service.ai.AiExtractorService;
+import com.finera.service.ai.IncrementalExtractionParser;
+import com.finera.service.ai.StreamingExtractionListener;
+import com.finera.service.ai.StreamingListenerException;
+import com.finera.service.category.CategoryCatalog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
-import org.springframework.ai.vertexai.gemini.VertexAiGeminiChatModel;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service("geminiExtractor")
 @RequiredArgsConstructor
 public class GeminiExtractorService implements AiExtractorService {
 
-    private final VertexAiGeminiChatModel vertexAiChatModel;
-    // ChatClient.Builder ile farklı modeller/ayarlar için client'lar oluşturulabilir
-  //  private final ChatClient geminiChatClient; // Bean olarak inject edilir (Spring AI starter sağlar)
+    // Bir kez kurulan Gemini client'ı (AiChatClientConfiguration)
+    @Qualifier("geminiChatClient")
+    private final ChatClient geminiChatClient;
     private final ObjectMapper objectMapper; // JSON parse için
 
-    private final CategoryRepository categoryRepository;
+    private final CategoryCatalog categoryCatalog;
 
     // Dikkat: Bu prompt çok önemlidir ve modelinize/verilerinize göre iyileştirilmelidir!
     private final String basePromptTemplate = """
@@ -65,34 +64,21 @@ public class GeminiExtractorService implements AiExtractorService {
         >>>
         """;
 
+    // Şablon iş parçacığı başına bir kez ayrıştırılır; PromptTemplate render sırasında iç durumunu değiştirdiği için paylaşılamaz
+    private final ThreadLocal<PromptTemplate> promptTemplate =
+            ThreadLocal.withInitial(() -> new PromptTemplate(basePromptTemplate));
+
 
 
 
     @Override
     public ExtractedDataDto extractData(String statementText) {
         log.info("Sending statement text to Gemini for extraction...");
-        List<String> validCategoryNames = categoryRepository.findAll()
-                .stream()
-                .map(Category::getCategoryNameTr) // Türkçe isimleri alıyoruz
-                .collect(Collectors.toList());
-        String categoryListString = String.join(", ", validCategoryNames);
-        String defaultCategory = "Diğer / Belirsiz"; // Varsayılan kategori adı
-
-
-        PromptTemplate template = new PromptTemplate(basePromptTemplate, Map.of());
-        Prompt prompt = template.create(Map.of(
-                "statement_text", statementText,
-                "category_list", categoryListString,
-                "default_category", defaultCategory
-        ));
-
-        log.debug("Generated Prompt for AI: {}", prompt.getContents());
+        Prompt prompt = buildPrompt(statementText);
 
         try {
-            ChatClient client = ChatClient.builder(this.vertexAiChatModel).build();
-
             // JSON yanıtını temizle (başıdaki/sondaki ```json vb. işaretleri kaldır)
-            String jsonResponse = client.prompt(prompt)
+            String jsonResponse = geminiChatClient.prompt(prompt)
                     .call()
                     .content();
             log.debug("Received JSON response from AI: {}", jsonResponse);
@@ -112,11 +98,45 @@ public class GeminiExtractorService implements AiExtractorService {
             throw new AiProcessingException("Failed to parse AI response.", e);
         } catch (Exception e) {
             // Burada oluşan exception'lar daha anlamlı olabilir (örn: AuthenticationException)
-            log.error("Error during AI processing (manual client build): {}", e.getMessage(), e);
-            throw new AiProcessingException("Error calling AI service (manual client build).", e);
+            log.error("Error during Gemini extraction: {}", e.getMessage(), e);
+            throw new AiProcessingException("Error calling Gemini service.", e);
+        }
+    }
+
+    @Override
+    public void extractDataStreaming(String statementText, StreamingExtractionListener listener) {
+        log.info("Streaming statement text to Gemini for extraction...");
+        Prompt prompt = buildPrompt(statementText);
+        IncrementalExtractionParser parser = new IncrementalExtractionParser(objectMapper, listener);
+        try {
+            // İşlemler JSON nesneleri tamamlandıkça listener'a iletilir
+            parser.consume(geminiChatClient.prompt(prompt).stream().content());
+            log.info("Successfully streamed {} transactions using Gemini", parser.getTransactionCount());
+        } catch (AiProcessingException | StreamingListenerException e) {
+            // Listener hatası (DB, tekrar yükleme reddi) sağlayıcı hatası değildir; olduğu gibi iletilir
+            throw e;
+        } catch (Exception e) {
+            log.error("Error during Gemini streaming extraction: {}", e.getMessage(), e);
+            throw new AiProcessingException("Error calling Gemini service (streaming).", e);
         }
     }
 
+    private Prompt buildPrompt(String statementText) {
+        // Kategori listesi uygulama genelindeki katalogdan hazır gelir (DB'ye gidilmez)
+        String categoryListString = categoryCatalog.promptCategoryList();
+        String defaultCategory = CategoryCatalog.DEFAULT_CATEGORY_NAME;
+
+
+        Prompt prompt = promptTemplate.get().create(Map.of(
+                "statement_text", statementText,
+                "category_list", categoryListString,
+                "default_category", defaultCategory
+        ));
+
+        log.debug("Generated Prompt for AI: {}", prompt.getContents());
+        return prompt;
+    }
+
     private String cleanJsonResponse(String response) {
         if (response == null) return "{}"; // Veya hata fırlat
         // ```json ve ``` gibi işaretleri kaldır
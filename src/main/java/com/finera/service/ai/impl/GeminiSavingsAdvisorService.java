@@ -12,7 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
-import org.springframework.ai.vertexai.gemini.VertexAiGeminiChatModel; // Modeli import et
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 
@@ -26,8 +26,9 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class GeminiSavingsAdvisorService implements AiSavingsAdvisorService {
 
-    // Direkt Vertex AI Modelini inject et
-    private final VertexAiGeminiChatModel vertexAiChatModel;
+    // Bir kez kurulan Gemini client'ı (AiChatClientConfiguration)
+    @Qualifier("geminiChatClient")
+    private final ChatClient geminiChatClient;
     private final ObjectMapper objectMapper;
 
     // Prompt template aynı kalabilir
@@ -60,6 +61,10 @@ public class GeminiSavingsAdvisorService implements AiSavingsAdvisorService {
             ```
             """;
 
+    // Ayrıştırılmış şablon iş parçacığı başına tutulur (PromptTemplate thread-safe değil)
+    private final ThreadLocal<PromptTemplate> promptTemplate =
+            ThreadLocal.withInitial(() -> new PromptTemplate(basePromptTemplate));
+
     @Override
     public List<SavingsRecommendationDto> generateRecommendations(
             BigDecimal desiredSavings,
@@ -72,8 +77,7 @@ public class GeminiSavingsAdvisorService implements AiSavingsAdvisorService {
 
         log.info("Sending savings request to Gemini. Goal: {}, Spending Count: {}", desiredSavings, currentSpending.size());
 
-        PromptTemplate template = new PromptTemplate(basePromptTemplate, Map.of());
-        Prompt prompt = template.create(Map.of(
+        Prompt prompt = promptTemplate.get().create(Map.of(
                 "desired_savings", desiredSavings.toPlainString(),
                 "spending_details", spendingDetails
         ));
@@ -81,11 +85,7 @@ public class GeminiSavingsAdvisorService implements AiSavingsAdvisorService {
         log.debug("Generated Prompt for AI Savings: {}", prompt.getContents());
 
         try {
-            // ChatClient'ı manuel olarak inject edilen model ile oluştur
-            ChatClient client = ChatClient.builder(this.vertexAiChatModel).build();
-
-            // Manuel oluşturulan client ile AI modelini çağır
-            String jsonResponse = client.prompt(prompt)
+            String jsonResponse = geminiChatClient.prompt(prompt)
                     .call()
                     .content();
 
@@ -106,8 +106,8 @@ public class GeminiSavingsAdvisorService implements AiSavingsAdvisorService {
             log.error("Failed to parse JSON savings recommendations from AI: {}", e.getMessage());
             throw new AiProcessingException("Failed to parse AI response for savings.", e);
         } catch (Exception e) {
-            log.error("Error during AI savings recommendation processing (manual client build): {}", e.getMessage(), e);
-            throw new AiProcessingException("Error calling AI service for savings (manual client build).", e);
+            log.error("Error during AI savings recommendation processing: {}", e.getMessage(), e);
+            throw new AiProcessingException("Error calling AI service for savings.", e);
         }
     }
 
@@ -0,0 +1,158 @@
+package com.finera.service.ai.impl;
+
+import com.finera.dto.SavingsRecommendationDto;
+import com.finera.dto.SpendingCategoryDto;
+import com.finera.service.ai.AiSavingsAdvisorService;
+import com.finera.service.savings.LocalSavingsProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * LLM kullanmayan, deterministik tasarruf danışmanı. Hedef tasarrufu kategorilere
+ * (harcama * esneklik) ağırlığıyla dağıtır; hiçbir kategoriden mevcut harcamasından fazla kesinti
+ * önerilmez, tavana ulaşan kategorinin payı diğerlerine aktarılır. LLM sağlayıcıları
+ * kullanılamadığında yedek ve karşılaştırma için temel çizgi olarak kullanılır.
+ */
+@Slf4j
+@Service("localSavingsAdvisor") // Bean adı: local + SavingsAdvisor
+@RequiredArgsConstructor
+public class LocalSavingsAdvisorService implements AiSavingsAdvisorService {
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+    private static final BigDecimal CENT = new BigDecimal("0.01");
+
+    private final LocalSavingsProperties properties;
+
+    private static final class Allocation {
+        private final SpendingCategoryDto spending;
+        private final double cap;
+        private final double weight;
+        private double reduction;
+        private boolean capped;
+
+        private Allocation(SpendingCategoryDto spending, double cap, double weight) {
+            this.spending = spending;
+            this.cap = cap;
+            this.weight = weight;
+        }
+    }
+
+    @Override
+    public List<SavingsRecommendationDto> generateRecommendations(BigDecimal desiredSavings, List<SpendingCategoryDto> currentSpending) {
+        long started = System.nanoTime();
+        List<Allocation> allocations = new ArrayList<>();
+        for (SpendingCategoryDto spending : currentSpending) {
+            if (spending.getAmount() == null || spending.getAmount().signum() <= 0) {
+                continue;
+            }
+            double amount = spending.getAmount().doubleValue();
+            double flexibility = flexibilityOf(spending.getCategoryName());
+            if (flexibility > 0) {
+                allocations.add(new Allocation(spending, amount, amount * flexibility));
+            }
+        }
+
+        // Su doldurma: kalan hedef, tavana ulaşmamış kategorilere ağırlıkları oranında dağıtılır
+        double remaining = desiredSavings.doubleValue();
+        while (remaining > 0.005) {
+            double totalWeight = allocations.stream().filter(a -> !a.capped).mapToDouble(a -> a.weight).sum();
+            if (totalWeight <= 0) {
+                break;
+            }
+            double distributed = 0;
+            for (Allocation allocation : allocations) {
+                if (allocation.capped) {
+                    continue;
+                }
+                double share = remaining * allocation.weight / totalWeight;
+                double room = allocation.cap - allocation.reduction;
+                if (share >= room) {
+                    share = room;
+                    allocation.capped = true;
+                }
+                allocation.reduction += share;
+                distributed += share;
+            }
+            remaining -= distributed;
+        }
+
+        List<SavingsRecommendationDto> recommendations = new ArrayList<>();
+        allocations.stream()
+                .filter(allocation -> allocation.reduction >= 0.01)
+                .sorted(Comparator.comparingDouble((Allocation allocation) -> allocation.reduction).reversed())
+                .forEach(allocation -> recommendations.add(toRecommendation(allocation)));
+        fixRoundingDrift(recommendations, desiredSavings, allocations);
+
+        log.info("Local savings optimizer produced {} recommendations in {} µs (unallocated {} TL)",
+                recommendations.size(), (System.nanoTime() - started) / 1_000,
+                String.format("%.2f", Math.max(remaining, 0)));
+        return recommendations;
+    }
+
+    private SavingsRecommendationDto toRecommendation(Allocation allocation) {
+        BigDecimal reduction = BigDecimal.valueOf(allocation.reduction).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal current = allocation.spending.getAmount();
+        if (reduction.compareTo(current) > 0) {
+            reduction = current.setScale(2, RoundingMode.DOWN);
+        }
+        long percent = current.signum() > 0
+                ? reduction.multiply(BigDecimal.valueOf(100)).divide(current, 0, RoundingMode.HALF_UP).longValue()
+                : 0;
+        String reason = allocation.capped
+                ? "Bu kategorideki harcamanın tamamı kısılabilir görünüyor."
+                : "Mevcut harcamanın yaklaşık %" + percent + "'i; kategori esnekliğine göre dağıtıldı.";
+        return new SavingsRecommendationDto(allocation.spending.getCategoryName(), reduction, reason);
+    }
+
+    /**
+     * Kuruşa yuvarlama sonrası toplam hedeften sapıyorsa farkı, tavanına yer olan en büyük kaleme ekler/çıkarır.
+     */
+    private void fixRoundingDrift(List<SavingsRecommendationDto> recommendations, BigDecimal desiredSavings, List<Allocation> allocations) {
+        BigDecimal allocatable = BigDecimal.valueOf(allocations.stream().mapToDouble(a -> a.cap).sum());
+        BigDecimal target = desiredSavings.min(allocatable).setScale(2, RoundingMode.DOWN);
+        BigDecimal total = recommendations.stream().map(SavingsRecommendationDto::getSuggestedReduction).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal drift = target.subtract(total);
+        if (drift.abs().compareTo(CENT.multiply(BigDecimal.valueOf(recommendations.size()))) > 0 || drift.signum() == 0) {
+            return;
+        }
+        for (SavingsRecommendationDto recommendation : recommendations) {
+            BigDecimal adjusted = recommendation.getSuggestedReduction().add(drift);
+            BigDecimal current = currentSpendingOf(recommendation, allocations);
+            if (adjusted.signum() > 0 && adjusted.compareTo(current) <= 0) {
+                recommendation.setSuggestedReduction(adjusted);
+                return;
+            }
+        }
+    }
+
+    private static BigDecimal currentSpendingOf(SavingsRecommendationDto recommendation, List<Allocation> allocations) {
+        return allocations.stream()
+                .filter(allocation -> Objects.equals(allocation.spending.getCategoryName(), recommendation.getCategoryName()))
+                .map(allocation -> allocation.spending.getAmount())
+                .findFirst()
+                .orElse(BigDecimal.ZERO);
+    }
+
+    private double flexibilityOf(String categoryName) {
+        if (categoryName == null) {
+            return properties.getDefaultFlexibility();
+        }
+        String name = categoryName.toLowerCase(TURKISH);
+        for (Map.Entry<String, Double> entry : properties.getFlexibility().entrySet()) {
+            if (name.contains(entry.getKey().toLowerCase(TURKISH))) {
+                return Math.max(0, Math.min(1, entry.getValue()));
+            }
+        }
+        return properties.getDefaultFlexibility();
+    }
+}
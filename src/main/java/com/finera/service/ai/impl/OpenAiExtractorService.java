@@ -2,38 +2,30 @@ package com.finera.service.ai.impl;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.finera.dto.ExtractedDataDto;
-import com.finera.entities.Category; // Category entity import
-// import com.finera.entities.enums.CategoryType; // Bu import artık kullanılmıyor (findAll kullanıldığı için)
 import com.finera.exception.AiProcessingException;
-import com.finera.repository.CategoryRepository; // CategoryRepository importu
 import com.finera.service.ai.AiExtractorService;
+import com.finera.service.ai.IncrementalExtractionParser;
+import com.finera.service.ai.StreamingExtractionListener;
+import com.finera.service.ai.StreamingListenerException;
+import com.finera.service.category.CategoryCatalog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 // import org.springframework.ai.chat.model.ChatModel; // Genel ChatModel importu yerine spesifik olanı kullanıyoruz
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
-import org.springframework.ai.openai.OpenAiChatModel; // Spesifik OpenAI ChatModel importu
-import org.springframework.ai.openai.OpenAiChatOptions; // OpenAI seçenekleri için import
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import java.util.List; // List import
 import java.util.Map;
-import java.util.stream.Collectors; // Stream API import
 @Slf4j
 @Service("openaiExtractor")
 @RequiredArgsConstructor
 public class OpenAiExtractorService implements AiExtractorService {
-    // OpenAI için spesifik ChatModel'i inject et
-    private final OpenAiChatModel openAiChatModel;
+    // Model ve sıcaklık ayarlarıyla bir kez kurulan OpenAI client'ı (AiChatClientConfiguration)
+    @Qualifier("openAiExtractionChatClient")
+    private final ChatClient openAiExtractionChatClient;
     private final ObjectMapper objectMapper;
-    private final CategoryRepository categoryRepository;
-
-    // Properties'den OpenAI model ve sıcaklık değerlerini al (varsayılanlarla)
-    @Value("${spring.ai.openai.chat.options.model:gpt-4o}")
-    private String chatModelName;
-    @Value("${spring.ai.openai.chat.options.temperature:0.2}") // Double veya Float olabilir, 0.2f daha güvenli
-    private Double chatTemperature; // Double yerine Float kullanmak options ile daha uyumlu olabilir
+    private final CategoryCatalog categoryCatalog;
 
     // Prompt şablonu (Gemini ile aynı)
     private final String basePromptTemplate =  """
@@ -67,42 +59,19 @@ public class OpenAiExtractorService implements AiExtractorService {
         >>>
         """;
 
+    // Şablon iş parçacığı başına bir kez ayrıştırılır; PromptTemplate render sırasında iç durumunu değiştirdiği için paylaşılamaz
+    private final ThreadLocal<PromptTemplate> promptTemplate =
+            ThreadLocal.withInitial(() -> new PromptTemplate(basePromptTemplate));
+
     @Override
     public ExtractedDataDto extractData(String statementText) {
         log.info("Sending statement text to OpenAI for extraction...");
 
-        // --- Kategori listesini ve varsayılan kategoriyi hazırla (Çalışan Gemini koduyla aynı mantık) ---
-        List<String> validCategoryNames = categoryRepository.findAll() // Tüm kategorileri al
-                .stream()
-                .map(Category::getCategoryNameTr) // Türkçe isimleri al
-                .collect(Collectors.toList());
-        String categoryListString = String.join(", ", validCategoryNames); // Virgülle ayır
-        String defaultCategory = "Diğer / Belirsiz"; // Varsayılan kategori adı
-
-        PromptTemplate template = new PromptTemplate(basePromptTemplate, Map.of());
-        Prompt prompt = template.create(Map.of(
-                "statement_text", statementText,
-                "category_list", categoryListString,
-                "default_category", defaultCategory
-        ));
-
-
-        log.debug("Generated Prompt for AI: {}", prompt.getContents());
+        Prompt prompt = buildPrompt(statementText);
 
         try {
-            // ChatClient'ı builder ile oluşturmak (inject edilen OpenAiChatModel'i kullanarak)
-            ChatClient client = ChatClient.builder(this.openAiChatModel) // OpenAI modelini kullan
-                    .defaultOptions(OpenAiChatOptions.builder() // OpenAI seçeneklerini kullan
-                            // .withModel(this.chatModelName) // ESKİ
-                            .model(this.chatModelName)          // YENİ
-                            // .withTemperature(this.chatTemperature) // ESKİ
-                            .temperature(this.chatTemperature) // YENİ
-                            // .withFrequencyPenalty(...) // Diğer OpenAI özel seçenekleri buraya eklenebilir
-                            .build())
-                    .build();
-
             // API çağrısı
-            String jsonResponse = client.prompt(prompt)
+            String jsonResponse = openAiExtractionChatClient.prompt(prompt)
                     .call()
                     .content();
 
@@ -124,11 +93,44 @@ public class OpenAiExtractorService implements AiExtractorService {
             log.error("Failed to parse JSON response from OpenAI: {}", e.getMessage());
             throw new AiProcessingException("Failed to parse OpenAI response.", e);
         } catch (Exception e) {
-            log.error("Error during OpenAI processing (manual client build): {}", e.getMessage(), e);
-            throw new AiProcessingException("Error calling OpenAI service (manual client build).", e);
+            log.error("Error during OpenAI processing: {}", e.getMessage(), e);
+            throw new AiProcessingException("Error calling OpenAI service.", e);
+        }
+    }
+
+    @Override
+    public void extractDataStreaming(String statementText, StreamingExtractionListener listener) {
+        log.info("Streaming statement text to OpenAI for extraction...");
+        Prompt prompt = buildPrompt(statementText);
+        IncrementalExtractionParser parser = new IncrementalExtractionParser(objectMapper, listener);
+        try {
+            // İşlemler JSON nesneleri tamamlandıkça listener'a iletilir
+            parser.consume(openAiExtractionChatClient.prompt(prompt).stream().content());
+            log.info("Successfully streamed {} transactions using OpenAI", parser.getTransactionCount());
+        } catch (AiProcessingException | StreamingListenerException e) {
+            // Listener hatası (DB, tekrar yükleme reddi) sağlayıcı hatası değildir; olduğu gibi iletilir
+            throw e;
+        } catch (Exception e) {
+            log.error("Error during OpenAI streaming extraction: {}", e.getMessage(), e);
+            throw new AiProcessingException("Error calling OpenAI service (streaming).", e);
         }
     }
 
+    private Prompt buildPrompt(String statementText) {
+        // Kategori listesi uygulama genelindeki katalogdan hazır gelir (DB'ye gidilmez)
+        String categoryListString = categoryCatalog.promptCategoryList();
+        String defaultCategory = CategoryCatalog.DEFAULT_CATEGORY_NAME;
+
+        Prompt prompt = promptTemplate.get().create(Map.of(
+                "statement_text", statementText,
+                "category_list", categoryListString,
+                "default_category", defaultCategory
+        ));
+
+        log.debug("Generated Prompt for AI: {}", prompt.getContents());
+        return prompt;
+    }
+
     // JSON temizleme metodu (değişiklik yok)
     private String cleanJsonResponse(String response) {
         if (response == null) return "{}";
@@ -12,7 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
-import org.springframework.ai.openai.OpenAiChatModel; // OpenAI Modelini import et
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 
@@ -26,7 +26,9 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OpenAiSavingsAdvisorService implements AiSavingsAdvisorService {
 
-    private final OpenAiChatModel openAiChatModel; // OpenAI modelini inject et
+    // Bir kez kurulan OpenAI client'ı (AiChatClientConfiguration)
+    @Qualifier("openAiChatClient")
+    private final ChatClient openAiChatClient;
     private final ObjectMapper objectMapper;
 
     // Prompt, OpenAI için ayarlanabilir ama şimdilik aynı
@@ -49,7 +51,11 @@ public class OpenAiSavingsAdvisorService implements AiSavingsAdvisorService {
               }}
             ]
             ```
-            """; // Prompt metnini kısa tuttum, önceki gibi detaylı olabilir
+            """; 
+    // Ayrıştırılmış şablon iş parçacığı başına tutulur (PromptTemplate thread-safe değil)
+    private final ThreadLocal<PromptTemplate> promptTemplate =
+            ThreadLocal.withInitial(() -> new PromptTemplate(basePromptTemplate));
+// Prompt metnini kısa tuttum, önceki gibi detaylı olabilir
 
     @Override
     public List<SavingsRecommendationDto> generateRecommendations(
@@ -62,8 +68,7 @@ public class OpenAiSavingsAdvisorService implements AiSavingsAdvisorService {
 
         log.info("Sending savings request to OpenAI. Goal: {}, Spending Count: {}", desiredSavings, currentSpending.size());
 
-        PromptTemplate template = new PromptTemplate(basePromptTemplate, Map.of());
-        Prompt prompt = template.create(Map.of(
+        Prompt prompt = promptTemplate.get().create(Map.of(
                 "desired_savings", desiredSavings.toPlainString(),
                 "spending_details", spendingDetails
         ));
@@ -71,8 +76,7 @@ public class OpenAiSavingsAdvisorService implements AiSavingsAdvisorService {
         log.debug("Generated Prompt for AI Savings (OpenAI): {}", prompt.getContents());
 
         try {
-            ChatClient client = ChatClient.builder(this.openAiChatModel).build();
-            String jsonResponse = client.prompt(prompt)
+            String jsonResponse = openAiChatClient.prompt(prompt)
                     .call()
                     .content();
 
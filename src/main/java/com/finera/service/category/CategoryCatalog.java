@@ -0,0 +1,130 @@
+package com.finera.service.category;
+
+import com.finera.entities.Category;
+import com.finera.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Uygulama genelinde paylaşılan kategori kataloğu.
+ * Kategoriler bir kez CategoryRepository'den yüklenip değişmez bir {@link Snapshot} içinde tutulur;
+ * AI extractor'lar, ekstre kaydı ve manuel işlem servisi sıcak yolda veritabanına gitmez.
+ * Kategori tablosu JPA üzerinden değiştiğinde {@link CategoryCatalogInvalidator} önbelleği düşürür.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryCatalog {
+
+    /** Hiçbir kategoriye uymayan işlemler için AI'a verilen varsayılan kategori adı. */
+    public static final String DEFAULT_CATEGORY_NAME = "Diğer / Belirsiz";
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Kataloğun değişmez bir görüntüsü.
+     *
+     * @param byId               kategori ID'sine göre
+     * @param byName             Türkçe yerel ayarıyla küçük harfe çevrilmiş isme göre (İngilizce isimler yedek)
+     * @param promptCategoryList AI prompt'una eklenen, virgülle ayrılmış Türkçe kategori isimleri
+     */
+    public record Snapshot(Map<Integer, Category> byId, Map<String, Category> byName, String promptCategoryList) {
+    }
+
+    public Optional<Category> findById(Integer categoryId) {
+        if (categoryId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot().byId().get(categoryId));
+    }
+
+    /**
+     * AI'dan gelen kategori adını çözer. Önce Türkçe, sonra İngilizce isimlere bakar.
+     * Anahtarlar Türkçe yerel ayarıyla küçük harfe çevrilir ("İ" → "i", "I" → "ı").
+     */
+    public Optional<Category> findByName(String categoryName) {
+        if (categoryName == null || categoryName.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot().byName().get(normalize(categoryName)));
+    }
+
+    /**
+     * Hiçbir kaynaktan kategori çıkmayan işlemler (ör. yerel şablonla ayrıştırılanlar) için {@link #DEFAULT_CATEGORY_NAME}.
+     */
+    public Optional<Category> defaultCategory() {
+        return findByName(DEFAULT_CATEGORY_NAME);
+    }
+
+    /**
+     * Extractor prompt'larındaki {category_list} alanı için hazır metin.
+     */
+    public String promptCategoryList() {
+        return snapshot().promptCategoryList();
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Kataloğu veritabanından hemen yeniden kurar.
+     */
+    public synchronized void refresh() {
+        List<Category> categories = categoryRepository.findAll();
+
+        Map<Integer, Category> byId = new HashMap<>(categories.size() * 2);
+        Map<String, Category> byName = new HashMap<>(categories.size() * 4);
+        // İngilizce isimler sadece Türkçe isimle çakışmıyorsa kalır
+        for (Category category : categories) {
+            byId.put(category.getCategoryId(), category);
+            if (category.getCategoryNameEn() != null) {
+                byName.put(normalize(category.getCategoryNameEn()), category);
+            }
+        }
+        for (Category category : categories) {
+            byName.put(normalize(category.getCategoryNameTr()), category);
+        }
+        String promptCategoryList = categories.stream()
+                .sorted(Comparator.comparing(Category::getCategoryId))
+                .map(Category::getCategoryNameTr)
+                .collect(Collectors.joining(", "));
+
+        snapshot = new Snapshot(Map.copyOf(byId), Map.copyOf(byName), promptCategoryList);
+        log.info("Category catalog loaded with {} categories", categories.size());
+    }
+
+    /**
+     * Önbelleği düşürür; bir sonraki okuma kataloğu yeniden yükler.
+     */
+    public void invalidate() {
+        snapshot = null;
+        log.info("Category catalog invalidated");
+    }
+
+    static String normalize(String categoryName) {
+        return categoryName.trim().toLowerCase(TURKISH);
+    }
+}
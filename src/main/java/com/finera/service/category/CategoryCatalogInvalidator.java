@@ -0,0 +1,41 @@
+package com.finera.service.category;
+
+import com.finera.entities.Category;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link Category} entity listener'ı: kategori eklenince, güncellenince veya silinince
+ * {@link CategoryCatalog}'u commit sonrasında geçersiz kılar.
+ */
+@Component
+public class CategoryCatalogInvalidator {
+
+    private final CategoryCatalog categoryCatalog;
+
+    public CategoryCatalogInvalidator(@Lazy CategoryCatalog categoryCatalog) {
+        this.categoryCatalog = categoryCatalog;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCategoryChanged(Category category) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Commit'ten önce yeniden yüklenirse eski veri okunur; bu yüzden commit sonrasına ertele
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    categoryCatalog.invalidate();
+                }
+            });
+        } else {
+            categoryCatalog.invalidate();
+        }
+    }
+}
@@ -1,16 +1,30 @@
 package com.finera.service.impl;
 
 import com.finera.dto.CategoryTotalDto;
+import com.finera.dto.CategoryTrendResponseDto;
+import com.finera.dto.MonthlyCategoryTotalsDto;
+import com.finera.exception.BadRequestException;
 import com.finera.exception.ResourceNotFoundException;
-import com.finera.repository.TransactionRepository;
+import com.finera.projection.PeriodCategoryTotalProjection;
+import com.finera.repository.PeriodCategoryAggregateRepository;
 import com.finera.repository.UserRepository;
 import com.finera.service.CategorySummaryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 @Slf4j
@@ -18,9 +32,14 @@ import java.util.UUID;
 @RequiredArgsConstructor // Constructor injection için
 public class CategorySummaryServiceImpl implements CategorySummaryService {
 
-    private final TransactionRepository transactionRepository;
+    private static final Locale TR = new Locale("tr", "TR");
+
+    private final PeriodCategoryAggregateRepository periodCategoryAggregateRepository;
     private final UserRepository userRepository; // Kullanıcı varlığını kontrol etmek için
 
+    @Value("${finera.summaries.trend.max-months:60}")
+    private int maxTrendMonths;
+
     @Override
     @Transactional(readOnly = true) // Sadece okuma işlemi olduğu için
     public List<CategoryTotalDto> getNetCategoryTotalsForPeriod(UUID userId, int year, int month) {
@@ -32,8 +51,8 @@ public class CategorySummaryServiceImpl implements CategorySummaryService {
             throw new ResourceNotFoundException("User not found with id: " + userId + " while fetching category totals.");
         }
 
-        // TransactionRepository'deki yeni metodu çağır
-        List<CategoryTotalDto> netTotals = transactionRepository.findNetCategoryTotalsByUserAndPeriod(userId, year, month);
+        // Önceden hesaplanmış dönem toplamlarından oku (işlem tablosunu taramadan)
+        List<CategoryTotalDto> netTotals = periodCategoryAggregateRepository.findNetCategoryTotalsByUserAndPeriod(userId, year, month);
 
         if (netTotals.isEmpty()) {
             log.info("No net category totals found for user: {}, year: {}, month: {}", userId, year, month);
@@ -43,4 +62,73 @@ public class CategorySummaryServiceImpl implements CategorySummaryService {
 
         return netTotals;
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public CategoryTrendResponseDto getNetCategoryTrend(UUID userId, int fromYear, int fromMonth, int toYear, int toMonth) {
+        if (fromMonth < 1 || fromMonth > 12 || toMonth < 1 || toMonth > 12) {
+            throw new BadRequestException("Months must be between 1 and 12.");
+        }
+        int fromIndex = fromYear * 12 + (fromMonth - 1);
+        int toIndex = toYear * 12 + (toMonth - 1);
+        if (fromIndex > toIndex) {
+            throw new BadRequestException("The start period must not be after the end period.");
+        }
+        if (toIndex - fromIndex + 1 > maxTrendMonths) {
+            throw new BadRequestException("The requested range exceeds " + maxTrendMonths + " months.");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId + " while fetching category trend.");
+        }
+
+        // YTD için başlangıç yılının Ocak ayından itibaren oku; aralıktan önceki aylar sadece YTD'ye eklenir
+        // (sorgudaki indeks yıl * 12 + ay, burada ay 0 tabanlı tutulduğu için +1)
+        List<PeriodCategoryTotalProjection> rows = periodCategoryAggregateRepository
+                .findNetCategoryTotalsByUserBetweenPeriods(userId, fromYear * 12 + 1, toIndex + 1);
+        log.info("Fetched {} monthly category rows for user {} between {}-{} and {}-{}",
+                rows.size(), userId, fromYear, fromMonth, toYear, toMonth);
+
+        Map<Integer, List<CategoryTotalDto>> totalsByMonth = new HashMap<>();
+        for (PeriodCategoryTotalProjection row : rows) {
+            totalsByMonth.computeIfAbsent(row.getPeriodYear() * 12 + (row.getPeriodMonth() - 1), k -> new ArrayList<>())
+                    .add(new CategoryTotalDto(row.getCategoryNameTr(), row.getCategoryNameEn(), row.getCategoryId(), row.getNetAmount()));
+        }
+
+        List<MonthlyCategoryTotalsDto> months = new ArrayList<>(toIndex - fromIndex + 1);
+        Map<Integer, CategoryTotalDto> rangeTotalsByCategory = new LinkedHashMap<>();
+        BigDecimal runningTotal = BigDecimal.ZERO;
+        BigDecimal yearToDateTotal = BigDecimal.ZERO;
+        for (int index = fromYear * 12; index <= toIndex; index++) {
+            int year = index / 12;
+            int month = index % 12 + 1;
+            if (month == 1) {
+                yearToDateTotal = BigDecimal.ZERO;
+            }
+            List<CategoryTotalDto> categoryTotals = totalsByMonth.getOrDefault(index, List.of());
+            BigDecimal monthTotal = categoryTotals.stream()
+                    .map(CategoryTotalDto::getNetAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            yearToDateTotal = yearToDateTotal.add(monthTotal);
+            if (index < fromIndex) {
+                continue;
+            }
+
+            runningTotal = runningTotal.add(monthTotal);
+            for (CategoryTotalDto total : categoryTotals) {
+                rangeTotalsByCategory.merge(total.getCategoryId(),
+                        new CategoryTotalDto(total.getCategoryNameTr(), total.getCategoryNameEn(), total.getCategoryId(), total.getNetAmount()),
+                        (a, b) -> {
+                            a.setNetAmount(a.getNetAmount().add(b.getNetAmount()));
+                            return a;
+                        });
+            }
+            String periodName = year + " " + Month.of(month).getDisplayName(TextStyle.FULL_STANDALONE, TR);
+            months.add(new MonthlyCategoryTotalsDto(year, month, periodName, categoryTotals, monthTotal, runningTotal, yearToDateTotal));
+        }
+
+        List<CategoryTotalDto> rangeCategoryTotals = rangeTotalsByCategory.values().stream()
+                .sorted(Comparator.comparing(CategoryTotalDto::getCategoryNameTr))
+                .toList();
+        return new CategoryTrendResponseDto(fromYear, fromMonth, toYear, toMonth, months, rangeCategoryTotals, runningTotal);
+    }
+}
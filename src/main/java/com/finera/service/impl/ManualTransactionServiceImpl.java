@@ -9,6 +9,10 @@ import com.finera.exception.BadRequestException; // Yeni exception
 import com.finera.exception.ResourceNotFoundException;
 import com.finera.repository.*; // Tüm repolar
 import com.finera.service.ManualTransactionService;
+import com.finera.service.MerchantCategoryService;
+import com.finera.service.PeriodAggregateService;
+import com.finera.service.TransactionPartitionService;
+import com.finera.service.category.CategoryCatalog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,6 +25,7 @@ import java.time.Month;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.TextStyle;
+import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
 
@@ -30,10 +35,13 @@ import java.util.UUID;
 public class ManualTransactionServiceImpl implements ManualTransactionService {
 
     private final UserRepository userRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryCatalog categoryCatalog;
     private final PeriodRepository periodRepository;
     private final PeriodSourceRepository periodSourceRepository;
     private final TransactionRepository transactionRepository;
+    private final MerchantCategoryService merchantCategoryService;
+    private final PeriodAggregateService periodAggregateService;
+    private final TransactionPartitionService transactionPartitionService;
 
     // Manuel girişler için standart kaynak adı öneki
     private static final String MANUAL_SOURCE_NAME_PREFIX = "Manuel Girişler";
@@ -60,6 +68,7 @@ public class ManualTransactionServiceImpl implements ManualTransactionService {
         Transaction transaction = new Transaction();
         transaction.setUser(user);
         transaction.setPeriod(period);
+        transaction.setPeriodIndex(Period.index(period.getPeriodYear(), period.getPeriodMonth()));
         transaction.setPeriodSource(manualSource); // Manuel kaynağı ata
         transaction.setCategory(category); // Seçilen kategoriyi ata
         transaction.setDescriptionOriginal(requestDto.getDescription()); // Açıklamayı ata
@@ -71,9 +80,13 @@ public class ManualTransactionServiceImpl implements ManualTransactionService {
         transaction.setAiSuggestedCategory(null);
         transaction.setCategorizedByAi(false);
 
-        // 6. Transaction'ı Kaydet
+        // 6. Transaction'ı Kaydet (dönemin yılına ait bölüm yoksa önce aç)
+        transactionPartitionService.ensurePartition(transaction.getPeriodIndex());
         Transaction savedTransaction = transactionRepository.save(transaction);
         log.info("Manual transaction saved with ID: {}", savedTransaction.getTransactionId());
+        periodAggregateService.recordTransactions(List.of(savedTransaction));
+        // Kullanıcının seçtiği kategori bu açıklama için sonraki ekstrelerde de kullanılsın
+        merchantCategoryService.learnManual(userId, requestDto.getDescription(), category);
 
         // 7. Response DTO'yu oluştur ve döndür
         return mapToTransactionResponseDto(savedTransaction);
@@ -85,7 +98,7 @@ public class ManualTransactionServiceImpl implements ManualTransactionService {
     }
 
     private Category findCategoryByIdOrThrow(Integer categoryId) {
-        return categoryRepository.findById(categoryId)
+        return categoryCatalog.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + categoryId));
     }
 
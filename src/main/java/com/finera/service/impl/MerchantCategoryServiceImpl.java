@@ -0,0 +1,223 @@
+package com.finera.service.impl;
+
+import com.finera.entities.Category;
+import com.finera.entities.MerchantCategoryMapping;
+import com.finera.entities.enums.MappingSource;
+import com.finera.projection.DescriptionCategoryProjection;
+import com.finera.repository.MerchantCategoryMappingRepository;
+import com.finera.repository.TransactionRepository;
+import com.finera.service.MerchantCategoryService;
+import com.finera.service.category.CategoryCatalog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+public class MerchantCategoryServiceImpl implements MerchantCategoryService {
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+    // Rakamlar (kart no, şube no, tarih) ve noktalama aynı işyerinin açıklamalarını farklılaştırır
+    private static final Pattern NOISE_PATTERN = Pattern.compile("[^\\p{L}]+");
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    private static final String GLOBAL_KEY = "*";
+
+    // Bellekte bulunmayan kayıt için işaret (tekrar tekrar DB'ye gitmemek için)
+    private static final CachedMapping NO_MAPPING = new CachedMapping(null, null);
+
+    private final MerchantCategoryMappingRepository mappingRepository;
+    private final TransactionRepository transactionRepository;
+    private final CategoryCatalog categoryCatalog;
+    private final Map<String, CachedMapping> cache;
+
+    @Value("${finera.categorization.memo.seed-on-startup:false}")
+    private boolean seedOnStartup;
+
+    @Value("${finera.categorization.memo.promote-min-users:3}")
+    private int promoteMinUsers;
+
+    private record CachedMapping(Long mappingId, Integer categoryId) {
+    }
+
+    public MerchantCategoryServiceImpl(MerchantCategoryMappingRepository mappingRepository,
+                                       TransactionRepository transactionRepository,
+                                       CategoryCatalog categoryCatalog,
+                                       @Value("${finera.categorization.memo.max-entries:10000}") int maxEntries) {
+        this.mappingRepository = mappingRepository;
+        this.transactionRepository = transactionRepository;
+        this.categoryCatalog = categoryCatalog;
+        // Erişim sıralı LinkedHashMap: en uzun süredir kullanılmayan kayıt atılır (LRU)
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedMapping> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public Map<String, Match> resolve(UUID userId, Collection<String> descriptions) {
+        Map<String, String> normalizedByDescription = new HashMap<>();
+        for (String description : descriptions) {
+            String normalized = normalize(description);
+            if (normalized != null) {
+                normalizedByDescription.put(description, normalized);
+            }
+        }
+
+        Set<String> missing = new HashSet<>();
+        for (String normalized : normalizedByDescription.values()) {
+            if (!cache.containsKey(key(userId, normalized)) || !cache.containsKey(key(null, normalized))) {
+                missing.add(normalized);
+            }
+        }
+        if (!missing.isEmpty()) {
+            loadIntoCache(userId, missing);
+        }
+
+        Map<String, Match> matches = new HashMap<>();
+        Set<Long> hitMappingIds = new HashSet<>();
+        normalizedByDescription.forEach((description, normalized) -> {
+            CachedMapping userMapping = cache.getOrDefault(key(userId, normalized), NO_MAPPING);
+            CachedMapping globalMapping = cache.getOrDefault(key(null, normalized), NO_MAPPING);
+            CachedMapping chosen = userMapping != NO_MAPPING ? userMapping : globalMapping;
+            if (chosen == NO_MAPPING) {
+                return;
+            }
+            categoryCatalog.findById(chosen.categoryId()).ifPresent(category -> {
+                matches.put(description, new Match(category, chosen == userMapping));
+                hitMappingIds.add(chosen.mappingId());
+            });
+        });
+        if (!hitMappingIds.isEmpty()) {
+            mappingRepository.recordHits(hitMappingIds);
+        }
+        log.debug("Resolved {} of {} descriptions from merchant category memo ({} loaded from DB)",
+                matches.size(), descriptions.size(), missing.size());
+        return matches;
+    }
+
+    @Override
+    @Transactional
+    public void learnFromAi(UUID userId, Map<String, Category> categoriesByDescription) {
+        int learned = 0;
+        Map<String, Category> byNormalized = new HashMap<>();
+        categoriesByDescription.forEach((description, category) -> {
+            String normalized = normalize(description);
+            if (normalized != null && category != null) {
+                byNormalized.putIfAbsent(normalized, category);
+            }
+        });
+        // Tek kullanıcının AI sonuçları herkese uygulanmasın: önce kullanıcının kendi kapsamına öğren
+        for (Map.Entry<String, Category> entry : byNormalized.entrySet()) {
+            // Zaten bilinen kullanıcı eşlemeleri için DB'ye gitme
+            CachedMapping cached = cache.get(key(userId, entry.getKey()));
+            if (cached != null && cached != NO_MAPPING) {
+                continue;
+            }
+            learned += mappingRepository.insertUserMappingIfAbsent(userId, entry.getKey(),
+                    entry.getValue().getCategoryId(), MappingSource.AI.name());
+            cache.remove(key(userId, entry.getKey()));
+        }
+        if (learned == 0) {
+            return;
+        }
+        log.debug("Learned {} merchant category mappings of user {} from AI results", learned, userId);
+
+        // Birden fazla bağımsız kullanıcıda aynı kategoriye oturan açıklamalar global olur
+        int promoted = mappingRepository.promoteAgreedMappings(byNormalized.keySet(), promoteMinUsers,
+                MappingSource.AI.name());
+        if (promoted > 0) {
+            byNormalized.keySet().forEach(normalized -> cache.remove(key(null, normalized)));
+            log.info("Promoted {} merchant category mappings to global after {} users agreed", promoted, promoteMinUsers);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void learnManual(UUID userId, String description, Category category) {
+        String normalized = normalize(description);
+        if (normalized == null || category == null) {
+            return;
+        }
+        mappingRepository.upsertUserMapping(userId, normalized, category.getCategoryId(), MappingSource.MANUAL.name());
+        cache.remove(key(userId, normalized));
+        log.debug("Learned manual category {} for '{}' of user {}", category.getCategoryId(), normalized, userId);
+    }
+
+    @Override
+    @Transactional
+    public int seedFromTransactions() {
+        // Her kullanıcı + açıklama için en sık kullanılan kategori
+        Map<String, DescriptionCategoryProjection> best = new HashMap<>();
+        for (DescriptionCategoryProjection pair : transactionRepository.findDescriptionCategoryPairs()) {
+            String normalized = normalize(pair.getDescription());
+            if (normalized == null) {
+                continue;
+            }
+            best.merge(key(pair.getUserId(), normalized), pair,
+                    (a, b) -> a.getOccurrences() >= b.getOccurrences() ? a : b);
+        }
+        int inserted = 0;
+        for (DescriptionCategoryProjection pair : best.values()) {
+            inserted += mappingRepository.insertUserMappingIfAbsent(pair.getUserId(), normalize(pair.getDescription()),
+                    pair.getCategoryId(), MappingSource.SEED.name());
+        }
+        cache.clear();
+        log.info("Seeded {} merchant category mappings from {} existing description/category pairs", inserted, best.size());
+        return inserted;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seedOnStartup() {
+        if (seedOnStartup) {
+            seedFromTransactions();
+        }
+    }
+
+    private void loadIntoCache(UUID userId, Set<String> normalizedDescriptions) {
+        for (MerchantCategoryMapping mapping : mappingRepository.findUserAndGlobalMappings(userId, normalizedDescriptions)) {
+            cache.put(key(mapping.getUserId(), mapping.getNormalizedDescription()),
+                    new CachedMapping(mapping.getMappingId(), mapping.getCategory().getCategoryId()));
+        }
+        for (String normalized : normalizedDescriptions) {
+            cache.putIfAbsent(key(userId, normalized), NO_MAPPING);
+            cache.putIfAbsent(key(null, normalized), NO_MAPPING);
+        }
+    }
+
+    /**
+     * Açıklamayı karşılaştırılabilir hale getirir: Türkçe büyük harf, sadece harfler, tek boşluk.
+     * Örn. "Migros 1234 İSTANBUL TR" ve "MIGROS-5678 ISTANBUL" -> "MİGROS İSTANBUL TR" / "MIGROS ISTANBUL".
+     */
+    static String normalize(String description) {
+        if (description == null) {
+            return null;
+        }
+        String normalized = NOISE_PATTERN.matcher(description.toUpperCase(TURKISH)).replaceAll(" ").trim();
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        return normalized.length() > MAX_DESCRIPTION_LENGTH ? normalized.substring(0, MAX_DESCRIPTION_LENGTH) : normalized;
+    }
+
+    private static String key(UUID userId, String normalized) {
+        return (userId != null ? userId.toString() : GLOBAL_KEY) + "|" + normalized;
+    }
+}
@@ -1,39 +1,30 @@
 package com.finera.service.impl;
 
 import com.finera.dto.ExtractedDataDto;
-import com.finera.dto.FileUploadResponseDto;
-import com.finera.dto.TransactionDto;
-import com.finera.entities.Period;
-import com.finera.entities.PeriodSource;
-import com.finera.entities.Transaction;
-import com.finera.entities.User;
-import com.finera.entities.enums.SourceType; // Enum'unuzu import edin
 import com.finera.exception.ResourceNotFoundException;
-import com.finera.repository.PeriodRepository;
-import com.finera.repository.PeriodSourceRepository;
-import com.finera.repository.TransactionRepository;
 import com.finera.repository.UserRepository;
 import com.finera.service.PdfProcessingService;
 import com.finera.service.ai.AiExtractorService; // AI Servis arayüzü
+import com.finera.service.ai.AiProviderGuard;
+import com.finera.service.ai.ChunkedStatementExtractor;
+import com.finera.service.ai.ExtractionResult;
+import com.finera.service.ai.StreamingExtractionListener;
+import com.finera.service.ai.StreamingListenerException;
+import com.finera.service.ingestion.UploadedStatement;
+import com.finera.service.template.StatementTemplateRegistry;
 import com.finera.util.PdfTextExtractor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
 
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.OffsetDateTime;
 import java.util.*;
 
-import com.finera.service.ai.AiExtractorService;
 import com.finera.service.ai.AiProvider; // Enum'u import et
-import com.finera.repository.CategoryRepository;
-import com.finera.entities.Category;
 
+// Bilerek @Transactional DEĞİL: PDF okuma ve AI çağrısı sırasında DB bağlantısı tutulmamalı.
+// Kayıt aşaması StatementPersistenceService içinde kendi kısa transaction'ında çalışır.
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -41,50 +32,103 @@ public class PdfProcessingServiceImpl implements PdfProcessingService {
 
     private final PdfTextExtractor pdfTextExtractor;
     private final Map<String, AiExtractorService> aiExtractorServices;
+    private final ChunkedStatementExtractor chunkedStatementExtractor;
+    private final AiProviderGuard aiProviderGuard;
+    private final StatementTemplateRegistry statementTemplateRegistry;
     private final UserRepository userRepository;
-    private final PeriodRepository periodRepository;
-    private final PeriodSourceRepository periodSourceRepository;
-    private final TransactionRepository transactionRepository;
-    private final CategoryRepository categoryRepository;
 
     @Override
-    @Transactional // Tüm işlemler tek bir transaction içinde olmalı
-    public FileUploadResponseDto processPdfStatement(MultipartFile file, UUID userId, String sourceNamePrefix, AiProvider provider) {
-        log.info("Starting PDF processing for user {} and file {}", userId, file.getOriginalFilename());
+    public String extractStatementText(UploadedStatement statement, UUID userId) {
+        log.info("Starting PDF processing for user {} and file {}", userId, statement.getOriginalFilename());
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        // AI maliyetine girmeden önce kullanıcıyı kontrol et
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
 
-        String statementText;
         try {
-            statementText = pdfTextExtractor.extractText(file);
+            // Düşük bellek modunda yükleme geçici dosyadadır; PDF dosyadan rastgele erişimle okunur
+            String statementText = statement.isFileBacked()
+                    ? pdfTextExtractor.extractText(statement.getFile().toFile(), statement.getOriginalFilename())
+                    : pdfTextExtractor.extractText(statement.getContent(), statement.getOriginalFilename());
             if (statementText == null || statementText.isBlank()) {
                 throw new IOException("Extracted text is empty.");
             }
+            return statementText;
         } catch (IOException e) {
             log.error("Failed to extract text from PDF for user {}: {}", userId, e.getMessage());
             throw new RuntimeException("Failed to read PDF file: " + e.getMessage(), e);
         }
+    }
 
-        AiExtractorService activeExtractor = getAiExtractorService(provider);
-        log.info("Using AI extractor implementation: {}", activeExtractor.getClass().getSimpleName());
+    @Override
+    public ExtractionResult extractStatementData(String statementText, AiProvider provider) {
+        // Düzeni bilinen kurumlar yerel şablonla milisaniyeler içinde çözülür
+        Optional<ExtractedDataDto> templateResult = statementTemplateRegistry.tryMatch(statementText);
+        if (templateResult.isPresent()) {
+            return ExtractionResult.ofTemplate(templateResult.get());
+        }
 
-        // AI ile veriyi çıkar (seçilen servisi kullanarak)
-        ExtractedDataDto extractedData = activeExtractor.extractData(statementText);
+        long started = System.nanoTime();
+        // Seçilen sağlayıcı devre dışıysa veya başarısız olursa diğer sağlayıcılara geçilir;
+        // sonuç, onu gerçekten üreten sağlayıcıyla etiketlenir
+        ExtractionResult result = aiProviderGuard.callWithFailover(provider, availableProviders(),
+                candidate -> ExtractionResult.of(candidate, extractWithAi(statementText, candidate, getAiExtractorService(candidate))));
+        statementTemplateRegistry.recordAiExtraction(System.nanoTime() - started);
+        return result;
+    }
 
-        Period period = findOrCreatePeriod(user, extractedData.getPeriodYear(), extractedData.getPeriodMonth());
-        PeriodSource periodSource = createPeriodSource(period, user, file.getOriginalFilename(), sourceNamePrefix);
-        int savedCount = saveTransactions(extractedData.getTransactions(), periodSource, user, period);
+    private ExtractedDataDto extractWithAi(String statementText, AiProvider provider, AiExtractorService activeExtractor) {
+        // Uzun metinler parçalanıp eşzamanlı gönderilir; kısa metinler tek çağrıda işlenir
+        if (chunkedStatementExtractor.shouldChunk(statementText)) {
+            return chunkedStatementExtractor.extract(statementText, provider, activeExtractor);
+        }
 
-        log.info("Successfully processed PDF for user {}. Saved {} transactions for period {} into source {}",
-                userId, savedCount, period.getPeriodId(), periodSource.getSourceId());
+        // AI ile veriyi çıkar (seçilen servisi kullanarak, zaman aşımı ve devre kesici ile)
+        return aiProviderGuard.call(provider, () -> activeExtractor.extractData(statementText));
+    }
 
-        return new FileUploadResponseDto(
-                "File processed successfully using " + provider,
-                periodSource.getSourceName(),
-                savedCount
-        );
+    @Override
+    public String streamStatementData(String statementText, AiProvider provider, StreamingExtractionListener listener) {
+        Optional<ExtractedDataDto> templateResult = statementTemplateRegistry.tryMatch(statementText);
+        if (templateResult.isPresent()) {
+            replay(templateResult.get(), listener);
+            return ExtractionResult.TEMPLATE;
+        }
+
+        AiProvider routedProvider = aiProviderGuard.route(provider, availableProviders());
+        AiExtractorService activeExtractor = getAiExtractorService(routedProvider);
+        long started = System.nanoTime();
+        if (chunkedStatementExtractor.shouldChunk(statementText)) {
+            replay(chunkedStatementExtractor.extract(statementText, routedProvider, activeExtractor), listener);
+        } else {
+            // Akış kısmen yazılmış olabileceği için başka sağlayıcıya geçilmez; yalnızca devre kesici ve bulkhead uygulanır
+            try {
+                aiProviderGuard.callInline(routedProvider, () -> activeExtractor.extractDataStreaming(statementText, listener));
+            } catch (StreamingListenerException e) {
+                // Çağıran, listener'ın kendi hatasını (ör. DuplicateStatementException) görmeli
+                throw e.getCause();
+            }
+        }
+        statementTemplateRegistry.recordAiExtraction(System.nanoTime() - started);
+        return routedProvider.name();
     }
+
+    private void replay(ExtractedDataDto extractedData, StreamingExtractionListener listener) {
+        listener.onPeriod(extractedData.getPeriodYear(), extractedData.getPeriodMonth());
+        extractedData.getTransactions().forEach(listener::onTransaction);
+    }
+
+    private Set<AiProvider> availableProviders() {
+        Set<AiProvider> providers = EnumSet.noneOf(AiProvider.class);
+        for (AiProvider provider : AiProvider.values()) {
+            if (aiExtractorServices.containsKey(provider.name().toLowerCase() + "Extractor")) {
+                providers.add(provider);
+            }
+        }
+        return providers;
+    }
+
     private AiExtractorService getAiExtractorService(AiProvider provider) {
         // Enum adını küçük harfe çevir (bean adıyla eşleşmesi için)
         String beanName = provider.name().toLowerCase() + "Extractor";
@@ -96,85 +140,4 @@ public class PdfProcessingServiceImpl implements PdfProcessingService {
         return service;
     }
 
-    private Period findOrCreatePeriod(User user, int year, int month) {
-        return periodRepository.findByUserUserIdAndPeriodYearAndPeriodMonth(user.getUserId(), year, month)
-                .orElseGet(() -> {
-                    log.info("Period {}-{} not found for user {}, creating new one.", year, month, user.getUserId());
-                    Period newPeriod = new Period();
-                    newPeriod.setUser(user);
-                    newPeriod.setPeriodYear(year);
-                    newPeriod.setPeriodMonth(month);
-                    // Ayın başlangıç ve bitiş tarihlerini hesapla
-                    LocalDate startDate = LocalDate.of(year, month, 1);
-                    LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
-                    newPeriod.setStartDate(startDate);
-                    newPeriod.setEndDate(endDate);
-                    return periodRepository.save(newPeriod);
-                });
-    }
-
-    private PeriodSource createPeriodSource(Period period, User user, String originalFilename, String sourceNamePrefix) {
-        PeriodSource source = new PeriodSource();
-        source.setPeriod(period);
-        source.setUser(user);
-        source.setSourceType(SourceType.STATEMENT); // Ekstre tipi olarak işaretle
-        // Kaynak adı oluştur (örn: "Ekstre - ankara_sube_ocak_2024.pdf")
-        String finalSourceName = (sourceNamePrefix != null ? sourceNamePrefix + " - " : "Ekstre - ") + originalFilename;
-        source.setSourceName(finalSourceName);
-        // Kurum adı AI tarafından çıkarılabilir veya kullanıcıdan alınabilir (şimdilik null)
-        source.setInstitutionName(null);
-        source.setUploadTimestamp(OffsetDateTime.now());
-        return periodSourceRepository.save(source);
-    }
-
-    private int saveTransactions(List<TransactionDto> transactionDtos, PeriodSource source, User user, Period period) {
-        List<Transaction> transactionsToSave = new ArrayList<>();
-        final Integer OTHER_CATEGORY_ID = 98;
-        for (TransactionDto dto : transactionDtos) {
-            if (dto.getDate() == null || dto.getDescription() == null || dto.getAmount() == null) {
-                log.warn("Skipping transaction with missing data: {}", dto);
-                continue;
-            }
-
-            Transaction tx = new Transaction();
-            tx.setPeriodSource(source);
-            tx.setUser(user);
-            tx.setPeriod(period);
-            Category foundCategory = null;
-            if (dto.getCategoryName() != null && !dto.getCategoryName().isBlank()) {
-                // AI'dan gelen kategori adıyla DB'de ara (Büyük/küçük harf duyarsız)
-                Optional<Category> categoryOpt = categoryRepository.findByCategoryNameTrIgnoreCase(dto.getCategoryName().trim());
-                if (categoryOpt.isPresent()) {
-                    foundCategory = categoryOpt.get();
-                    log.debug("Category '{}' found for description '{}'", dto.getCategoryName(), dto.getDescription());
-                } else {
-                    // Alternatif: İngilizce isimle de ara
-                    // categoryOpt = categoryRepository.findByCategoryNameEnIgnoreCase(dto.getCategoryName().trim());
-                    // if(categoryOpt.isPresent()) foundCategory = categoryOpt.get();
-                    // else { ... }
-
-                    log.warn("Category '{}' not found in DB for description '{}'. Assigning default.", dto.getCategoryName(), dto.getDescription());
-                    // Bulunamazsa varsayılan "Diğer" kategorisini ata (isteğe bağlı)
-                    // foundCategory = categoryRepository.findById(OTHER_CATEGORY_ID).orElse(null);
-                }
-            } else {
-                log.warn("AI did not provide category name for description '{}'. Category will be null.", dto.getDescription());
-            }
-            tx.setCategory(foundCategory);
-            tx.setTransactionDate(dto.getDate().atStartOfDay().atOffset(OffsetDateTime.now().getOffset()));
-            tx.setDescriptionOriginal(dto.getDescription());
-            // AI'dan gelen amount'un işaretine güvenmiyorsanız, burada kontrol edebilirsiniz
-            // Örneğin, açıklama "ATM Nakit Çekim" içeriyorsa negatif yap gibi kurallar eklenebilir.
-            // Şimdilik AI'nın doğru işareti verdiğini varsayalım.
-            tx.setAmount(dto.getAmount());
-            tx.setCurrency("TRY"); // Varsayılan veya AI'dan alınabilir
-            tx.setAiSuggestedCategory(null);
-            tx.setCategorizedByAi(foundCategory != null);
-
-            transactionsToSave.add(tx);
-        }
-        transactionRepository.saveAll(transactionsToSave);
-        return transactionsToSave.size();
-    }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.finera.service.impl;
+
+import com.finera.entities.PeriodCategoryAggregateId;
+import com.finera.entities.Transaction;
+import com.finera.repository.PeriodCategoryAggregateRepository;
+import com.finera.service.PeriodAggregateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PeriodAggregateServiceImpl implements PeriodAggregateService {
+
+    private final PeriodCategoryAggregateRepository aggregateRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY) // İşlem yazımıyla aynı transaction'da olmalı
+    public void recordTransactions(Collection<Transaction> transactions) {
+        // Önce bellekte grupla: bir ekstre yüzlerce işlem, ama birkaç düzine (kaynak, kategori) satırı demek
+        Map<PeriodCategoryAggregateId, Delta> deltas = new HashMap<>();
+        for (Transaction tx : transactions) {
+            if (tx.getCategory() == null || tx.getAmount() == null) {
+                continue;
+            }
+            // Proxy referanslarda getXxxId() veritabanına gitmez
+            PeriodCategoryAggregateId key = new PeriodCategoryAggregateId(
+                    tx.getUser().getUserId(),
+                    tx.getPeriod().getPeriodId(),
+                    tx.getPeriodSource().getSourceId(),
+                    tx.getCategory().getCategoryId());
+            deltas.computeIfAbsent(key, k -> new Delta()).add(tx.getAmount());
+        }
+
+        deltas.forEach((key, delta) -> aggregateRepository.addDelta(key.getUserId(), key.getPeriodId(),
+                key.getSourceId(), key.getCategoryId(), delta.negativeAmount, delta.absoluteAmount, delta.transactionCount));
+        log.debug("Updated {} period aggregate rows from {} transactions", deltas.size(), transactions.size());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int removeSource(UUID sourceId) {
+        return aggregateRepository.deleteBySourceId(sourceId);
+    }
+
+    private static final class Delta {
+        private BigDecimal negativeAmount = BigDecimal.ZERO;
+        private BigDecimal absoluteAmount = BigDecimal.ZERO;
+        private long transactionCount;
+
+        void add(BigDecimal amount) {
+            if (amount.signum() < 0) {
+                negativeAmount = negativeAmount.add(amount);
+            }
+            absoluteAmount = absoluteAmount.add(amount.abs());
+            transactionCount++;
+        }
+    }
+}
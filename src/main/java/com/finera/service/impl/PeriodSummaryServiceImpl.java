@@ -4,7 +4,7 @@ import com.finera.dto.CategorySummaryDto;
 import com.finera.dto.PeriodSummaryResponseDto;
 import com.finera.dto.SourceSummaryDto;
 import com.finera.projection.CategorySourceProjection;
-import com.finera.repository.TransactionRepository;
+import com.finera.repository.PeriodCategoryAggregateRepository;
 import com.finera.service.PeriodSummaryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -21,13 +21,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor // Constructor Injection için
 public class PeriodSummaryServiceImpl implements PeriodSummaryService {
 
-    private final TransactionRepository transactionRepository;
+    private final PeriodCategoryAggregateRepository periodCategoryAggregateRepository;
 
     @Override
     @Transactional(readOnly = true) // Sadece okuma işlemi olduğu için
     public PeriodSummaryResponseDto getPeriodExpenseSummary(UUID userId, int year, int month) {
 
-        List<CategorySourceProjection> rawSummaries = transactionRepository.findExpenseSummaryByUserAndPeriod(userId, year, month);
+        List<CategorySourceProjection> rawSummaries = periodCategoryAggregateRepository.findExpenseSummaryByUserAndPeriod(userId, year, month);
 
         // Veriyi Kaynak (Source) bazında gruplamak için Map kullan
         Map<String, List<CategorySummaryDto>> groupedBySource = new LinkedHashMap<>(); // Sırayı korumak için LinkedHashMap
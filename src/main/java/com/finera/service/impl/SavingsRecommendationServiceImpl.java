@@ -3,17 +3,26 @@ package com.finera.service.impl;
 import com.finera.dto.SavingsRecommendationDto;
 import com.finera.dto.SavingsRequestDto;
 import com.finera.dto.SavingsResponseDto;
+import com.finera.dto.SpendingCategoryDto;
+import com.finera.exception.BadRequestException;
 import com.finera.service.SavingsRecommendationService;
+import com.finera.service.SpendingProfileService;
 import com.finera.service.ai.AiProvider;
+import com.finera.service.ai.AiProviderGuard;
 import com.finera.service.ai.AiSavingsAdvisorService; // Yeni AI interface'ini import et
+import com.finera.service.savings.SavingsRecommendationCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -21,29 +30,91 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SavingsRecommendationServiceImpl implements SavingsRecommendationService {
 
+    // Önerileri üreten sağlayıcıyla birlikte taşınır: hedged çağrıda iki deneme aynı anda çalıştığı için
+    // cevabı kimin verdiği ancak kazanan denemenin sonucundan okunabilir
+    private record AdvisorAnswer(AiProvider provider, List<SavingsRecommendationDto> recommendations) {
+    }
+
     // Map olarak tüm AiSavingsAdvisorService implementasyonlarını inject et
     private final Map<String, AiSavingsAdvisorService> aiSavingsAdvisors;
+    private final AiProviderGuard aiProviderGuard;
+    private final SavingsRecommendationCache savingsRecommendationCache;
+    private final SpendingProfileService spendingProfileService;
+
+    @Override
+    public SavingsResponseDto getRecommendations(UUID userId, SavingsRequestDto request) {
+        if (request.getCurrentSpending() == null || request.getCurrentSpending().isEmpty()) {
+            // Dönem verilmezse son tamamlanan ay kullanılır; yarım dönem sessizce geçen aya çevrilmez
+            if ((request.getPeriodYear() == null) != (request.getPeriodMonth() == null)) {
+                throw new BadRequestException("periodYear and periodMonth must be provided together.");
+            }
+            YearMonth end = request.getPeriodYear() != null && request.getPeriodMonth() != null
+                    ? YearMonth.of(request.getPeriodYear(), request.getPeriodMonth())
+                    : YearMonth.now().minusMonths(1);
+            int trailingMonths = request.getTrailingMonths() != null ? request.getTrailingMonths() : 1;
+            List<SpendingCategoryDto> profile = spendingProfileService.buildSpendingProfile(
+                    userId, end.getYear(), end.getMonthValue(), trailingMonths);
+            if (profile.isEmpty()) {
+                throw new BadRequestException("No expenses found for " + end + " (last " + trailingMonths + " months) to base savings recommendations on.");
+            }
+            request.setCurrentSpending(profile);
+        }
+        return getRecommendations(request);
+    }
 
     @Override
     public SavingsResponseDto getRecommendations(SavingsRequestDto request) {
         AiProvider provider = request.getProvider(); // İstekten provider'ı al
+        if (request.getCurrentSpending() == null || request.getCurrentSpending().isEmpty()) {
+            throw new BadRequestException("currentSpending must not be empty.");
+        }
 
-        // Doğru AI servisini Map'ten seç
-        AiSavingsAdvisorService advisor = getAiSavingsAdvisor(provider);
-        log.info("Using AI savings advisor implementation: {}", advisor.getClass().getSimpleName());
+        // Doğru AI servisini Map'ten seç; geçersiz provider için hemen hata ver (AUTO'yu yönlendirici çözer)
+        if (provider != AiProvider.AUTO) {
+            getAiSavingsAdvisor(provider);
+        }
 
-        // AI servisinden yapılandırılmış önerileri al
-        List<SavingsRecommendationDto> recommendations = advisor.generateRecommendations(
-                request.getDesiredSavingsAmount(),
-                request.getCurrentSpending()
-        );
+        // Aynı hedef ve harcama profili için daha önce üretilen öneriler varsa LLM'e gitme
+        String cacheKey = SavingsRecommendationCache.key(provider, request.getDesiredSavingsAmount(), request.getCurrentSpending());
+        List<SavingsRecommendationDto> recommendations = savingsRecommendationCache.get(cacheKey).orElse(null);
+        if (recommendations == null) {
+            // AI servisinden yapılandırılmış önerileri al (zaman aşımı, devre kesici ve yedek sağlayıcı ile)
+            AdvisorAnswer answer = aiProviderGuard.callWithFailover(provider, availableProviders(),
+                    candidate -> {
+                        AiSavingsAdvisorService advisor = getAiSavingsAdvisor(candidate);
+                        if (candidate == AiProvider.LOCAL) {
+                            // Yerel optimizasyon uzak çağrı değil: zaman aşımı/devre kesici gerekmez
+                            return new AdvisorAnswer(candidate, advisor.generateRecommendations(
+                                    request.getDesiredSavingsAmount(), request.getCurrentSpending()));
+                        }
+                        return new AdvisorAnswer(candidate, aiProviderGuard.call(candidate, () -> advisor.generateRecommendations(
+                                request.getDesiredSavingsAmount(),
+                                request.getCurrentSpending()
+                        )));
+                    });
+            recommendations = answer.recommendations();
+            // LLM'ler başarısız olup yerel yedek cevap verdiyse bunu LLM sonucu gibi önbelleğe koyma
+            if (answer.provider() != AiProvider.LOCAL || provider == AiProvider.LOCAL) {
+                savingsRecommendationCache.put(cacheKey, recommendations);
+            }
+        }
 
-        // Önerilerden metinsel bir özet oluştur (basit örnek)
+        // Önerilerden metinsel bir özet oluştur (basit örnek); istenen hedefle her seferinde yeniden üretilir
         String summary = generateSummary(request.getDesiredSavingsAmount(), recommendations);
 
         return new SavingsResponseDto(summary, recommendations);
     }
 
+    private Set<AiProvider> availableProviders() {
+        Set<AiProvider> providers = EnumSet.noneOf(AiProvider.class);
+        for (AiProvider provider : AiProvider.values()) {
+            if (aiSavingsAdvisors.containsKey(provider.name().toLowerCase() + "SavingsAdvisor")) {
+                providers.add(provider);
+            }
+        }
+        return providers;
+    }
+
     /**
      * Verilen AiProvider enum'una karşılık gelen AiSavingsAdvisorService bean'ini Map'ten alır.
      */
@@ -0,0 +1,65 @@
+package com.finera.service.impl;
+
+import com.finera.dto.SpendingCategoryDto;
+import com.finera.projection.PeriodCategoryTotalProjection;
+import com.finera.repository.PeriodCategoryAggregateRepository;
+import com.finera.service.SpendingProfileService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SpendingProfileServiceImpl implements SpendingProfileService {
+
+    private final PeriodCategoryAggregateRepository periodCategoryAggregateRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SpendingCategoryDto> buildSpendingProfile(UUID userId, int year, int month, int trailingMonths) {
+        int months = Math.max(1, trailingMonths);
+        int toPeriodIndex = year * 12 + month;
+        int fromPeriodIndex = toPeriodIndex - months + 1;
+
+        // İşlem tablosu yerine kaynak/kategori özetlerinden tek sorguda (trend endpoint'iyle aynı sorgu);
+        // gelir kategorileri negatif döner ve aşağıda elenir
+        List<PeriodCategoryTotalProjection> rows = periodCategoryAggregateRepository
+                .findNetCategoryTotalsByUserBetweenPeriods(userId, fromPeriodIndex, toPeriodIndex);
+
+        Map<Integer, SpendingCategoryDto> totalsByCategory = new LinkedHashMap<>();
+        for (PeriodCategoryTotalProjection row : rows) {
+            SpendingCategoryDto total = totalsByCategory.computeIfAbsent(row.getCategoryId(), id -> {
+                SpendingCategoryDto spending = new SpendingCategoryDto();
+                spending.setCategoryName(row.getCategoryNameTr());
+                spending.setAmount(BigDecimal.ZERO);
+                return spending;
+            });
+            total.setAmount(total.getAmount().add(row.getNetAmount()));
+        }
+
+        List<SpendingCategoryDto> profile = new ArrayList<>(totalsByCategory.size());
+        BigDecimal divisor = BigDecimal.valueOf(months);
+        for (SpendingCategoryDto total : totalsByCategory.values()) {
+            BigDecimal monthlyAmount = total.getAmount().divide(divisor, 2, RoundingMode.HALF_UP);
+            if (monthlyAmount.signum() > 0) {
+                total.setAmount(monthlyAmount);
+                profile.add(total);
+            }
+        }
+        profile.sort(Comparator.comparing(SpendingCategoryDto::getCategoryName));
+        log.info("Built spending profile for user {} ending {}-{} over {} months: {} categories",
+                userId, year, month, months, profile.size());
+        return profile;
+    }
+}
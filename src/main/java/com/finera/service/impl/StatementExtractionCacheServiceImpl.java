@@ -0,0 +1,74 @@
+package com.finera.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finera.dto.ExtractedDataDto;
+import com.finera.entities.StatementExtractionCache;
+import com.finera.repository.StatementExtractionCacheRepository;
+import com.finera.service.StatementExtractionCacheService;
+import com.finera.service.ai.AiProvider;
+import com.finera.service.ai.ExtractionResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatementExtractionCacheServiceImpl implements StatementExtractionCacheService {
+
+    private final StatementExtractionCacheRepository cacheRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional
+    public Optional<ExtractedDataDto> find(String contentHash, AiProvider requested) {
+        Optional<StatementExtractionCache> entry = select(cacheRepository.findByContentHashOrderByCreatedAtDesc(contentHash), requested);
+        if (entry.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            ExtractedDataDto extractedData = objectMapper.readValue(entry.get().getExtractedData(), ExtractedDataDto.class);
+            cacheRepository.recordHit(contentHash, entry.get().getAiProvider(), OffsetDateTime.now());
+            log.info("Extraction cache hit for content hash {} ({} transactions, originally by {})",
+                    contentHash, entry.get().getTransactionCount(), entry.get().getAiProvider());
+            return Optional.of(extractedData);
+        } catch (JsonProcessingException e) {
+            // Bozuk kayıt: önbelleği yok say, normal akış AI ile devam etsin
+            log.warn("Ignoring unreadable extraction cache entry {}: {}", contentHash, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void store(String contentHash, String producedBy, ExtractedDataDto extractedData) {
+        try {
+            StatementExtractionCache entry = StatementExtractionCache.builder()
+                    .contentHash(contentHash)
+                    .extractedData(objectMapper.writeValueAsString(extractedData))
+                    .aiProvider(producedBy)
+                    .transactionCount(extractedData.getTransactions() != null ? extractedData.getTransactions().size() : 0)
+                    .hitCount(0)
+                    .build();
+            cacheRepository.saveAndFlush(entry); // Kendi transaction'ında; çakışma olursa aşağıda yutulur
+        } catch (Exception e) {
+            log.warn("Failed to store extraction cache entry {}: {}", contentHash, e.getMessage());
+        }
+    }
+
+    // İstenen sağlayıcının kaydı, yoksa şablon kaydı; AUTO için en yeni kayıt
+    private static Optional<StatementExtractionCache> select(List<StatementExtractionCache> entries, AiProvider requested) {
+        if (requested == AiProvider.AUTO) {
+            return entries.stream().findFirst();
+        }
+        return entries.stream()
+                .filter(entry -> requested.name().equals(entry.getAiProvider()))
+                .findFirst()
+                .or(() -> entries.stream().filter(entry -> ExtractionResult.TEMPLATE.equals(entry.getAiProvider())).findFirst());
+    }
+}
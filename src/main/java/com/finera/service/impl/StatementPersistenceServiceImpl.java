@@ -0,0 +1,298 @@
+package com.finera.service.impl;
+
+import com.finera.dto.ExtractedDataDto;
+import com.finera.dto.FileUploadResponseDto;
+import com.finera.dto.TransactionDto;
+import com.finera.entities.Category;
+import com.finera.entities.Period;
+import com.finera.entities.PeriodSource;
+import com.finera.entities.Transaction;
+import com.finera.entities.User;
+import com.finera.entities.enums.SourceType;
+import com.finera.exception.DuplicateStatementException;
+import com.finera.exception.ResourceNotFoundException;
+import com.finera.repository.PeriodRepository;
+import com.finera.repository.PeriodSourceRepository;
+import com.finera.repository.TransactionRepository;
+import com.finera.repository.UserRepository;
+import com.finera.service.MerchantCategoryService;
+import com.finera.service.PeriodAggregateService;
+import com.finera.service.TransactionPartitionService;
+import com.finera.service.StatementPersistenceService;
+import com.finera.service.category.CategoryCatalog;
+import com.finera.service.ingestion.DuplicateStatementPolicy;
+import com.finera.service.ingestion.OpenedStatementSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatementPersistenceServiceImpl implements StatementPersistenceService {
+
+    private final UserRepository userRepository;
+    private final PeriodRepository periodRepository;
+    private final PeriodSourceRepository periodSourceRepository;
+    private final TransactionRepository transactionRepository;
+    private final CategoryCatalog categoryCatalog;
+    private final MerchantCategoryService merchantCategoryService;
+    private final PeriodAggregateService periodAggregateService;
+    private final TransactionPartitionService transactionPartitionService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<FileUploadResponseDto> findExistingStatement(UUID userId, String contentHash) {
+        return periodSourceRepository.findFirstByUserUserIdAndContentHashOrderByUploadTimestampDesc(userId, contentHash)
+                .map(this::toExistingStatementResponse);
+    }
+
+    @Override
+    @Transactional // Sadece DB yazma işlemleri; PDF ve AI aşamaları bu transaction'ın dışında
+    public FileUploadResponseDto persistStatement(UUID userId, ExtractedDataDto extractedData,
+                                                  String originalFilename, String sourceNamePrefix,
+                                                  String contentHash, DuplicateStatementPolicy duplicatePolicy) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+
+        Optional<FileUploadResponseDto> existing = resolveDuplicate(userId, contentHash, duplicatePolicy);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        Period period = findOrCreatePeriod(user, extractedData.getPeriodYear(), extractedData.getPeriodMonth());
+        PeriodSource periodSource = createPeriodSource(period, user, sourceName(originalFilename, sourceNamePrefix), contentHash);
+        int savedCount = saveTransactions(extractedData.getTransactions(), periodSource, user, period,
+                Period.index(period.getPeriodYear(), period.getPeriodMonth()));
+
+        log.info("Persisted {} transactions for user {} in period {} into source {}",
+                savedCount, userId, period.getPeriodId(), periodSource.getSourceId());
+        return new FileUploadResponseDto(null, periodSource.getSourceName(), savedCount);
+    }
+
+    @Override
+    @Transactional
+    public OpenedStatementSource openStatementSource(UUID userId, int periodYear, int periodMonth,
+                                                     String originalFilename, String sourceNamePrefix,
+                                                     String contentHash, DuplicateStatementPolicy duplicatePolicy) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+
+        // REPLACE: akış yarıda kalabileceği için eski kaynak burada silinmez, completeStatementSource'ta silinir
+        UUID replacedSourceId = null;
+        if (duplicatePolicy == DuplicateStatementPolicy.REPLACE) {
+            replacedSourceId = periodSourceRepository
+                    .findFirstByUserUserIdAndContentHashOrderByUploadTimestampDesc(userId, contentHash)
+                    .map(PeriodSource::getSourceId)
+                    .orElse(null);
+        } else {
+            Optional<FileUploadResponseDto> existing = resolveDuplicate(userId, contentHash, duplicatePolicy);
+            if (existing.isPresent()) {
+                return new OpenedStatementSource(userId, null, 0, null, existing.get().getSourceName(), null, existing.get());
+            }
+        }
+
+        Period period = findOrCreatePeriod(user, periodYear, periodMonth);
+        String sourceName = sourceName(originalFilename, sourceNamePrefix);
+        // Eski kaynak aynı dönemde aynı adı taşıyor olabilir (unique constraint): akış bitene kadar geçici adla yaz
+        String workingName = replacedSourceId != null ? "Yükleniyor - " + UUID.randomUUID() : sourceName;
+        PeriodSource periodSource = createPeriodSource(period, user, workingName, contentHash);
+        log.info("Opened source {} for streamed statement of user {} in period {}{}",
+                periodSource.getSourceId(), userId, period.getPeriodId(),
+                replacedSourceId != null ? " (replaces " + replacedSourceId + " on completion)" : "");
+        return new OpenedStatementSource(userId, period.getPeriodId(),
+                Period.index(period.getPeriodYear(), period.getPeriodMonth()), periodSource.getSourceId(),
+                sourceName, replacedSourceId, null);
+    }
+
+    @Override
+    @Transactional
+    public void completeStatementSource(OpenedStatementSource source) {
+        if (source.isExisting() || source.replacedSourceId() == null) {
+            return;
+        }
+        // Eski ekstre ve yeni kaynağın kalıcı adı aynı transaction'da: ya ikisi birden olur ya hiçbiri
+        periodSourceRepository.findById(source.replacedSourceId()).ifPresent(this::deleteSource);
+        periodSourceRepository.renameSource(source.sourceId(), source.sourceName());
+    }
+
+    @Override
+    @Transactional
+    public int appendTransactions(OpenedStatementSource source, List<TransactionDto> transactions) {
+        // Proxy referanslar yeterli: toplu INSERT sadece ID'leri kullanır
+        return saveTransactions(transactions,
+                periodSourceRepository.getReferenceById(source.sourceId()),
+                userRepository.getReferenceById(source.userId()),
+                periodRepository.getReferenceById(source.periodId()),
+                source.periodIndex());
+    }
+
+    @Override
+    @Transactional
+    public void discardStatementSource(OpenedStatementSource source) {
+        if (source.isExisting()) {
+            return;
+        }
+        periodAggregateService.removeSource(source.sourceId());
+        int deletedTransactions = transactionRepository.deleteAllBySourceId(source.sourceId(), source.periodIndex());
+        periodSourceRepository.deleteBySourceId(source.sourceId());
+        log.info("Discarded partially streamed source {} ({} transactions deleted)", source.sourceId(), deletedTransactions);
+    }
+
+    /**
+     * Aynı içerik daha önce yüklendiyse politikayı uygular. REUSE'da mevcut kaynağı döndürür,
+     * REJECT'te hata fırlatır, REPLACE'te eski kaynağı siler.
+     */
+    private Optional<FileUploadResponseDto> resolveDuplicate(UUID userId, String contentHash, DuplicateStatementPolicy duplicatePolicy) {
+        // Pipeline başında da kontrol edildi; aynı dosyanın eşzamanlı yüklenmesine karşı burada tekrar bak
+        Optional<PeriodSource> existing = periodSourceRepository
+                .findFirstByUserUserIdAndContentHashOrderByUploadTimestampDesc(userId, contentHash);
+        if (existing.isPresent()) {
+            switch (duplicatePolicy) {
+                case REUSE:
+                    log.info("Statement {} already uploaded by user {}, reusing source {}", contentHash, userId, existing.get().getSourceId());
+                    return Optional.of(toExistingStatementResponse(existing.get()));
+                case REJECT:
+                    throw new DuplicateStatementException("This statement was already uploaded as '" + existing.get().getSourceName() + "'.");
+                case REPLACE:
+                    deleteSource(existing.get());
+                    break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private FileUploadResponseDto toExistingStatementResponse(PeriodSource source) {
+        int transactionCount = (int) transactionRepository.countByPeriodSourceSourceId(source.getSourceId());
+        return new FileUploadResponseDto("Statement was already uploaded; existing source reused.",
+                source.getSourceName(), transactionCount);
+    }
+
+    private void deleteSource(PeriodSource source) {
+        // Toplu silme: aynı isimle hemen yeniden oluşturulacağı için unique constraint'e takılmamalı
+        periodAggregateService.removeSource(source.getSourceId());
+        Period period = source.getPeriod();
+        int deletedTransactions = transactionRepository.deleteAllBySourceId(source.getSourceId(),
+                Period.index(period.getPeriodYear(), period.getPeriodMonth()));
+        periodSourceRepository.deleteBySourceId(source.getSourceId());
+        log.info("Replaced duplicate statement source {} ({} transactions deleted)", source.getSourceId(), deletedTransactions);
+    }
+
+    private Period findOrCreatePeriod(User user, int year, int month) {
+        return periodRepository.findByUserUserIdAndPeriodYearAndPeriodMonth(user.getUserId(), year, month)
+                .orElseGet(() -> {
+                    log.info("Period {}-{} not found for user {}, creating new one.", year, month, user.getUserId());
+                    Period newPeriod = new Period();
+                    newPeriod.setUser(user);
+                    newPeriod.setPeriodYear(year);
+                    newPeriod.setPeriodMonth(month);
+                    // Ayın başlangıç ve bitiş tarihlerini hesapla
+                    LocalDate startDate = LocalDate.of(year, month, 1);
+                    LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
+                    newPeriod.setStartDate(startDate);
+                    newPeriod.setEndDate(endDate);
+                    return periodRepository.save(newPeriod);
+                });
+    }
+
+    // Kaynak adı oluştur (örn: "Ekstre - ankara_sube_ocak_2024.pdf")
+    private static String sourceName(String originalFilename, String sourceNamePrefix) {
+        return (sourceNamePrefix != null ? sourceNamePrefix + " - " : "Ekstre - ") + originalFilename;
+    }
+
+    private PeriodSource createPeriodSource(Period period, User user, String sourceName, String contentHash) {
+        PeriodSource source = new PeriodSource();
+        source.setPeriod(period);
+        source.setUser(user);
+        source.setSourceType(SourceType.STATEMENT); // Ekstre tipi olarak işaretle
+        source.setSourceName(sourceName);
+        // Kurum adı AI tarafından çıkarılabilir veya kullanıcıdan alınabilir (şimdilik null)
+        source.setInstitutionName(null);
+        source.setUploadTimestamp(OffsetDateTime.now());
+        source.setContentHash(contentHash);
+        return periodSourceRepository.save(source);
+    }
+
+    private int saveTransactions(List<TransactionDto> transactionDtos, PeriodSource source, User user, Period period, int periodIndex) {
+        // Bilinen açıklamalar için öğrenilmiş kategoriler (tek sorgu, çoğu zaman bellekten)
+        Map<String, MerchantCategoryService.Match> knownCategories = merchantCategoryService.resolve(user.getUserId(),
+                transactionDtos.stream().map(TransactionDto::getDescription).filter(Objects::nonNull).toList());
+        Map<String, Category> aiCategoriesToLearn = new HashMap<>();
+        // Şablonla ayrıştırılan satırlarda AI kategorisi yok; eşleme de yoksa varsayılan kategoriye düşer
+        Category defaultCategory = categoryCatalog.defaultCategory().orElse(null);
+
+        List<Transaction> transactionsToSave = new ArrayList<>();
+        for (TransactionDto dto : transactionDtos) {
+            if (dto.getDate() == null || dto.getDescription() == null || dto.getAmount() == null) {
+                log.warn("Skipping transaction with missing data: {}", dto);
+                continue;
+            }
+
+            Transaction tx = new Transaction();
+            tx.setPeriodSource(source);
+            tx.setUser(user);
+            tx.setPeriod(period);
+            tx.setPeriodIndex(periodIndex);
+            Category aiCategory = null;
+            if (dto.getCategoryName() != null && !dto.getCategoryName().isBlank()) {
+                // AI'dan gelen kategori adını bellekteki dizinde ara (Türkçe büyük/küçük harf duyarsız)
+                Optional<Category> categoryOpt = categoryCatalog.findByName(dto.getCategoryName());
+                if (categoryOpt.isPresent()) {
+                    aiCategory = categoryOpt.get();
+                    log.debug("Category '{}' found for description '{}'", dto.getCategoryName(), dto.getDescription());
+                } else {
+                    log.warn("Category '{}' not found for description '{}'.", dto.getCategoryName(), dto.getDescription());
+                }
+            }
+
+            // Öncelik: kullanıcının kendi eşlemesi > AI kategorisi > global öğrenilmiş eşleme > varsayılan kategori
+            MerchantCategoryService.Match known = knownCategories.get(dto.getDescription());
+            Category foundCategory;
+            if (known != null && (known.userSpecific() || aiCategory == null)) {
+                foundCategory = known.category();
+            } else {
+                foundCategory = aiCategory;
+                if (aiCategory != null && known == null) {
+                    aiCategoriesToLearn.putIfAbsent(dto.getDescription(), aiCategory);
+                }
+            }
+            if (foundCategory == null) {
+                foundCategory = defaultCategory;
+                if (defaultCategory == null) {
+                    log.warn("No category found for description '{}'. Category will be null.", dto.getDescription());
+                }
+            }
+            tx.setCategory(foundCategory);
+            tx.setTransactionDate(dto.getDate().atStartOfDay().atOffset(OffsetDateTime.now().getOffset()));
+            tx.setDescriptionOriginal(dto.getDescription());
+            // AI'dan gelen amount'un işaretine güvenmiyorsanız, burada kontrol edebilirsiniz
+            // Örneğin, açıklama "ATM Nakit Çekim" içeriyorsa negatif yap gibi kurallar eklenebilir.
+            // Şimdilik AI'nın doğru işareti verdiğini varsayalım.
+            tx.setAmount(dto.getAmount());
+            tx.setCurrency("TRY"); // Varsayılan veya AI'dan alınabilir
+            // Öğrenilmiş eşleme AI'ın önerisini geçersiz kıldıysa öneriyi sakla
+            tx.setAiSuggestedCategory(aiCategory != foundCategory ? aiCategory : null);
+            tx.setCategorizedByAi(foundCategory != null && foundCategory == aiCategory);
+
+            transactionsToSave.add(tx);
+        }
+        // Dönemin yılına ait bölüm yoksa aç (işlemler varsayılan bölüme düşmesin)
+        transactionPartitionService.ensurePartition(periodIndex);
+        // saveAll satır başına INSERT atıyordu; JDBC batch ile tek seferde yaz
+        int saved = transactionRepository.bulkInsert(transactionsToSave);
+        periodAggregateService.recordTransactions(transactionsToSave);
+        merchantCategoryService.learnFromAi(user.getUserId(), aiCategoriesToLearn);
+        return saved;
+    }
+}
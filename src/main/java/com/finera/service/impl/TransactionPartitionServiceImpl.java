@@ -0,0 +1,46 @@
+package com.finera.service.impl;
+
+import com.finera.repository.PeriodRepository;
+import com.finera.service.TransactionPartitionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionPartitionServiceImpl implements TransactionPartitionService {
+
+    private final PeriodRepository periodRepository;
+
+    // Bölümü var olduğu doğrulanmış yıllar; bölümler silinmediği için süreç ömrü boyunca geçerli
+    private final Set<Integer> knownYears = ConcurrentHashMap.newKeySet();
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY) // İşlem yazımıyla aynı transaction'da olmalı
+    public void ensurePartition(int periodIndex) {
+        int year = (periodIndex - 1) / 12;
+        if (knownYears.contains(year)) {
+            return;
+        }
+        if (periodRepository.ensureTransactionPartition(year)) {
+            // Bölüm bu transaction'da oluşturulduysa rollback'te kaybolur: sadece commit sonrası hatırla
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    knownYears.add(year);
+                }
+            });
+        } else {
+            // Yazma varsayılan bölüme düşer; sonraki yazmada tekrar denenir ve satırlar taşınır
+            log.warn("Transactions partition for year {} could not be created; rows go to the default partition", year);
+        }
+    }
+}
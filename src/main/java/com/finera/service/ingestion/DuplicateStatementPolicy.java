@@ -0,0 +1,11 @@
+package com.finera.service.ingestion;
+
+/**
+ * Kullanıcının daha önce yüklediği (aynı SHA-256 özetine sahip) bir ekstre tekrar yüklendiğinde
+ * ne yapılacağını belirler.
+ */
+public enum DuplicateStatementPolicy {
+    REUSE,   // Mevcut kaynak aynen kullanılır, yeni kayıt oluşturulmaz
+    REJECT,  // Yükleme reddedilir (409)
+    REPLACE  // Mevcut kaynak ve işlemleri silinip yeniden oluşturulur
+}
@@ -0,0 +1,68 @@
+package com.finera.service.ingestion;
+
+import com.finera.dto.FileUploadResponseDto;
+import com.finera.dto.IngestionJobResponseDto;
+import com.finera.service.ai.AiProvider;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Bir ekstre işleme işinin bellekteki durumu.
+ * Worker thread'i tarafından güncellenir, status endpoint'i tarafından okunur.
+ */
+@Getter
+public class IngestionJob {
+
+    private final UUID jobId;
+    private final UUID userId;
+    private final String originalFilename;
+    private final AiProvider provider;
+    private final OffsetDateTime createdAt;
+
+    private volatile IngestionJobStatus status;
+    private volatile String message;
+    private volatile FileUploadResponseDto result;
+    private volatile OffsetDateTime updatedAt;
+
+    public IngestionJob(UUID userId, String originalFilename, AiProvider provider) {
+        this.jobId = UUID.randomUUID();
+        this.userId = userId;
+        this.originalFilename = originalFilename;
+        this.provider = provider;
+        this.createdAt = OffsetDateTime.now();
+        this.updatedAt = this.createdAt;
+        this.status = IngestionJobStatus.QUEUED;
+        this.message = "Statement queued for processing.";
+    }
+
+    public void moveTo(IngestionJobStatus newStatus) {
+        this.status = newStatus;
+        this.updatedAt = OffsetDateTime.now();
+    }
+
+    public void complete(FileUploadResponseDto result) {
+        this.result = result;
+        this.message = result.getMessage();
+        moveTo(IngestionJobStatus.COMPLETED);
+    }
+
+    public void fail(String message) {
+        this.message = message;
+        moveTo(IngestionJobStatus.FAILED);
+    }
+
+    public IngestionJobResponseDto toResponseDto() {
+        return IngestionJobResponseDto.builder()
+                .jobId(jobId)
+                .status(status)
+                .message(message)
+                .fileName(originalFilename)
+                .provider(provider)
+                .result(result)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
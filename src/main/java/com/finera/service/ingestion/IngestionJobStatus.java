@@ -0,0 +1,14 @@
+package com.finera.service.ingestion;
+
+public enum IngestionJobStatus {
+    QUEUED,          // Kuyrukta, henüz bir worker almadı
+    EXTRACTING_TEXT, // PDF'ten metin çıkarılıyor
+    AI_PROCESSING,   // AI sağlayıcısından yanıt bekleniyor
+    PERSISTING,      // Dönem, kaynak ve işlemler kaydediliyor
+    COMPLETED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
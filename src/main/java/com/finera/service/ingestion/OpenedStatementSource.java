@@ -0,0 +1,18 @@
+package com.finera.service.ingestion;
+
+import com.finera.dto.FileUploadResponseDto;
+
+import java.util.UUID;
+
+/**
+ * Akış modunda işlemleri parça parça yazmak için açılmış ekstre kaynağı.
+ * REUSE politikasıyla mevcut bir kaynak bulunduysa {@code existingStatement} doludur ve yazma yapılmaz.
+ */
+public record OpenedStatementSource(UUID userId, UUID periodId, int periodIndex, UUID sourceId, String sourceName,
+                                    UUID replacedSourceId,
+                                    FileUploadResponseDto existingStatement) {
+
+    public boolean isExisting() {
+        return existingStatement != null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.finera.service.ingestion;
+
+import com.finera.dto.IngestionJobResponseDto;
+import com.finera.service.ai.AiProvider;
+
+import java.util.UUID;
+
+public interface StatementIngestionService {
+
+    /**
+     * Yüklenen ekstreyi arka planda işlenmek üzere kuyruğa alır ve hemen döner.
+     * Metin çıkarma, AI analizi ve kayıt aşamaları sınırlı bir executor üzerinde çalışır.
+     *
+     * @param statement Yüklenen PDF içeriği.
+     * @param userId Dosyayı yükleyen kullanıcının ID'si.
+     * @param sourceNamePrefix Kaynak adı için isteğe bağlı önek.
+     * @param provider Kullanılacak AI sağlayıcısı.
+     * @param duplicatePolicy Aynı içerik daha önce yüklenmişse uygulanacak politika.
+     * @return QUEUED durumundaki işin bilgileri (jobId ile sorgulanabilir).
+     * @throws com.finera.exception.IngestionQueueFullException Kuyruk doluysa.
+     */
+    IngestionJobResponseDto submit(UploadedStatement statement, UUID userId, String sourceNamePrefix,
+                                   AiProvider provider, DuplicateStatementPolicy duplicatePolicy);
+
+    /**
+     * Kullanıcıya ait bir işin güncel durumunu döner.
+     *
+     * @throws com.finera.exception.ResourceNotFoundException İş bulunamazsa veya kullanıcıya ait değilse.
+     */
+    IngestionJobResponseDto getJob(UUID jobId, UUID userId);
+}
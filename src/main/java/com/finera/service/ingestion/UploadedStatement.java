@@ -0,0 +1,104 @@
+package com.finera.service.ingestion;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * HTTP isteğinden bağımsız olarak işlenebilen yüklenmiş ekstre içeriği.
+ * MultipartFile istek bittikten sonra silindiği için içerik burada ya belleğe kopyalanır ya da
+ * (düşük bellek modunda) geçici bir dosyaya aktarılır; dosya iş bitince {@link #discard()} ile silinir.
+ */
+@Slf4j
+@Getter
+public class UploadedStatement {
+
+    private final String originalFilename;
+    // Bellekteki içerik; dosya tabanlı yüklemelerde null
+    private final byte[] content;
+    // Geçici dosyadaki içerik; bellekteki yüklemelerde null
+    private final Path file;
+    private final long size;
+    // İçeriğin SHA-256 özeti; tekrar yüklemeleri ve çıkarım önbelleğini tanımak için kullanılır
+    private final String contentHash;
+
+    public UploadedStatement(String originalFilename, byte[] content) {
+        this.originalFilename = originalFilename;
+        this.content = content;
+        this.file = null;
+        this.size = content.length;
+        this.contentHash = toHex(sha256().digest(content));
+    }
+
+    private UploadedStatement(String originalFilename, Path file) throws IOException {
+        this.originalFilename = originalFilename;
+        this.content = null;
+        this.file = file;
+        this.size = Files.size(file);
+        this.contentHash = sha256Hex(file);
+    }
+
+    public static UploadedStatement from(MultipartFile file) throws IOException {
+        return new UploadedStatement(file.getOriginalFilename(), file.getBytes());
+    }
+
+    /**
+     * Yüklemeyi heap'e almadan geçici dosyaya aktarır; özet de dosyadan akışla hesaplanır.
+     */
+    public static UploadedStatement spool(MultipartFile file) throws IOException {
+        Path tempFile = Files.createTempFile("finera-statement-", ".pdf");
+        try {
+            file.transferTo(tempFile);
+            return new UploadedStatement(file.getOriginalFilename(), tempFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    public boolean isFileBacked() {
+        return file != null;
+    }
+
+    /** Geçici dosyayı siler; bellekteki yüklemeler için bir şey yapmaz. */
+    public void discard() {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled statement {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String sha256Hex(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // JDK'da her zaman bulunur
+        }
+    }
+
+    private static String toHex(byte[] hash) {
+        return HexFormat.of().formatHex(hash);
+    }
+}
@@ -0,0 +1,201 @@
+package com.finera.service.ingestion.impl;
+
+import com.finera.dto.ExtractedDataDto;
+import com.finera.dto.FileUploadResponseDto;
+import com.finera.dto.IngestionJobResponseDto;
+import com.finera.exception.DuplicateStatementException;
+import com.finera.exception.IngestionQueueFullException;
+import com.finera.exception.ResourceNotFoundException;
+import com.finera.service.PdfProcessingService;
+import com.finera.service.StatementExtractionCacheService;
+import com.finera.service.StatementPersistenceService;
+import com.finera.service.ai.AiProvider;
+import com.finera.service.ai.ExtractionResult;
+import com.finera.service.ingestion.DuplicateStatementPolicy;
+import com.finera.service.ingestion.IngestionJob;
+import com.finera.service.ingestion.IngestionJobStatus;
+import com.finera.service.ingestion.StatementIngestionService;
+import com.finera.service.ingestion.UploadedStatement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatementIngestionServiceImpl implements StatementIngestionService {
+
+    private final PdfProcessingService pdfProcessingService;
+    private final StatementPersistenceService statementPersistenceService;
+    private final StatementExtractionCacheService statementExtractionCacheService;
+    @Qualifier("statementIngestionExecutor")
+    private final TaskExecutor statementIngestionExecutor;
+    @Qualifier("aiCallExecutor")
+    private final AsyncTaskExecutor aiCallExecutor;
+
+    // Tamamlanan işler status endpoint'inden sorgulanabilsin diye bir süre bellekte tutulur
+    private final Map<UUID, IngestionJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${finera.ingestion.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    // Akış modunda işlemler AI yanıtı tamamlanmadan bu büyüklükteki gruplar halinde yazılır
+    @Value("${finera.ai.streaming.enabled:false}")
+    private boolean streamingEnabled;
+
+    @Value("${finera.ai.streaming.persist-batch-size:50}")
+    private int streamingBatchSize;
+
+    @Override
+    public IngestionJobResponseDto submit(UploadedStatement statement, UUID userId, String sourceNamePrefix,
+                                          AiProvider provider, DuplicateStatementPolicy duplicatePolicy) {
+        evictExpiredJobs();
+
+        IngestionJob job = new IngestionJob(userId, statement.getOriginalFilename(), provider);
+        jobs.put(job.getJobId(), job);
+        try {
+            startPipeline(job, statement, sourceNamePrefix, duplicatePolicy);
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getJobId());
+            statement.discard();
+            log.warn("Ingestion queue is full, rejecting statement {} for user {}", statement.getOriginalFilename(), userId);
+            throw new IngestionQueueFullException("Statement processing queue is full. Please try again later.");
+        }
+        log.info("Queued ingestion job {} for user {} ({} bytes, provider {})",
+                job.getJobId(), userId, statement.getSize(), provider);
+        return job.toResponseDto();
+    }
+
+    @Override
+    public IngestionJobResponseDto getJob(UUID jobId, UUID userId) {
+        IngestionJob job = jobs.get(jobId);
+        if (job == null || !job.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Ingestion job not found with id: " + jobId);
+        }
+        return job.toResponseDto();
+    }
+
+    /**
+     * extract -> AI -> persist aşamalarını zincirler. PDF okuma sınırlı ingestion havuzunda,
+     * bloklayan AI çağrısı ve ardından gelen kısa kayıt aşaması aiCallExecutor üzerinde çalışır.
+     * Aynı içerik daha önce yüklenmişse veya çıkarımı önbellekte varsa PDF okuma ve AI çağrısı atlanır.
+     */
+    private void startPipeline(IngestionJob job, UploadedStatement statement, String sourceNamePrefix,
+                               DuplicateStatementPolicy duplicatePolicy) {
+        CompletableFuture
+                .supplyAsync(() -> {
+                    log.info("Starting ingestion job {} for user {}", job.getJobId(), job.getUserId());
+
+                    // 1) Kullanıcı bu dosyayı zaten yüklemiş mi? (REPLACE'te eski kaynak yeni ekstre kaydedilirken, aynı transaction'da silinir)
+                    if (duplicatePolicy != DuplicateStatementPolicy.REPLACE) {
+                        Optional<FileUploadResponseDto> existing = statementPersistenceService
+                                .findExistingStatement(job.getUserId(), statement.getContentHash());
+                        if (existing.isPresent()) {
+                            if (duplicatePolicy == DuplicateStatementPolicy.REJECT) {
+                                throw new DuplicateStatementException("This statement was already uploaded as '"
+                                        + existing.get().getSourceName() + "'.");
+                            }
+                            log.info("Ingestion job {}: statement already uploaded, reusing source {}",
+                                    job.getJobId(), existing.get().getSourceName());
+                            return CompletableFuture.completedFuture(existing.get());
+                        }
+                    }
+
+                    // 2) Aynı içerik (başka bir kullanıcı tarafından da olabilir) istenen sağlayıcıyla daha önce çıkarılmış mı?
+                    Optional<ExtractedDataDto> cached = statementExtractionCacheService.find(statement.getContentHash(), job.getProvider());
+                    if (cached.isPresent()) {
+                        log.info("Ingestion job {}: extraction cache hit, skipping PDF parsing and AI call", job.getJobId());
+                        return CompletableFuture.completedFuture(persist(job, statement, sourceNamePrefix, duplicatePolicy,
+                                cached.get(), "File processed successfully using cached extraction"));
+                    }
+
+                    // 3) Önbellekte yok: metni çıkar, AI çağrısını aiCallExecutor'a devret
+                    job.moveTo(IngestionJobStatus.EXTRACTING_TEXT);
+                    String statementText = pdfProcessingService.extractStatementText(statement, job.getUserId());
+                    return CompletableFuture.supplyAsync(() -> {
+                        job.moveTo(IngestionJobStatus.AI_PROCESSING);
+                        if (streamingEnabled) {
+                            return streamAndPersist(job, statement, statementText, sourceNamePrefix, duplicatePolicy);
+                        }
+                        ExtractionResult extraction = pdfProcessingService.extractStatementData(statementText, job.getProvider());
+                        statementExtractionCacheService.store(statement.getContentHash(), extraction.producedBy(), extraction.extractedData());
+                        return persist(job, statement, sourceNamePrefix, duplicatePolicy,
+                                extraction.extractedData(), "File processed successfully using " + extraction.producedBy());
+                    }, aiCallExecutor);
+                }, statementIngestionExecutor)
+                .thenCompose(Function.identity())
+                .whenComplete((result, error) -> {
+                    // Geçici dosyaya aktarılmış yükleme artık gerekmiyor
+                    statement.discard();
+                    if (error == null) {
+                        job.complete(result);
+                        log.info("Ingestion job {} completed. Saved {} transactions into source {}.",
+                                job.getJobId(), result.getTransactionCount(), result.getSourceName());
+                        return;
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    log.error("Ingestion job {} failed: {}", job.getJobId(), cause.getMessage(), cause);
+                    job.fail("Error processing file: " + cause.getMessage());
+                });
+    }
+
+    private FileUploadResponseDto persist(IngestionJob job, UploadedStatement statement, String sourceNamePrefix,
+                                          DuplicateStatementPolicy duplicatePolicy, ExtractedDataDto extractedData,
+                                          String successMessage) {
+        job.moveTo(IngestionJobStatus.PERSISTING);
+        FileUploadResponseDto result = statementPersistenceService.persistStatement(
+                job.getUserId(), extractedData, statement.getOriginalFilename(), sourceNamePrefix,
+                statement.getContentHash(), duplicatePolicy);
+        if (result.getMessage() == null) {
+            result.setMessage(successMessage);
+        }
+        return result;
+    }
+
+    /**
+     * Akış modu: AI yanıtı geldikçe işlemler küçük gruplar halinde kaydedilir.
+     * Akış yarıda kalırsa açılan kaynak ve yazılan işlemler silinir.
+     */
+    private FileUploadResponseDto streamAndPersist(IngestionJob job, UploadedStatement statement, String statementText,
+                                                   String sourceNamePrefix, DuplicateStatementPolicy duplicatePolicy) {
+        StreamingStatementWriter writer = new StreamingStatementWriter(statementPersistenceService, job.getUserId(),
+                statement, sourceNamePrefix, duplicatePolicy, streamingBatchSize);
+        FileUploadResponseDto result;
+        String producedBy;
+        try {
+            producedBy = pdfProcessingService.streamStatementData(statementText, job.getProvider(), writer);
+            result = writer.complete();
+        } catch (RuntimeException e) {
+            try {
+                writer.abort();
+            } catch (RuntimeException abortError) {
+                e.addSuppressed(abortError);
+            }
+            throw e;
+        }
+        statementExtractionCacheService.store(statement.getContentHash(), producedBy, writer.extractedData());
+        if (result.getMessage() == null) {
+            result.setMessage("File processed successfully using " + producedBy + " (streaming)");
+        }
+        return result;
+    }
+
+    private void evictExpiredJobs() {
+        OffsetDateTime threshold = OffsetDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getUpdatedAt().isBefore(threshold));
+    }
+}
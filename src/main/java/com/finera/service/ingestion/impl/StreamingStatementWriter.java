@@ -0,0 +1,117 @@
+package com.finera.service.ingestion.impl;
+
+import com.finera.dto.ExtractedDataDto;
+import com.finera.dto.FileUploadResponseDto;
+import com.finera.dto.TransactionDto;
+import com.finera.exception.AiProcessingException;
+import com.finera.service.StatementPersistenceService;
+import com.finera.service.ai.StreamingExtractionListener;
+import com.finera.service.ingestion.DuplicateStatementPolicy;
+import com.finera.service.ingestion.OpenedStatementSource;
+import com.finera.service.ingestion.UploadedStatement;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Akış modunda AI'dan gelen işlemleri küçük gruplar halinde kaydeden listener.
+ * Dönem bilgisi gelince kaynak açılır; o ana kadar gelen işlemler bekletilir.
+ * Tek bir ingestion işine aittir ve thread-safe değildir.
+ */
+@Slf4j
+class StreamingStatementWriter implements StreamingExtractionListener {
+
+    private final StatementPersistenceService persistenceService;
+    private final UUID userId;
+    private final UploadedStatement statement;
+    private final String sourceNamePrefix;
+    private final DuplicateStatementPolicy duplicatePolicy;
+    private final int batchSize;
+
+    private final List<TransactionDto> pending = new ArrayList<>();
+    // Çıkarım önbelleği için tüm işlemler (DTO'lar küçük; ham yanıt tutulmaz)
+    private final List<TransactionDto> allTransactions = new ArrayList<>();
+    private OpenedStatementSource source;
+    private int periodYear;
+    private int periodMonth;
+    private int savedCount;
+    private long firstRowNanos;
+    private final long startedNanos = System.nanoTime();
+
+    StreamingStatementWriter(StatementPersistenceService persistenceService, UUID userId, UploadedStatement statement,
+                             String sourceNamePrefix, DuplicateStatementPolicy duplicatePolicy, int batchSize) {
+        this.persistenceService = persistenceService;
+        this.userId = userId;
+        this.statement = statement;
+        this.sourceNamePrefix = sourceNamePrefix;
+        this.duplicatePolicy = duplicatePolicy;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void onPeriod(int periodYear, int periodMonth) {
+        this.periodYear = periodYear;
+        this.periodMonth = periodMonth;
+        source = persistenceService.openStatementSource(userId, periodYear, periodMonth,
+                statement.getOriginalFilename(), sourceNamePrefix, statement.getContentHash(), duplicatePolicy);
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void onTransaction(TransactionDto transaction) {
+        allTransactions.add(transaction);
+        pending.add(transaction);
+        if (source != null && pending.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Kalan işlemleri yazar ve sonucu döndürür.
+     */
+    FileUploadResponseDto complete() {
+        if (source == null) {
+            throw new AiProcessingException("AI response did not contain a statement period.");
+        }
+        flush();
+        if (source.isExisting()) {
+            return source.existingStatement();
+        }
+        persistenceService.completeStatementSource(source);
+        log.info("Streamed {} transactions into source {} (first row after {} ms, total {} ms)",
+                savedCount, source.sourceId(), firstRowNanos == 0 ? -1 : (firstRowNanos - startedNanos) / 1_000_000,
+                (System.nanoTime() - startedNanos) / 1_000_000);
+        return new FileUploadResponseDto(null, source.sourceName(), savedCount);
+    }
+
+    /**
+     * Akış yarıda kalırsa o ana kadar yazılanları geri alır.
+     */
+    void abort() {
+        if (source != null) {
+            persistenceService.discardStatementSource(source);
+        }
+    }
+
+    ExtractedDataDto extractedData() {
+        return new ExtractedDataDto(periodYear, periodMonth, allTransactions);
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // REUSE ile mevcut kaynak kullanılıyorsa yazılacak bir şey yok
+        if (!source.isExisting()) {
+            savedCount += persistenceService.appendTransactions(source, List.copyOf(pending));
+            if (firstRowNanos == 0) {
+                firstRowNanos = System.nanoTime();
+            }
+        }
+        pending.clear();
+    }
+}
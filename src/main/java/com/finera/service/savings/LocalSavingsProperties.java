@@ -0,0 +1,24 @@
+package com.finera.service.savings;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Yerel tasarruf optimizasyonu ayarları (finera.savings.local.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "finera.savings.local")
+public class LocalSavingsProperties {
+
+    /**
+     * Kategori esnekliği (0 = dokunulmaz, 1 = tamamen kısılabilir). Anahtar, kategori adında aranan
+     * kelimedir (Türkçe küçük harf), ör. finera.savings.local.flexibility[kira]=0.05.
+     */
+    private Map<String, Double> flexibility = new LinkedHashMap<>();
+
+    /** Hiçbir anahtar kelimeyle eşleşmeyen kategorilerin esnekliği. */
+    private double defaultFlexibility = 0.5;
+}
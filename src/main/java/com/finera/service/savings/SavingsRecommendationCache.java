@@ -0,0 +1,110 @@
+package com.finera.service.savings;
+
+import com.finera.dto.SavingsRecommendationDto;
+import com.finera.dto.SpendingCategoryDto;
+import com.finera.service.ai.AiProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tasarruf önerilerini sağlayıcı + normalize harcama profili anahtarıyla bellekte tutar.
+ * Ön yüz her sayfa görüntülemesinde aynı isteği tekrarladığı için aynı profile LLM tekrar çağrılmaz.
+ * Kayıtlar TTL sonunda geçersiz olur; kapasite dolunca en uzun süredir kullanılmayan atılır (LRU).
+ */
+@Slf4j
+@Component
+public class SavingsRecommendationCache {
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+
+    private record Entry(List<SavingsRecommendationDto> recommendations, long expiresAt) {
+    }
+
+    private final Map<String, Entry> entries;
+    private final long ttlMillis;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public SavingsRecommendationCache(@Value("${finera.savings.cache.max-entries:1000}") int maxEntries,
+                                      @Value("${finera.savings.cache.ttl-minutes:60}") long ttlMinutes) {
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        // Erişim sıralı LinkedHashMap: en uzun süredir kullanılmayan kayıt atılır (LRU)
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public Optional<List<SavingsRecommendationDto>> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiresAt() < System.currentTimeMillis()) {
+            if (entry != null) {
+                entries.remove(key);
+            }
+            long missCount = misses.incrementAndGet();
+            log.debug("Savings recommendation cache miss for {} (hits {}, misses {})", key, hits.get(), missCount);
+            return Optional.empty();
+        }
+        long hitCount = hits.incrementAndGet();
+        log.info("Savings recommendation cache hit for {} (hit rate {}/{})", key, hitCount, hitCount + misses.get());
+        return Optional.of(entry.recommendations());
+    }
+
+    public void put(String key, List<SavingsRecommendationDto> recommendations) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        entries.put(key, new Entry(List.copyOf(recommendations), System.currentTimeMillis() + ttlMillis));
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Sağlayıcı, tam TL'ye yuvarlanmış hedef ve kategori adına göre sıralanmış harcamalardan anahtar üretir.
+     * Kategori adları Türkçe küçük harfe çevrilir; aynı kategori birden fazla kez gelirse tutarları toplanır.
+     */
+    public static String key(AiProvider provider, BigDecimal desiredSavings, List<SpendingCategoryDto> currentSpending) {
+        Map<String, BigDecimal> spendingByCategory = new TreeMap<>();
+        for (SpendingCategoryDto spending : currentSpending) {
+            String categoryName = spending.getCategoryName() != null ? spending.getCategoryName().trim().toLowerCase(TURKISH) : "";
+            BigDecimal amount = spending.getAmount() != null ? spending.getAmount() : BigDecimal.ZERO;
+            spendingByCategory.merge(categoryName, amount, BigDecimal::add);
+        }
+
+        StringBuilder canonical = new StringBuilder();
+        canonical.append(desiredSavings.setScale(0, RoundingMode.HALF_UP).toPlainString());
+        spendingByCategory.forEach((categoryName, amount) -> canonical.append('\n').append(categoryName)
+                .append('=').append(amount.setScale(2, RoundingMode.HALF_UP).toPlainString()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return provider.name() + ":" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // JDK'da her zaman bulunur
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.finera.service.template;
+
+import com.finera.dto.ExtractedDataDto;
+import com.finera.dto.TransactionDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Kurum işareti, işlem kalıbı ve isteğe bağlı dönem kalıbıyla tanımlanan regex şablonu.
+ * Temizlenmiş metinde satır sonu olmadığından işlem kalıbı metin boyunca art arda aranır.
+ */
+public class RegexStatementTemplateParser implements StatementTemplateParser {
+
+    private final String name;
+    private final Pattern institutionPattern;
+    private final Pattern transactionPattern;
+    private final Pattern periodPattern;
+    private final DateTimeFormatter dateFormatter;
+    // Güven hesabı için işlem satırı adayları: şablonun kendi tarih biçimindeki tarihler
+    private final Pattern dateCandidatePattern;
+    private final boolean decimalComma;
+    private final boolean negateAmounts;
+
+    public RegexStatementTemplateParser(StatementTemplateProperties.Template template) {
+        this.name = template.getName();
+        this.institutionPattern = Pattern.compile(template.getInstitutionPattern(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        this.transactionPattern = Pattern.compile(template.getTransactionPattern());
+        this.periodPattern = template.getPeriodPattern() != null ? Pattern.compile(template.getPeriodPattern()) : null;
+        this.dateFormatter = DateTimeFormatter.ofPattern(template.getDateFormat());
+        this.dateCandidatePattern = dateCandidatePattern(template.getDateFormat());
+        this.decimalComma = template.isDecimalComma();
+        this.negateAmounts = template.isNegateAmounts();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Optional<TemplateMatch> parse(String statementText) {
+        if (!institutionPattern.matcher(statementText).find()) {
+            return Optional.empty();
+        }
+
+        List<TransactionDto> transactions = new ArrayList<>();
+        int tableStart = -1;
+        int tableEnd = -1;
+        Matcher matcher = transactionPattern.matcher(statementText);
+        while (matcher.find()) {
+            if (tableStart < 0) {
+                tableStart = matcher.start();
+            }
+            tableEnd = matcher.end();
+            try {
+                LocalDate date = LocalDate.parse(matcher.group("date"), dateFormatter);
+                BigDecimal amount = parseAmount(matcher.group("amount"));
+                transactions.add(new TransactionDto(date, matcher.group("description").trim(),
+                        negateAmounts ? amount.negate() : amount, null));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                // Kalıba uyan ama çözülemeyen satır: güveni düşürür, AI'a düşülmesine yol açabilir
+            }
+        }
+        if (transactions.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int[] period = findPeriod(statementText, transactions);
+        long candidates = countRowCandidates(statementText, tableStart, tableEnd);
+        double confidence = candidates == 0 ? 0 : Math.min(1.0, (double) transactions.size() / candidates);
+        return Optional.of(new TemplateMatch(new ExtractedDataDto(period[0], period[1], transactions), confidence));
+    }
+
+    /**
+     * İşlem tablosundaki (ilk ve son eşleşen satır arası) satır başı adaylarını sayar.
+     * Temizlenmiş metinde satır sonu kalmadığı için satır başı, önünde başka bir tarih olmayan tarihtir:
+     * iki tarihli satırlarda (işlem + valör) ikinci tarih ayrı satır sayılmaz. Tablo dışındaki
+     * hesap kesim / son ödeme gibi başlık tarihleri sayılmaz; tablo içinde çözülemeyen satırlar güveni düşürür.
+     */
+    private long countRowCandidates(String statementText, int tableStart, int tableEnd) {
+        Matcher matcher = dateCandidatePattern.matcher(statementText).region(tableStart, tableEnd);
+        long candidates = 0;
+        int previousDateEnd = -1;
+        while (matcher.find()) {
+            boolean followsDate = previousDateEnd >= 0 && statementText.substring(previousDateEnd, matcher.start()).isBlank();
+            if (!followsDate) {
+                candidates++;
+            }
+            previousDateEnd = matcher.end();
+        }
+        return candidates;
+    }
+
+    private int[] findPeriod(String statementText, List<TransactionDto> transactions) {
+        if (periodPattern != null) {
+            Matcher matcher = periodPattern.matcher(statementText);
+            if (matcher.find()) {
+                return new int[]{Integer.parseInt(matcher.group("year")), Integer.parseInt(matcher.group("month"))};
+            }
+        }
+        // Dönem kalıbı yoksa en son işlem tarihinin ayı kullanılır
+        LocalDate latest = transactions.stream().map(TransactionDto::getDate).max(Comparator.naturalOrder()).orElseThrow();
+        return new int[]{latest.getYear(), latest.getMonthValue()};
+    }
+
+    /**
+     * DateTimeFormatter biçimini (ör. dd.MM.yyyy, d/M/yy) tarih adaylarını bulan bir regex'e çevirir.
+     */
+    static Pattern dateCandidatePattern(String dateFormat) {
+        StringBuilder regex = new StringBuilder("(?<!\\d)");
+        int i = 0;
+        while (i < dateFormat.length()) {
+            char c = dateFormat.charAt(i);
+            if (c == '\'') {
+                int end = dateFormat.indexOf('\'', i + 1);
+                end = end < 0 ? dateFormat.length() : end;
+                regex.append(Pattern.quote(dateFormat.substring(i + 1, end)));
+                i = end + 1;
+                continue;
+            }
+            int run = 1;
+            while (i + run < dateFormat.length() && dateFormat.charAt(i + run) == c) {
+                run++;
+            }
+            regex.append(switch (c) {
+                case 'y', 'u' -> run == 2 ? "\\d{2}" : "\\d{4}";
+                case 'd', 'M', 'L' -> c != 'd' && run >= 3 ? "\\p{L}+\\.?" : run == 1 ? "\\d{1,2}" : "\\d{2}";
+                default -> Character.isLetter(c) ? "\\p{L}+" : Pattern.quote(String.valueOf(c).repeat(run));
+            });
+            i += run;
+        }
+        return Pattern.compile(regex.append("(?!\\d)").toString());
+    }
+
+    private BigDecimal parseAmount(String raw) {
+        String value = raw.replace(" ", "");
+        if (decimalComma) {
+            value = value.replace(".", "").replace(',', '.');
+        } else {
+            value = value.replace(",", "");
+        }
+        return new BigDecimal(value);
+    }
+}
@@ -0,0 +1,21 @@
+package com.finera.service.template;
+
+import java.util.Optional;
+
+/**
+ * Belirli bir kurumun ekstre düzenini AI'a gitmeden yerel olarak ayrıştıran şablon.
+ * Spring bean'i olarak tanımlanan her implementasyon {@link StatementTemplateRegistry}'ye otomatik eklenir.
+ */
+public interface StatementTemplateParser {
+
+    /** Log ve metrikler için şablon adı (ör. kurum adı). */
+    String getName();
+
+    /**
+     * Metin bu şablona uyuyorsa ayrıştırılmış sonucu döndürür.
+     *
+     * @param statementText Temizlenmiş ekstre metni.
+     * @return Şablon uymuyorsa Optional.empty().
+     */
+    Optional<TemplateMatch> parse(String statementText);
+}
@@ -0,0 +1,39 @@
+package com.finera.service.template;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * application.properties üzerinden tanımlanan regex şablonları (finera.extraction.templates.*).
+ * Her şablon bir {@link RegexStatementTemplateParser}'a dönüşür.
+ */
+@Data
+@ConfigurationProperties(prefix = "finera.extraction")
+public class StatementTemplateProperties {
+
+    // Bu güvenin altındaki eşleşmeler yok sayılır ve AI'a gidilir
+    private double minConfidence = 0.9;
+
+    private List<Template> templates = new ArrayList<>();
+
+    @Data
+    public static class Template {
+        /** Şablon adı (ör. "ornek-banka-kredi-karti"). */
+        private String name;
+        /** Metinde bulunması gereken kurum işareti (regex). */
+        private String institutionPattern;
+        /** İşlem satırı: "date", "description" ve "amount" isimli grupları içermeli. */
+        private String transactionPattern;
+        /** İsteğe bağlı dönem kalıbı: "year" ve "month" isimli grupları içermeli. Yoksa son işlem tarihinden alınır. */
+        private String periodPattern;
+        /** Tarih biçimi (java.time DateTimeFormatter). */
+        private String dateFormat = "dd.MM.yyyy";
+        /** Tutarlar Türkçe biçimde mi (1.234,56)? */
+        private boolean decimalComma = true;
+        /** Ekstrede harcamalar pozitif yazılıyorsa işareti ters çevir. */
+        private boolean negateAmounts = false;
+    }
+}
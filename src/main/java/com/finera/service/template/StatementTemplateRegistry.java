@@ -0,0 +1,101 @@
+package com.finera.service.template;
+
+import com.finera.dto.ExtractedDataDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI'dan önce denenen yerel ekstre şablonları.
+ * Bean olarak tanımlanan {@link StatementTemplateParser}'lar ve properties'deki regex şablonları sırayla denenir;
+ * güveni yeterli ilk eşleşme kullanılır. İsabet oranı ve AI'a gidilmediği için kazanılan süre izlenir.
+ */
+@Slf4j
+@Component
+public class StatementTemplateRegistry {
+
+    private final List<StatementTemplateParser> parsers = new ArrayList<>();
+    private final double minConfidence;
+
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong templateNanos = new AtomicLong();
+    private final AtomicLong aiCalls = new AtomicLong();
+    private final AtomicLong aiNanos = new AtomicLong();
+
+    public StatementTemplateRegistry(ObjectProvider<StatementTemplateParser> parserBeans, StatementTemplateProperties properties) {
+        parserBeans.orderedStream().forEach(parsers::add);
+        properties.getTemplates().forEach(template -> parsers.add(new RegexStatementTemplateParser(template)));
+        this.minConfidence = properties.getMinConfidence();
+        log.info("Statement template registry initialized with {} templates (min confidence {})", parsers.size(), minConfidence);
+    }
+
+    /**
+     * Metni kayıtlı şablonlarla ayrıştırmayı dener.
+     *
+     * @return Güveni yeterli bir şablon eşleştiyse çıkarılan veri, yoksa Optional.empty() (AI kullanılmalı).
+     */
+    public Optional<ExtractedDataDto> tryMatch(String statementText) {
+        if (parsers.isEmpty()) {
+            return Optional.empty();
+        }
+        attempts.incrementAndGet();
+        long started = System.nanoTime();
+        try {
+            for (StatementTemplateParser parser : parsers) {
+                Optional<TemplateMatch> match = parser.parse(statementText);
+                if (match.isEmpty()) {
+                    continue;
+                }
+                if (match.get().confidence() < minConfidence) {
+                    log.info("Template '{}' matched with low confidence {}, falling back to AI",
+                            parser.getName(), String.format("%.2f", match.get().confidence()));
+                    continue;
+                }
+                long elapsed = System.nanoTime() - started;
+                hits.incrementAndGet();
+                templateNanos.addAndGet(elapsed);
+                ExtractedDataDto extractedData = match.get().extractedData();
+                log.info("Template '{}' extracted {} transactions in {} ms (confidence {}). Hit rate {}/{}, AI time saved so far ~{} ms",
+                        parser.getName(), extractedData.getTransactions().size(), elapsed / 1_000_000,
+                        String.format("%.2f", match.get().confidence()), hits.get(), attempts.get(), estimatedSavedMillis());
+                return Optional.of(extractedData);
+            }
+            return Optional.empty();
+        } catch (RuntimeException e) {
+            // Hatalı bir şablon yüklemeyi bozmamalı; AI yoluna düş
+            log.warn("Statement template parsing failed, falling back to AI: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Şablonla çözülemeyen bir ekstrenin AI çıkarım süresini kaydeder (kazanılan süre tahmini için).
+     */
+    public void recordAiExtraction(long elapsedNanos) {
+        aiCalls.incrementAndGet();
+        aiNanos.addAndGet(elapsedNanos);
+    }
+
+    public double getHitRate() {
+        long total = attempts.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    // Ortalama AI süresi ile ortalama şablon süresi farkı x isabet sayısı
+    public long estimatedSavedMillis() {
+        long calls = aiCalls.get();
+        long hitCount = hits.get();
+        if (calls == 0 || hitCount == 0) {
+            return 0;
+        }
+        long avgAiNanos = aiNanos.get() / calls;
+        long avgTemplateNanos = templateNanos.get() / hitCount;
+        return Math.max(0, (avgAiNanos - avgTemplateNanos) * hitCount / 1_000_000);
+    }
+}
@@ -0,0 +1,12 @@
+package com.finera.service.template;
+
+import com.finera.dto.ExtractedDataDto;
+
+/**
+ * Bir şablonun ayrıştırma sonucu.
+ *
+ * @param extractedData Ayrıştırılan dönem ve işlemler (kategoriler boş gelir).
+ * @param confidence    0-1 arası güven; metindeki işlem adaylarının ne kadarının şablonla eşleştiği.
+ */
+public record TemplateMatch(ExtractedDataDto extractedData, double confidence) {
+}
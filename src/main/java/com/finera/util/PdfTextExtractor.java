@@ -1,28 +1,67 @@
 package com.finera.util;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j; // Loglama için
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.regex.Pattern;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 @Component
 @Slf4j // Loglama ekleyelim
+@RequiredArgsConstructor
 public class PdfTextExtractor {
 
-    // Kontrol karakterlerini temizlemek için Regex Pattern'i
-    private static final Pattern CONTROL_CHARS_PATTERN = Pattern.compile("[\\p{Cc}\\p{Cf}\\p{Zl}\\p{Zp}]");
+    // Sayfa aralıklarını paralel çözmek için fork-join havuzu (ExecutorConfiguration)
+    @Qualifier("pdfExtractionPool")
+    private final ForkJoinPool pdfExtractionPool;
+
+    // Düşük bellek modu: PDFBox akış önbelleği heap yerine geçici dosyada tutulur,
+    // MultipartFile içeriği de belleğe kopyalanmadan geçici dosyadan okunur
+    @Value("${finera.pdf.low-memory:false}")
+    private boolean lowMemory;
+
+    // Bu sayfa sayısının altındaki PDF'ler tek thread'de çözülür; paralel başlatma maliyetine değmez
+    @Value("${finera.pdf.parallel.enabled:true}")
+    private boolean parallelEnabled;
+    @Value("${finera.pdf.parallel.min-pages:20}")
+    private int parallelMinPages;
+    @Value("${finera.pdf.parallel.pages-per-range:8}")
+    private int pagesPerRange;
 
     public String extractText(MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File is null or empty");
         }
 
+        if (lowMemory) {
+            Path tempFile = Files.createTempFile("finera-statement-", ".pdf");
+            try {
+                file.transferTo(tempFile);
+                return extractText(tempFile.toFile(), file.getOriginalFilename());
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+
         byte[] pdfBytes;
         try (InputStream inputStream = file.getInputStream()) {
             pdfBytes = inputStream.readAllBytes();
@@ -30,50 +69,129 @@ public class PdfTextExtractor {
             log.error("Failed to read input stream from file: {}", file.getOriginalFilename(), e);
             throw new IOException("Failed to read input stream from file: " + e.getMessage(), e);
         }
+        return extractText(pdfBytes, file.getOriginalFilename());
+    }
+
+    public String extractText(byte[] pdfBytes, String fileName) throws IOException {
+        if (pdfBytes == null || pdfBytes.length == 0) {
+            throw new IllegalArgumentException("File is null or empty");
+        }
+        // byte[] kopyalanmaz; PDFBox diziyi doğrudan sarar
+        return extractText(fileName, pdfBytes.length,
+                () -> Loader.loadPDF(pdfBytes, "", null, null, streamCache()));
+    }
+
+    public String extractText(File pdfFile, String fileName) throws IOException {
+        if (pdfFile == null || pdfFile.length() == 0) {
+            throw new IllegalArgumentException("File is null or empty");
+        }
+        // Dosya rastgele erişimle okunur; içerik heap'e alınmaz
+        return extractText(fileName, pdfFile.length(), () -> Loader.loadPDF(pdfFile, streamCache()));
+    }
+
+    private String extractText(String fileName, long inputSize, DocumentLoader loader) throws IOException {
+        long allocatedBefore = currentThreadAllocatedBytes();
 
-        String rawText;
-        try (PDDocument document = Loader.loadPDF(pdfBytes)) {
+        WhitespaceNormalizingWriter writer;
+        try (PDDocument document = loader.load()) {
             if (!document.isEncrypted()) {
-                PDFTextStripper stripper = new PDFTextStripper();
-                // İsteğe bağlı: Tablo yapısını korumak için deneyebilirsiniz
-                // stripper.setSortByPosition(true);
-                rawText = stripper.getText(document);
+                int pageCount = document.getNumberOfPages();
+                if (parallelEnabled && pageCount >= parallelMinPages && pageCount > pagesPerRange) {
+                    writer = extractPagesInParallel(loader, pageCount, fileName);
+                } else {
+                    // Metin sayfa sayfa yazılır ve yazılırken temizlenir (ham metin ayrıca tutulmaz)
+                    writer = new WhitespaceNormalizingWriter((int) Math.min(inputSize, 1 << 20));
+                    stripPages(document, 1, pageCount, writer);
+                }
             } else {
                 throw new IOException("Cannot process encrypted PDF without password.");
             }
         } catch (Exception e) {
-            log.error("Failed to parse PDF content for file: {}", file.getOriginalFilename(), e);
+            log.error("Failed to parse PDF content for file: {}", fileName, e);
             throw new IOException("Failed to parse PDF content: " + e.getMessage(), e);
         }
 
-        // Metin çıkarma sonrası TEMİZLEME işlemini burada yap
-        String cleanedText = cleanRawText(rawText);
-        log.info("Extracted and cleaned text from {}. Original length: {}, Cleaned length: {}",
-                file.getOriginalFilename(), rawText.length(), cleanedText.length());
+        String cleanedText = writer.text();
+        long allocatedBytes = currentThreadAllocatedBytes() - allocatedBefore;
+        log.info("Extracted and cleaned text from {}. Original length: {}, Cleaned length: {}, heap allocated: {} KB (low-memory: {})",
+                fileName, writer.rawLength(), cleanedText.length(), allocatedBytes / 1024, lowMemory);
         return cleanedText;
     }
 
     /**
-     * PDF'ten çıkarılan ham metindeki olası sorunlu karakterleri temizler.
+     * Belgeyi sayfa aralıklarına böler, aralıkları fork-join havuzunda çözer ve sırayla birleştirir.
+     * PDDocument thread-safe olmadığından her aralık belgeyi kendi kopyası üzerinden okur.
      */
-    private String cleanRawText(String text) {
-        if (text == null || text.isEmpty()) {
-            return "";
+    private WhitespaceNormalizingWriter extractPagesInParallel(DocumentLoader loader, int pageCount, String fileName)
+            throws IOException {
+        int rangeSize = Math.max(1, pagesPerRange);
+        List<int[]> ranges = new ArrayList<>();
+        for (int start = 1; start <= pageCount; start += rangeSize) {
+            ranges.add(new int[]{start, Math.min(start + rangeSize - 1, pageCount)});
         }
-        log.debug("Cleaning raw text (first 100 chars): {}", text.substring(0, Math.min(text.length(), 100)).replace('\n',' '));
+        log.debug("Extracting {} pages of {} in {} parallel ranges", pageCount, fileName, ranges.size());
 
-        // 1. Görünmeyen kontrol ve format karakterlerini kaldır
-        String cleaned = CONTROL_CHARS_PATTERN.matcher(text).replaceAll(" "); // Boşlukla değiştir ki kelimeler birleşmesin
+        List<WhitespaceNormalizingWriter> parts;
+        try {
+            // Paralel stream verilen havuzda çalışır; toList sırayı korur
+            parts = pdfExtractionPool.submit(() -> ranges.parallelStream()
+                    .map(range -> stripRange(loader, range[0], range[1]))
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("PDF extraction was interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException unchecked ? unchecked.getCause() : e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+
+        WhitespaceNormalizingWriter merged = new WhitespaceNormalizingWriter(
+                parts.stream().mapToInt(part -> part.length() + 1).sum());
+        for (WhitespaceNormalizingWriter part : parts) {
+            merged.append(part);
+        }
+        return merged;
+    }
+
+    private WhitespaceNormalizingWriter stripRange(DocumentLoader loader, int startPage, int endPage) {
+        try (PDDocument document = loader.load()) {
+            WhitespaceNormalizingWriter writer = new WhitespaceNormalizingWriter(4096);
+            stripPages(document, startPage, endPage, writer);
+            return writer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        // 2. Birden fazla boşluğu tek boşluğa indirge ve satır başı/sonu boşlukları temizle
-        cleaned = cleaned.replaceAll("\\s+", " ").trim();
+    private static void stripPages(PDDocument document, int startPage, int endPage, WhitespaceNormalizingWriter writer)
+            throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        // İsteğe bağlı: Tablo yapısını korumak için deneyebilirsiniz
+        // stripper.setSortByPosition(true);
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+        stripper.writeText(document, writer);
+    }
 
-        // 3. JSON yapısını bozabilecek karakterleri değiştirme (Yorumda bırakıldı - Riskli)
-        // cleaned = cleaned.replace("{", "[_ocb_]");
-        // cleaned = cleaned.replace("}", "[_ccb_]");
-        // cleaned = cleaned.replace("`", "'");
+    private StreamCacheCreateFunction streamCache() {
+        return lowMemory ? IOUtils.createTempFileOnlyStreamCache() : IOUtils.createMemoryOnlyStreamCache();
+    }
+
+    // Yükleme başına heap tahsisini ölçmek için (JVM desteklemiyorsa 0 loglanır)
+    private static long currentThreadAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean sunThreadMXBean
+                && sunThreadMXBean.isThreadAllocatedMemorySupported()) {
+            return sunThreadMXBean.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
 
-        log.debug("Cleaned text (first 100 chars): {}", cleaned.substring(0, Math.min(cleaned.length(), 100)));
-        return cleaned;
+    @FunctionalInterface
+    private interface DocumentLoader {
+        PDDocument load() throws IOException;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package com.finera.util;
+
+import java.io.Writer;
+
+/**
+ * PDFTextStripper çıktısını tek geçişte temizleyen Writer.
+ * Kontrol/format karakterleri ve tüm boşluk dizileri tek bir boşluğa indirgenir, baştaki ve sondaki boşluklar atılır;
+ * böylece ham metnin tamamı ve regex ara kopyaları bellekte hiç oluşmaz.
+ */
+class WhitespaceNormalizingWriter extends Writer {
+
+    private final StringBuilder out;
+    private long rawLength;
+    private boolean pendingSpace;
+    private char pendingHighSurrogate;
+
+    WhitespaceNormalizingWriter(int initialCapacity) {
+        this.out = new StringBuilder(initialCapacity);
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+        rawLength += length;
+        for (int i = offset; i < offset + length; i++) {
+            char c = buffer[i];
+            if (pendingHighSurrogate != 0) {
+                char high = pendingHighSurrogate;
+                pendingHighSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    int codePoint = Character.toCodePoint(high, c);
+                    if (isSeparator(codePoint)) {
+                        pendingSpace = true;
+                    } else {
+                        appendVisible(high);
+                        out.append(c);
+                    }
+                    continue;
+                }
+                appendVisible(high);
+            }
+            if (Character.isHighSurrogate(c)) {
+                pendingHighSurrogate = c;
+            } else if (isSeparator(c)) {
+                pendingSpace = true;
+            } else {
+                appendVisible(c);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /** Temizlenmiş metin. */
+    String text() {
+        if (pendingHighSurrogate != 0) {
+            appendVisible(pendingHighSurrogate);
+            pendingHighSurrogate = 0;
+        }
+        return out.toString();
+    }
+
+    /**
+     * Ayrı temizlenmiş bir parçayı (ör. paralel çözülen bir sayfa aralığı) sona ekler.
+     * Parçalar arasına tek bir boşluk konur; sonuç tüm metnin tek seferde temizlenmesiyle aynıdır.
+     */
+    void append(WhitespaceNormalizingWriter part) {
+        String partText = part.text();
+        rawLength += part.rawLength();
+        if (partText.isEmpty()) {
+            return;
+        }
+        if (!out.isEmpty()) {
+            pendingSpace = true;
+        }
+        appendVisible(partText.charAt(0));
+        out.append(partText, 1, partText.length());
+    }
+
+    /** Şu ana kadarki temizlenmiş metin uzunluğu. */
+    int length() {
+        return out.length();
+    }
+
+    /** Stripper'ın ürettiği ham karakter sayısı (loglama için). */
+    long rawLength() {
+        return rawLength;
+    }
+
+    private void appendVisible(char c) {
+        // Baştaki boşluklar yazılmaz, sondakiler bir sonraki görünür karaktere kadar bekletilir (trim)
+        if (pendingSpace && !out.isEmpty()) {
+            out.append(' ');
+        }
+        pendingSpace = false;
+        out.append(c);
+    }
+
+    // Eski iki regex geçişinin birleşimi: [\p{Cc}\p{Cf}\p{Zl}\p{Zp}] ve \s
+    private static boolean isSeparator(int codePoint) {
+        if (codePoint == ' ') {
+            return true;
+        }
+        int type = Character.getType(codePoint);
+        return type == Character.CONTROL
+                || type == Character.FORMAT
+                || type == Character.LINE_SEPARATOR
+                || type == Character.PARAGRAPH_SEPARATOR;
+    }
+}
@@ -0,0 +1,15 @@
+-- Ekstre içerik özeti: tekrar yüklemeleri tanımak ve AI çıkarımını yeniden kullanmak için
+ALTER TABLE public.period_sources ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_period_sources_user_content_hash
+    ON public.period_sources (user_id, content_hash);
+
+CREATE TABLE IF NOT EXISTS public.statement_extraction_cache (
+    content_hash      VARCHAR(64) PRIMARY KEY,
+    extracted_data    TEXT        NOT NULL,
+    ai_provider       VARCHAR(20),
+    transaction_count INTEGER     NOT NULL DEFAULT 0,
+    hit_count         BIGINT      NOT NULL DEFAULT 0,
+    last_hit_at       TIMESTAMP WITH TIME ZONE,
+    created_at        TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
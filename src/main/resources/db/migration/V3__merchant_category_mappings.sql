@@ -0,0 +1,18 @@
+-- İşlem açıklaması (normalize) -> kategori eşlemeleri: user_id NULL ise tüm kullanıcılar için geçerli
+CREATE TABLE IF NOT EXISTS public.merchant_category_mappings (
+    mapping_id             BIGSERIAL PRIMARY KEY,
+    user_id                UUID REFERENCES public.users (user_id) ON DELETE CASCADE,
+    normalized_description VARCHAR(255) NOT NULL,
+    category_id            INTEGER      NOT NULL REFERENCES public.categories (category_id),
+    mapping_source         VARCHAR(10)  NOT NULL,
+    hit_count              BIGINT       NOT NULL DEFAULT 0,
+    updated_at             TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_merchant_category_mappings_user
+    ON public.merchant_category_mappings (user_id, normalized_description)
+    WHERE user_id IS NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_merchant_category_mappings_global
+    ON public.merchant_category_mappings (normalized_description)
+    WHERE user_id IS NULL;
@@ -0,0 +1,27 @@
+-- Dönem özetleri için önceden hesaplanmış toplamlar: (kullanıcı, dönem, kaynak, kategori) başına tek satır.
+-- Uygulama işlem eklerken/silerken artımlı olarak günceller; özet sorguları işlem sayısından bağımsız çalışır.
+CREATE TABLE IF NOT EXISTS public.period_category_aggregates (
+    user_id               UUID    NOT NULL REFERENCES public.users (user_id) ON DELETE CASCADE,
+    period_id             UUID    NOT NULL REFERENCES public.periods (period_id) ON DELETE CASCADE,
+    source_id             UUID    NOT NULL REFERENCES public.period_sources (source_id) ON DELETE CASCADE,
+    category_id           INTEGER NOT NULL REFERENCES public.categories (category_id) ON DELETE CASCADE,
+    negative_amount_total NUMERIC(17, 2) NOT NULL DEFAULT 0, -- SUM(amount) WHERE amount < 0
+    absolute_amount_total NUMERIC(17, 2) NOT NULL DEFAULT 0, -- SUM(ABS(amount))
+    transaction_count     BIGINT  NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, period_id, source_id, category_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_period_category_aggregates_source
+    ON public.period_category_aggregates (source_id);
+
+-- Mevcut işlemlerden ilk doldurma (kategorisiz işlemler özetlere girmediği için alınmaz)
+INSERT INTO public.period_category_aggregates (user_id, period_id, source_id, category_id,
+                                               negative_amount_total, absolute_amount_total, transaction_count)
+SELECT t.user_id, t.period_id, t.source_id, t.category_id,
+       COALESCE(SUM(t.amount) FILTER (WHERE t.amount < 0), 0),
+       SUM(ABS(t.amount)),
+       COUNT(*)
+FROM public.transactions t
+WHERE t.category_id IS NOT NULL
+GROUP BY t.user_id, t.period_id, t.source_id, t.category_id
+ON CONFLICT (user_id, period_id, source_id, category_id) DO NOTHING;
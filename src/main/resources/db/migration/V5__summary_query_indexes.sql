@@ -0,0 +1,22 @@
+-- Özet sorgularının sıcak yolları için indeksler. Temel şema (V1) uygulama dışında oluşturulduğundan
+-- Flyway mevcut veritabanlarını V1 olarak baseline'lar; V2+ betikleri bu yüzden tekrar çalıştırılabilir yazılmıştır.
+
+-- Kullanıcının dönem işlemleri: TransactionRepository.findExpenseCategoryTotalsByUserBetweenPeriods
+-- user_id ile filtreler, period_id ve category_id üzerinden join eder, amount'u toplar.
+-- INCLUDE ile sorgu tabloya gitmeden (index-only scan) cevaplanabilir.
+CREATE INDEX IF NOT EXISTS idx_transactions_user_period_category
+    ON public.transactions (user_id, period_id, category_id) INCLUDE (amount);
+
+-- Kaynak bazlı sayma/silme: countByPeriodSourceSourceId, deleteAllBySourceId
+CREATE INDEX IF NOT EXISTS idx_transactions_source
+    ON public.transactions (source_id);
+
+-- Dönem aralığı sorguları (yıl * 12 + ay BETWEEN ...): trend ve tasarruf harcama profili.
+-- (user_id, period_year, period_month) araması için periods üzerindeki unique constraint yeterli.
+CREATE INDEX IF NOT EXISTS idx_periods_user_period_index
+    ON public.periods (user_id, (period_year * 12 + period_month)) INCLUDE (period_id);
+
+-- period_category_aggregates için ek indeks gerekmez: PK (user_id, period_id, ...) ile başlar.
+
+ANALYZE public.transactions;
+ANALYZE public.periods;
@@ -0,0 +1,97 @@
+-- transactions tablosunu dönem indeksine (yıl * 12 + ay) göre yıllık aralıklarla bölümler.
+-- Aylık/aralık sorguları t.period_index üzerinden filtrelendiğinde PostgreSQL sadece ilgili yılın bölümüne bakar.
+-- Not: işlem tarihi yerine dönem kullanılır; ekstre işlemlerinin tarihi dönem ayının dışında olabilir
+-- ve tüm özet sorguları zaten döneme göre filtreler.
+
+-- 1) Mevcut tabloya dönem indeksini ekle ve doldur
+ALTER TABLE public.transactions ADD COLUMN IF NOT EXISTS period_index INTEGER;
+
+UPDATE public.transactions t
+SET period_index = p.period_year * 12 + p.period_month
+FROM public.periods p
+WHERE p.period_id = t.period_id
+  AND t.period_index IS NULL;
+
+ALTER TABLE public.transactions ALTER COLUMN period_index SET NOT NULL;
+
+-- 2) Eski tabloyu kenara al, aynı kolonlarla bölümlenmiş tabloyu oluştur.
+-- PostgreSQL'de bölümlenmiş tablonun PK'si bölüm anahtarını içermek zorunda; transaction_id tek başına yine benzersizdir.
+ALTER TABLE public.transactions RENAME TO transactions_legacy;
+
+CREATE TABLE public.transactions (
+    LIKE public.transactions_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS
+) PARTITION BY RANGE (period_index);
+
+ALTER TABLE public.transactions ADD PRIMARY KEY (transaction_id, period_index);
+
+-- 3) Bölüm oluşturucu: uygulama yeni bir yılın ilk dönemini açarken de çağırır (PeriodRepository)
+CREATE OR REPLACE FUNCTION public.ensure_transactions_partition(p_year INTEGER) RETURNS BOOLEAN AS $$
+DECLARE
+    partition_name TEXT := format('transactions_y%s', p_year);
+BEGIN
+    IF to_regclass('public.' || partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE public.%I PARTITION OF public.transactions FOR VALUES FROM (%s) TO (%s)',
+                   partition_name, p_year * 12 + 1, (p_year + 1) * 12 + 1);
+    RETURN TRUE;
+EXCEPTION
+    WHEN duplicate_table THEN
+        -- Aynı yıl için eşzamanlı oluşturma
+        RETURN FALSE;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    first_year INTEGER;
+    y          INTEGER;
+BEGIN
+    SELECT COALESCE(MIN(period_index - 1) / 12, EXTRACT(YEAR FROM now())::INTEGER)
+    INTO first_year
+    FROM public.transactions_legacy;
+
+    FOR y IN first_year .. EXTRACT(YEAR FROM now())::INTEGER + 1 LOOP
+        PERFORM public.ensure_transactions_partition(y);
+    END LOOP;
+END;
+$$;
+
+-- Bölümü henüz açılmamış dönemler için güvenlik ağı (normalde boş kalır)
+CREATE TABLE IF NOT EXISTS public.transactions_default PARTITION OF public.transactions DEFAULT;
+
+-- 4) Veriyi taşı ve doğrula
+INSERT INTO public.transactions SELECT * FROM public.transactions_legacy;
+
+DO $$
+DECLARE
+    legacy_count BIGINT;
+    new_count    BIGINT;
+BEGIN
+    SELECT COUNT(*) INTO legacy_count FROM public.transactions_legacy;
+    SELECT COUNT(*) INTO new_count FROM public.transactions;
+    IF legacy_count <> new_count THEN
+        RAISE EXCEPTION 'Transaction partition migration copied % of % rows', new_count, legacy_count;
+    END IF;
+END;
+$$;
+
+-- Başka tablo eski tabloya referans veriyorsa burada hata verir (bilinçli olarak CASCADE yok)
+DROP TABLE public.transactions_legacy;
+
+-- 5) Referanslar ve indeksler (bölümlenmiş tabloda tanımlanınca her bölüme uygulanır)
+ALTER TABLE public.transactions
+    ADD CONSTRAINT fk_transactions_source FOREIGN KEY (source_id) REFERENCES public.period_sources (source_id),
+    ADD CONSTRAINT fk_transactions_user FOREIGN KEY (user_id) REFERENCES public.users (user_id),
+    ADD CONSTRAINT fk_transactions_period FOREIGN KEY (period_id) REFERENCES public.periods (period_id),
+    ADD CONSTRAINT fk_transactions_category FOREIGN KEY (category_id) REFERENCES public.categories (category_id),
+    ADD CONSTRAINT fk_transactions_ai_category FOREIGN KEY (ai_category_suggestion_id) REFERENCES public.categories (category_id);
+
+-- V5 indeksleri eski tabloyla birlikte silindi; bölüm anahtarıyla yeniden oluştur
+CREATE INDEX IF NOT EXISTS idx_transactions_user_period_category
+    ON public.transactions (user_id, period_index, category_id) INCLUDE (period_id, amount);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_source
+    ON public.transactions (source_id, period_index);
+
+ANALYZE public.transactions;
@@ -0,0 +1,7 @@
+-- Çıkarım önbelleği artık sonucu gerçekten üreten sağlayıcıya (veya TEMPLATE) göre anahtarlanır.
+-- Mevcut kayıtlar istenen sağlayıcıyla (AUTO dahil) etiketlendiği için güvenilir değil; sadece önbellek olduğundan silinir.
+DELETE FROM public.statement_extraction_cache;
+
+ALTER TABLE public.statement_extraction_cache DROP CONSTRAINT IF EXISTS statement_extraction_cache_pkey;
+ALTER TABLE public.statement_extraction_cache ALTER COLUMN ai_provider SET NOT NULL;
+ALTER TABLE public.statement_extraction_cache ADD PRIMARY KEY (content_hash, ai_provider);
@@ -0,0 +1,53 @@
+-- Bölüm bakımı düzeltmeleri:
+--  * ensure_transactions_partition artık varsayılan bölümde o yıla ait satır varsa onları yeni bölüme taşır
+--    (aksi halde CREATE TABLE ... PARTITION OF check_violation ile başarısız olur ve çağıran transaction iptal olurdu).
+--  * Dönüş değeri "çağrıdan sonra bölüm var mı" anlamına gelir; oluşturulamazsa (yarış, yetki) uyarı verip false döner,
+--    satırlar bu durumda varsayılan bölüme düşer ve sonraki çağrıda taşınır.
+CREATE OR REPLACE FUNCTION public.ensure_transactions_partition(p_year INTEGER) RETURNS BOOLEAN AS $$
+DECLARE
+    partition_name TEXT    := format('transactions_y%s', p_year);
+    lower_bound    INTEGER := p_year * 12 + 1;
+    upper_bound    INTEGER := (p_year + 1) * 12 + 1;
+BEGIN
+    IF to_regclass('public.' || partition_name) IS NOT NULL THEN
+        RETURN TRUE;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM public.transactions_default
+               WHERE period_index >= lower_bound AND period_index < upper_bound) THEN
+        -- Varsayılan bölümdeki satırları bağımsız bir tabloya taşı, sonra tabloyu bölüm olarak bağla
+        EXECUTE format('CREATE TABLE public.%I (LIKE public.transactions INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                       partition_name);
+        EXECUTE format('WITH moved AS (DELETE FROM public.transactions_default WHERE period_index >= %s AND period_index < %s RETURNING *) '
+                           || 'INSERT INTO public.%I SELECT * FROM moved',
+                       lower_bound, upper_bound, partition_name);
+        EXECUTE format('ALTER TABLE public.transactions ATTACH PARTITION public.%I FOR VALUES FROM (%s) TO (%s)',
+                       partition_name, lower_bound, upper_bound);
+        RAISE NOTICE 'Moved rows for year % from transactions_default into %', p_year, partition_name;
+    ELSE
+        EXECUTE format('CREATE TABLE public.%I PARTITION OF public.transactions FOR VALUES FROM (%s) TO (%s)',
+                       partition_name, lower_bound, upper_bound);
+    END IF;
+    RETURN TRUE;
+EXCEPTION
+    WHEN duplicate_table THEN
+        -- Aynı yıl için eşzamanlı oluşturma: diğer çağrı oluşturdu
+        RETURN TRUE;
+    WHEN check_violation OR lock_not_available OR insufficient_privilege THEN
+        -- Bu bloktaki değişiklikler geri alınır; yazma işlemi varsayılan bölümle devam eder
+        RAISE WARNING 'Could not create transactions partition for year %: %', p_year, SQLERRM;
+        RETURN FALSE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- V6 sadece işlemi olan yılları kapsıyordu: işlemsiz mevcut dönemlerin yıllarını da aç
+DO $$
+DECLARE
+    y INTEGER;
+BEGIN
+    FOR y IN SELECT DISTINCT period_year FROM public.periods ORDER BY period_year LOOP
+        PERFORM public.ensure_transactions_partition(y);
+    END LOOP;
+    PERFORM public.ensure_transactions_partition(EXTRACT(YEAR FROM now())::INTEGER + 1);
+END;
+$$;
@@ -0,0 +1,5 @@
+-- Eskiden tek bir kullanıcının AI sonucundan öğrenilen global eşlemeler; artık yalnızca birden fazla
+-- kullanıcı aynı kategoride birleşince terfi ediliyor. Doğrulanmamış olanları kaldır (AI yeniden öğretir).
+DELETE FROM public.merchant_category_mappings
+WHERE user_id IS NULL
+  AND mapping_source = 'AI';
@@ -0,0 +1,106 @@
+package com.finera.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Platform ve virtual thread modlarını, gecikmesi sabit (taklit) bir AI sağlayıcısına karşı yük altında karşılaştırır.
+ * İstekler Tomcat'in yerine geçen bir havuzdan (platform: 200 thread, virtual: istek başına thread) gelir ve
+ * ExecutorConfiguration'ın kurduğu aiCallExecutor üzerinden bloklayan "AI çağrısını" bekler.
+ * Sağlayıcı başına bulkhead (AiProviderGuard) ölçüme katılmaz; sadece thread modelinin etkisi ölçülür.
+ * Çalıştırma: mvn test -Pbenchmark -Dtest=ExecutorModeBenchmark
+ */
+@Slf4j
+@Tag("benchmark")
+class ExecutorModeBenchmark {
+
+    private static final int CONCURRENT_REQUESTS = 1_000;
+    private static final long STUB_AI_LATENCY_MILLIS = 200;
+    private static final int TOMCAT_MAX_THREADS = 200; // server.tomcat.threads.max varsayılanı
+    private static final int AI_EXECUTOR_POOL_SIZE = 16; // finera.ai.executor.pool-size varsayılanı
+
+    private record Result(String mode, long wallMillis, long p50Millis, long p99Millis, int completed) {
+        double requestsPerSecond() {
+            return completed * 1000.0 / wallMillis;
+        }
+    }
+
+    @Test
+    void platformVersusVirtualThreadsAgainstStubbedAiBackend() throws Exception {
+        // Isınma: thread oluşturma ve JIT maliyeti ilk koşuya yazılmasın
+        run(false);
+        run(true);
+
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        for (Result result : List.of(platform, virtual)) {
+            log.info("{} threads: {} requests x {} ms stub AI latency -> wall {} ms, {} req/s, completion p50 {} ms, p99 {} ms",
+                    result.mode(), CONCURRENT_REQUESTS, STUB_AI_LATENCY_MILLIS, result.wallMillis(),
+                    String.format("%.0f", result.requestsPerSecond()), result.p50Millis(), result.p99Millis());
+        }
+        assertThat(platform.completed()).isEqualTo(CONCURRENT_REQUESTS);
+        assertThat(virtual.completed()).isEqualTo(CONCURRENT_REQUESTS);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        ExecutorConfiguration configuration = new ExecutorConfiguration();
+        ReflectionTestUtils.setField(configuration, "virtualThreads", virtualThreads);
+        AsyncTaskExecutor aiCallExecutor = configuration.aiCallExecutor(AI_EXECUTOR_POOL_SIZE);
+        if (aiCallExecutor instanceof ThreadPoolTaskExecutor pool) {
+            pool.initialize();
+        }
+        ExecutorService requestThreads = virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+
+        long[] latencies = new long[CONCURRENT_REQUESTS];
+        List<Future<?>> requests = new ArrayList<>(CONCURRENT_REQUESTS);
+        long started = System.nanoTime();
+        try {
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                int request = i;
+                requests.add(requestThreads.submit(() -> {
+                    aiCallExecutor.submit(ExecutorModeBenchmark::stubAiCall).get();
+                    latencies[request] = System.nanoTime() - started;
+                    return null;
+                }));
+            }
+            for (Future<?> request : requests) {
+                request.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            requestThreads.shutdown();
+            if (aiCallExecutor instanceof ThreadPoolTaskExecutor pool) {
+                pool.shutdown();
+            }
+        }
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        Arrays.sort(latencies);
+        return new Result(virtualThreads ? "virtual" : "platform", wallMillis,
+                TimeUnit.NANOSECONDS.toMillis(latencies[CONCURRENT_REQUESTS / 2]),
+                TimeUnit.NANOSECONDS.toMillis(latencies[CONCURRENT_REQUESTS * 99 / 100]),
+                requests.size());
+    }
+
+    // Bloklayan LLM çağrısının yerine geçer (yanıt beklerken thread'i tutar)
+    private static String stubAiCall() throws InterruptedException {
+        Thread.sleep(STUB_AI_LATENCY_MILLIS);
+        return "{\"periodYear\":2024,\"periodMonth\":1,\"transactions\":[]}";
+    }
+}
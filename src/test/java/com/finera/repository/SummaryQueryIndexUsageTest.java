@@ -0,0 +1,234 @@
+package com.finera.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migration'ları (test baseline'ı V1 + db/migration) gerçek PostgreSQL'e uygular ve özet/silme sorgularının
+ * V5/V6 indekslerini kullandığını, işlem sorgularının tek yılın bölümüne indiğini EXPLAIN ile doğrular.
+ * Sorgular repository'lerdeki JPQL'in Hibernate'in ürettiği SQL karşılığıdır.
+ * Seq scan kapatılır: küçük test verisinde plan, indeksin sorguya uygulanabilir olup olmadığını gösterir.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SummaryQueryIndexUsageTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final int FROM_PERIOD_INDEX = 2025 * 12 + 1;
+    private static final int TO_PERIOD_INDEX = 2025 * 12 + 3;
+
+    private static Flyway flyway;
+    private static UUID userId;
+    private static UUID sourceId;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        flyway = Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/baseline", "classpath:db/migration")
+                .load();
+        flyway.migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            // 20 kullanıcı x 36 dönem (2023-2025) x 20 işlem
+            statement.execute("""
+                    INSERT INTO public.categories (category_id, category_name_tr, category_name_en, category_type) VALUES
+                        (1, 'Market', 'Groceries', 'EXPENSE'),
+                        (2, 'Restoran', 'Restaurant', 'EXPENSE'),
+                        (3, 'Ulaşım', 'Transport', 'EXPENSE'),
+                        (4, 'Eğlence', 'Entertainment', 'EXPENSE'),
+                        (5, 'Maaş', 'Salary', 'INCOME');
+
+                    INSERT INTO public.users (email, password_hash)
+                    SELECT 'user' || u || '@finera.test', 'x' FROM generate_series(1, 20) u;
+
+                    INSERT INTO public.periods (user_id, period_year, period_month, start_date, end_date)
+                    SELECT u.user_id, y, m, make_date(y, m, 1), (make_date(y, m, 1) + INTERVAL '1 month - 1 day')::date
+                    FROM public.users u, generate_series(2023, 2025) y, generate_series(1, 12) m;
+
+                    SELECT public.ensure_transactions_partition(y) FROM generate_series(2023, 2025) y;
+
+                    INSERT INTO public.period_sources (period_id, user_id, source_type, source_name, upload_timestamp)
+                    SELECT period_id, user_id, 'STATEMENT', 'ekstre.pdf', now() FROM public.periods;
+
+                    INSERT INTO public.transactions (source_id, user_id, period_id, period_index, category_id,
+                                                     transaction_date, description_original, amount)
+                    SELECT s.source_id, s.user_id, p.period_id, p.period_year * 12 + p.period_month, 1 + n % 5,
+                           make_date(p.period_year, p.period_month, 1 + n % 28), 'İşlem ' || n,
+                           CASE WHEN n % 5 = 4 THEN 1000 ELSE -(n * 10) END
+                    FROM public.period_sources s
+                    JOIN public.periods p ON p.period_id = s.period_id,
+                         generate_series(1, 20) n;
+
+                    INSERT INTO public.period_category_aggregates (user_id, period_id, source_id, category_id,
+                                                                   negative_amount_total, absolute_amount_total, transaction_count)
+                    SELECT t.user_id, t.period_id, t.source_id, t.category_id,
+                           COALESCE(SUM(t.amount) FILTER (WHERE t.amount < 0), 0), SUM(ABS(t.amount)), COUNT(*)
+                    FROM public.transactions t
+                    GROUP BY t.user_id, t.period_id, t.source_id, t.category_id;
+
+                    ANALYZE;
+                    """);
+            try (ResultSet rs = statement.executeQuery("""
+                    SELECT u.user_id, s.source_id
+                    FROM public.users u
+                    JOIN public.periods p ON p.user_id = u.user_id AND p.period_year = 2025 AND p.period_month = 2
+                    JOIN public.period_sources s ON s.period_id = p.period_id
+                    WHERE u.email = 'user1@finera.test'
+                    """)) {
+                rs.next();
+                userId = rs.getObject(1, UUID.class);
+                sourceId = rs.getObject(2, UUID.class);
+            }
+        }
+    }
+
+    @Test
+    void allMigrationsApplyOnTopOfBaseline() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(Arrays.stream(flyway.info().applied()).map(info -> info.getVersion().getVersion()))
+                .containsExactly("1", "2", "3", "4", "5", "6", "7", "8", "9");
+    }
+
+    @Test
+    void expenseTotalsBetweenPeriodsUseUserPeriodIndexOnOnePartition() throws SQLException {
+        // Kullanıcının dönem aralığındaki işlemleri: period_index bölüm budamasıyla tek bölüme iner
+        String plan = explain("""
+                SELECT c.category_name_tr, c.category_name_en, c.category_id, SUM(t.amount * -1)
+                FROM public.transactions t
+                JOIN public.categories c ON c.category_id = t.category_id
+                WHERE t.user_id = '%s'
+                  AND t.period_index BETWEEN %d AND %d
+                  AND c.category_type = 'EXPENSE'
+                  AND t.amount < 0
+                GROUP BY c.category_id, c.category_name_tr, c.category_name_en
+                ORDER BY c.category_name_tr
+                """.formatted(userId, FROM_PERIOD_INDEX, TO_PERIOD_INDEX));
+
+        assertThat(plan).containsAnyOf(partitionIndexNames("idx_transactions_user_period_category").toArray(String[]::new));
+        assertThat(plan).contains("transactions_y2025")
+                .doesNotContain("transactions_y2024")
+                .doesNotContain("transactions_default");
+    }
+
+    @Test
+    void deleteBySourceUsesSourceIndexOnOnePartition() throws SQLException {
+        // TransactionRepository.deleteAllBySourceId
+        String plan = explain("DELETE FROM public.transactions WHERE source_id = '%s' AND period_index = %d"
+                .formatted(sourceId, 2025 * 12 + 2));
+
+        assertThat(plan).containsAnyOf(partitionIndexNames("idx_transactions_source").toArray(String[]::new));
+        assertThat(plan).contains("transactions_y2025")
+                .doesNotContain("transactions_y2024")
+                .doesNotContain("transactions_default");
+    }
+
+    @Test
+    void categoryTrendUsesPeriodIndexExpression() throws SQLException {
+        // PeriodCategoryAggregateRepository.findNetCategoryTotalsByUserBetweenPeriods
+        String plan = explain("""
+                SELECT p.period_year, p.period_month, c.category_id, c.category_name_tr, c.category_name_en,
+                       SUM(CASE WHEN c.category_type = 'EXPENSE' THEN a.absolute_amount_total
+                                WHEN c.category_type = 'INCOME' THEN a.absolute_amount_total * -1
+                                ELSE 0 END)
+                FROM public.period_category_aggregates a
+                JOIN public.categories c ON c.category_id = a.category_id
+                JOIN public.periods p ON p.period_id = a.period_id
+                WHERE a.user_id = '%s'
+                  AND (p.period_year * 12 + p.period_month) BETWEEN %d AND %d
+                GROUP BY p.period_year, p.period_month, c.category_id, c.category_name_tr, c.category_name_en
+                ORDER BY p.period_year, p.period_month, c.category_name_tr
+                """.formatted(userId, FROM_PERIOD_INDEX, TO_PERIOD_INDEX));
+
+        assertThat(plan).contains("idx_periods_user_period_index");
+    }
+
+    @Test
+    void ensurePartitionMovesRowsOutOfDefaultPartition() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            // Bölümü olmayan bir yıla yazılan işlem varsayılan bölüme düşer
+            statement.execute("""
+                    WITH period AS (
+                        INSERT INTO public.periods (user_id, period_year, period_month, start_date, end_date)
+                        VALUES ('%1$s', 2035, 1, DATE '2035-01-01', DATE '2035-01-31')
+                        RETURNING period_id
+                    ), source AS (
+                        INSERT INTO public.period_sources (period_id, user_id, source_type, source_name)
+                        SELECT period_id, '%1$s', 'MANUAL', 'Manuel Girişler' FROM period
+                        RETURNING source_id, period_id
+                    )
+                    INSERT INTO public.transactions (source_id, user_id, period_id, period_index, transaction_date,
+                                                     description_original, amount)
+                    SELECT source_id, '%1$s', period_id, 2035 * 12 + 1, TIMESTAMPTZ '2035-01-05', 'Gelecek', -10
+                    FROM source
+                    """.formatted(userId));
+            assertThat(count(statement, "SELECT COUNT(*) FROM public.transactions_default")).isEqualTo(1);
+
+            try (ResultSet rs = statement.executeQuery("SELECT public.ensure_transactions_partition(2035)")) {
+                rs.next();
+                assertThat(rs.getBoolean(1)).isTrue();
+            }
+            assertThat(count(statement, "SELECT COUNT(*) FROM public.transactions_default")).isZero();
+            assertThat(count(statement, "SELECT COUNT(*) FROM public.transactions_y2035")).isEqualTo(1);
+        }
+    }
+
+    private static String explain(String sql) throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    // Bölümlenmiş tablodaki indeks her bölümde otomatik isimli bir alt indeks olarak bulunur
+    private static List<String> partitionIndexNames(String parentIndex) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("""
+                     SELECT child.relname
+                     FROM pg_inherits i
+                     JOIN pg_class child ON child.oid = i.inhrelid
+                     WHERE i.inhparent = 'public.%s'::regclass
+                     """.formatted(parentIndex))) {
+            while (rs.next()) {
+                names.add(rs.getString(1));
+            }
+        }
+        assertThat(names).as("partition indexes of %s", parentIndex).isNotEmpty();
+        return names;
+    }
+
+    private static long count(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
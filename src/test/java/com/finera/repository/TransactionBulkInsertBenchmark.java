@@ -0,0 +1,147 @@
+package com.finera.repository;
+
+import com.finera.entities.Category;
+import com.finera.entities.Period;
+import com.finera.entities.PeriodSource;
+import com.finera.entities.Transaction;
+import com.finera.entities.User;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ekstre işlemlerinin toplu yazma yolunu (TransactionBulkRepositoryImpl) gerçek PostgreSQL'de ölçer:
+ * satır başına bir INSERT (eski saveAll davranışı, batch boyutu 1), JDBC batch ve reWriteBatchedInserts ile JDBC batch.
+ * 100/1k/10k satırlık ekstreler için tek transaction içinde saniyedeki satır sayısını loglar.
+ * Çalıştırma: mvn test -Pbenchmark -Dtest=TransactionBulkInsertBenchmark (Docker gerekir)
+ */
+@Slf4j
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionBulkInsertBenchmark {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final int[] STATEMENT_SIZES = {100, 1_000, 10_000};
+    private static final int MEASURED_RUNS = 5;
+    private static final int PERIOD_INDEX = 2025 * 12 + 1;
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID PERIOD_ID = UUID.randomUUID();
+    private static final UUID SOURCE_ID = UUID.randomUUID();
+
+    private record Mode(String name, int batchSize, boolean rewriteBatchedInserts) {
+    }
+
+    private static final List<Mode> MODES = List.of(
+            new Mode("per-row", 1, false),
+            new Mode("batch-500", 500, false),
+            new Mode("batch-500 + reWriteBatchedInserts", 500, true));
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/baseline", "classpath:db/migration")
+                .load()
+                .migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource(false));
+        jdbcTemplate.update("INSERT INTO public.categories (category_id, category_name_tr, category_name_en, category_type) VALUES (1, 'Market', 'Groceries', 'EXPENSE')");
+        jdbcTemplate.update("INSERT INTO public.users (user_id, email, password_hash) VALUES (?, 'bench@finera.test', 'x')", USER_ID);
+        jdbcTemplate.update("""
+                INSERT INTO public.periods (period_id, user_id, period_year, period_month, start_date, end_date)
+                VALUES (?, ?, 2025, 1, DATE '2025-01-01', DATE '2025-01-31')
+                """, PERIOD_ID, USER_ID);
+        jdbcTemplate.queryForObject("SELECT public.ensure_transactions_partition(2025)", Boolean.class);
+        jdbcTemplate.update("""
+                INSERT INTO public.period_sources (source_id, period_id, user_id, source_type, source_name)
+                VALUES (?, ?, ?, 'STATEMENT', 'ekstre.pdf')
+                """, SOURCE_ID, PERIOD_ID, USER_ID);
+    }
+
+    @Test
+    void rowsPerSecondForPerRowAndBatchedInserts() {
+        for (int size : STATEMENT_SIZES) {
+            for (Mode mode : MODES) {
+                DriverManagerDataSource dataSource = dataSource(mode.rewriteBatchedInserts());
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                TransactionBulkRepositoryImpl repository = new TransactionBulkRepositoryImpl(jdbcTemplate);
+                ReflectionTestUtils.setField(repository, "batchSize", mode.batchSize());
+                TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+                // İlk koşu ısınma; sonrakilerin medyanı raporlanır
+                long[] rowsPerSecond = new long[MEASURED_RUNS];
+                for (int run = -1; run < MEASURED_RUNS; run++) {
+                    List<Transaction> transactions = statement(size);
+                    long started = System.nanoTime();
+                    Integer inserted = transactionTemplate.execute(status -> repository.bulkInsert(transactions));
+                    long elapsedNanos = System.nanoTime() - started;
+                    assertThat(inserted).isEqualTo(size);
+                    jdbcTemplate.execute("TRUNCATE public.transactions");
+                    if (run >= 0) {
+                        rowsPerSecond[run] = size * 1_000_000_000L / Math.max(1, elapsedNanos);
+                    }
+                }
+                Arrays.sort(rowsPerSecond);
+                log.info("{} rows, {}: median {} rows/s (min {}, max {})", size, mode.name(),
+                        rowsPerSecond[MEASURED_RUNS / 2], rowsPerSecond[0], rowsPerSecond[MEASURED_RUNS - 1]);
+            }
+        }
+    }
+
+    private static List<Transaction> statement(int size) {
+        User user = new User();
+        user.setUserId(USER_ID);
+        Period period = new Period();
+        period.setPeriodId(PERIOD_ID);
+        PeriodSource source = new PeriodSource();
+        source.setSourceId(SOURCE_ID);
+        Category category = new Category();
+        category.setCategoryId(1);
+
+        OffsetDateTime date = OffsetDateTime.parse("2025-01-15T00:00:00+03:00");
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Transaction tx = new Transaction();
+            tx.setPeriodSource(source);
+            tx.setUser(user);
+            tx.setPeriod(period);
+            tx.setPeriodIndex(PERIOD_INDEX);
+            tx.setCategory(category);
+            tx.setTransactionDate(date.plusMinutes(i));
+            tx.setDescriptionOriginal("MIGROS SANAL MARKET ISTANBUL TR " + i);
+            tx.setAmount(BigDecimal.valueOf(-(i % 1000 + 1), 2));
+            tx.setCategorizedByAi(true);
+            transactions.add(tx);
+        }
+        return transactions;
+    }
+
+    private static DriverManagerDataSource dataSource(boolean rewriteBatchedInserts) {
+        String url = POSTGRES.getJdbcUrl();
+        if (rewriteBatchedInserts) {
+            url += (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+        }
+        return new DriverManagerDataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
@@ -0,0 +1,190 @@
+package com.finera.service.ai;
+
+import com.finera.exception.AiProcessingException;
+import com.finera.exception.AiProviderUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AiProviderGuardTest {
+
+    private final ThreadPoolTaskExecutor executor = executor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void opensCircuitAfterConsecutiveFailuresAndRejectsWithoutCalling() {
+        AiProviderGuard guard = guard(1, 2, 30);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> guard.call(AiProvider.GEMINI, () -> {
+                calls.incrementAndGet();
+                throw new IllegalStateException("boom");
+            })).isInstanceOf(AiProcessingException.class).isNotInstanceOf(AiProviderUnavailableException.class);
+        }
+
+        assertThat(guard.isAvailable(AiProvider.GEMINI)).isFalse();
+        assertThatThrownBy(() -> guard.call(AiProvider.GEMINI, calls::incrementAndGet))
+                .isInstanceOf(AiProviderUnavailableException.class);
+        assertThat(calls).hasValue(2);
+        // Devre sağlayıcı başına tutulur
+        assertThat(guard.isAvailable(AiProvider.OPENAI)).isTrue();
+    }
+
+    @Test
+    void successfulHalfOpenTrialClosesCircuit() throws Exception {
+        AiProviderGuard guard = guard(1, 1, 1);
+        fail(guard);
+        assertThat(guard.isAvailable(AiProvider.GEMINI)).isFalse();
+
+        Thread.sleep(1_100);
+        assertThat(guard.isAvailable(AiProvider.GEMINI)).isTrue();
+        assertThat(guard.call(AiProvider.GEMINI, () -> "ok")).isEqualTo("ok");
+
+        // Devre kapandı: deneme sınırı yok, eşzamanlı çağrılar kabul edilir
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> guard.call(AiProvider.GEMINI, () -> {
+            started.countDown();
+            await(release);
+            return "slow";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(guard.call(AiProvider.GEMINI, () -> "concurrent")).isEqualTo("concurrent");
+        release.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+    }
+
+    @Test
+    void onlyOneHalfOpenTrialAtATime() throws Exception {
+        AiProviderGuard guard = guard(1, 1, 0);
+        fail(guard);
+
+        CountDownLatch trialStarted = new CountDownLatch(1);
+        CountDownLatch releaseTrial = new CountDownLatch(1);
+        CompletableFuture<String> trial = CompletableFuture.supplyAsync(() -> guard.call(AiProvider.GEMINI, () -> {
+            trialStarted.countDown();
+            await(releaseTrial);
+            return "trial";
+        }));
+        assertThat(trialStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(guard.isAvailable(AiProvider.GEMINI)).isFalse();
+        assertThatThrownBy(() -> guard.call(AiProvider.GEMINI, () -> "concurrent"))
+                .isInstanceOf(AiProviderUnavailableException.class);
+
+        releaseTrial.countDown();
+        assertThat(trial.get(5, TimeUnit.SECONDS)).isEqualTo("trial");
+        assertThat(guard.isAvailable(AiProvider.GEMINI)).isTrue();
+    }
+
+    @Test
+    void halfOpenTrialIsReleasedWhenCallThrowsError() {
+        AiProviderGuard guard = guard(1, 1, 0);
+        fail(guard);
+
+        assertThatThrownBy(() -> guard.call(AiProvider.GEMINI, () -> {
+            throw new AssertionError("error, not exception");
+        })).isInstanceOf(AiProcessingException.class);
+
+        // Deneme bayrağı takılı kalsaydı devre yeniden başlatmaya kadar açık kalırdı
+        assertThat(guard.isAvailable(AiProvider.GEMINI)).isTrue();
+        assertThat(guard.call(AiProvider.GEMINI, () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void halfOpenTrialIsReleasedWhenInlineCallThrowsError() {
+        AiProviderGuard guard = guard(1, 1, 0);
+        fail(guard);
+
+        assertThatThrownBy(() -> guard.callInline(AiProvider.GEMINI, () -> {
+            throw new AssertionError("error, not exception");
+        })).isInstanceOf(AssertionError.class);
+
+        assertThat(guard.isAvailable(AiProvider.GEMINI)).isTrue();
+        guard.callInline(AiProvider.GEMINI, () -> { });
+    }
+
+    @Test
+    void listenerFailuresInInlineCallsDoNotCountAgainstProvider() {
+        AiProviderGuard guard = guard(1, 1, 30);
+
+        assertThatThrownBy(() -> guard.callInline(AiProvider.GEMINI, () -> {
+            throw new StreamingListenerException(new IllegalStateException("duplicate statement"));
+        })).isInstanceOf(StreamingListenerException.class);
+
+        assertThat(guard.isAvailable(AiProvider.GEMINI)).isTrue();
+    }
+
+    @Test
+    void timeoutIsEnforcedAndCountedAsFailure() {
+        AiProviderGuard guard = guard(1, 1, 30);
+        CountDownLatch never = new CountDownLatch(1);
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> guard.call(AiProvider.GEMINI, () -> {
+            await(never);
+            return "late";
+        })).isInstanceOf(AiProviderUnavailableException.class);
+
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started)).isLessThan(5);
+        assertThat(guard.isAvailable(AiProvider.GEMINI)).isFalse();
+    }
+
+    @Test
+    void failoverSkipsFailingProvider() {
+        AiProviderGuard guard = guard(1, 5, 30);
+
+        String result = guard.callWithFailover(AiProvider.GEMINI, List.of(AiProvider.GEMINI, AiProvider.OPENAI),
+                provider -> guard.call(provider, () -> {
+                    if (provider == AiProvider.GEMINI) {
+                        throw new IllegalStateException("down");
+                    }
+                    return provider.name();
+                }));
+
+        assertThat(result).isEqualTo("OPENAI");
+    }
+
+    private AiProviderGuard guard(long timeoutSeconds, int failureThreshold, long openSeconds) {
+        return new AiProviderGuard(executor, executor, new AiProviderRouter(new AiRoutingProperties()),
+                timeoutSeconds, failureThreshold, openSeconds, 4, 100, true, 0);
+    }
+
+    private static void fail(AiProviderGuard guard) {
+        assertThatThrownBy(() -> guard.call(AiProvider.GEMINI, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(AiProcessingException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ThreadPoolTaskExecutor executor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        return executor;
+    }
+}
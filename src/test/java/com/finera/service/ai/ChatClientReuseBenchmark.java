@@ -0,0 +1,119 @@
+package com.finera.service.ai;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.ai.openai.OpenAiChatOptions;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Her çağrıda ChatClient ve PromptTemplate kurmak (eski extractor/advisor davranışı) ile AiChatClientConfiguration'daki
+ * gibi bir kez kurulmuş client'ı ve iş parçacığı başına bir kez ayrıştırılmış şablonu paylaşmak arasındaki
+ * çağrı başı süre ve heap tahsisi farkını ölçer.
+ * Model taklittir (ağ yok), yani ölçülen fark yalnızca client kurulumu, şablon ayrıştırma ve istek hazırlığıdır.
+ * Çalıştırma: mvn test -Pbenchmark -Dtest=ChatClientReuseBenchmark
+ */
+@Slf4j
+@Tag("benchmark")
+class ChatClientReuseBenchmark {
+
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int MEASURED_CALLS = 50_000;
+
+    private static final String PROMPT_TEMPLATE = """
+            Aşağıdaki banka ekstresi metnini analiz et.
+            Kategoriler: {category_list}
+            Uygun kategori yoksa "{default_category}" kullan.
+            Ekstre Metni:
+            {statement_text}
+            """;
+    private static final String STATEMENT_TEXT = "05.01.2024 MİGROS KADIKÖY -250,10 TL ".repeat(200);
+
+    private final ChatModel stubModel = new StubChatModel();
+    private final ChatClient sharedClient = buildClient();
+    private final ThreadLocal<PromptTemplate> sharedTemplate =
+            ThreadLocal.withInitial(() -> new PromptTemplate(PROMPT_TEMPLATE));
+
+    private record Result(String mode, double nanosPerCall, double bytesPerCall) {
+    }
+
+    @Test
+    void perCallClientBuildVersusSharedClient() {
+        // JIT ısınması
+        measure("per-call client", WARMUP_CALLS, true);
+        measure("shared client", WARMUP_CALLS, false);
+
+        Result perCall = measure("per-call client", MEASURED_CALLS, true);
+        Result shared = measure("shared client", MEASURED_CALLS, false);
+
+        for (Result result : List.of(perCall, shared)) {
+            log.info("{}: {} ns/call, {} bytes/call", result.mode(),
+                    String.format("%.0f", result.nanosPerCall()), String.format("%.0f", result.bytesPerCall()));
+        }
+        log.info("Removed per-call overhead: {} ns, {} bytes",
+                String.format("%.0f", perCall.nanosPerCall() - shared.nanosPerCall()),
+                String.format("%.0f", perCall.bytesPerCall() - shared.bytesPerCall()));
+    }
+
+    private Result measure(String mode, int calls, boolean buildPerCall) {
+        long allocatedBefore = currentThreadAllocatedBytes();
+        long started = System.nanoTime();
+        int contentLength = 0;
+        for (int i = 0; i < calls; i++) {
+            ChatClient client = buildPerCall ? buildClient() : sharedClient;
+            PromptTemplate template = buildPerCall ? new PromptTemplate(PROMPT_TEMPLATE, Map.of()) : sharedTemplate.get();
+            String content = client.prompt(buildPrompt(template)).call().content();
+            contentLength += content.length();
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        long allocated = currentThreadAllocatedBytes() - allocatedBefore;
+        assertThat(contentLength).isEqualTo(calls * 2);
+        return new Result(mode, (double) elapsedNanos / calls, (double) allocated / calls);
+    }
+
+    // Eski OpenAiExtractorService'in her çağrıda yaptığı kurulum
+    private ChatClient buildClient() {
+        return ChatClient.builder(stubModel)
+                .defaultOptions(OpenAiChatOptions.builder()
+                        .model("gpt-4o")
+                        .temperature(0.2)
+                        .build())
+                .build();
+    }
+
+    private static Prompt buildPrompt(PromptTemplate template) {
+        return template.create(Map.of(
+                "statement_text", STATEMENT_TEXT,
+                "category_list", "Market, Restoran, Ulaşım, Faturalar, Diğer / Belirsiz",
+                "default_category", "Diğer / Belirsiz"
+        ));
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported()) {
+            return threadMXBean.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    // Ağa çıkmadan sabit yanıt döner
+    private static class StubChatModel implements ChatModel {
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage("{}"))));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.finera.service.ai;
+
+import com.finera.dto.ExtractedDataDto;
+import com.finera.dto.TransactionDto;
+import com.finera.exception.AiProcessingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChunkedStatementExtractorTest {
+
+    private ChunkedStatementExtractor extractor;
+
+    @BeforeEach
+    void setUp() {
+        extractor = new ChunkedStatementExtractor(null, null);
+        ReflectionTestUtils.setField(extractor, "maxChunkChars", 60);
+    }
+
+    @Test
+    void mergeKeepsIdenticalTransactionsAcrossChunkBoundary() {
+        // Aynı gün, aynı tutarlı iki gerçek işlem (ör. iki toplu taşıma bileti) farklı parçalara düşebilir
+        TransactionDto fare = transaction("2024-01-05", "METRO ISTANBUL", "-17.70");
+        ExtractedDataDto first = new ExtractedDataDto(2024, 1, List.of(transaction("2024-01-04", "MIGROS", "-250.00"), fare));
+        ExtractedDataDto second = new ExtractedDataDto(2024, 1, List.of(transaction("2024-01-05", "METRO ISTANBUL", "-17.70")));
+
+        ExtractedDataDto merged = extractor.merge(List.of(first, second));
+
+        assertThat(merged.getTransactions()).hasSize(3);
+        assertThat(merged.getTransactions()).filteredOn(tx -> tx.getDescription().equals("METRO ISTANBUL")).hasSize(2);
+    }
+
+    @Test
+    void mergeKeepsChunkOrderAndTakesPeriodFromHeaderChunk() {
+        // Başlık yalnızca ilk parçada; diğer parçalar dönemi işlem tarihlerinden tahmin eder ve çoğunlukta olabilir
+        ExtractedDataDto first = new ExtractedDataDto(2024, 2, List.of(transaction("2024-01-02", "A", "-1.00")));
+        ExtractedDataDto second = new ExtractedDataDto(2024, 1, List.of(transaction("2024-01-20", "B", "-2.00")));
+        ExtractedDataDto third = new ExtractedDataDto(2024, 1, null);
+        ExtractedDataDto fourth = new ExtractedDataDto(0, 0, List.of(transaction("2024-01-30", "C", "-3.00")));
+
+        ExtractedDataDto merged = extractor.merge(List.of(first, second, third, fourth));
+
+        assertThat(merged.getPeriodYear()).isEqualTo(2024);
+        assertThat(merged.getPeriodMonth()).isEqualTo(2);
+        assertThat(merged.getTransactions()).extracting(TransactionDto::getDescription).containsExactly("A", "B", "C");
+    }
+
+    @Test
+    void mergeFallsBackToFirstLaterChunkWithAPeriod() {
+        ExtractedDataDto first = new ExtractedDataDto(0, 0, List.of(transaction("2024-01-02", "A", "-1.00")));
+        ExtractedDataDto second = new ExtractedDataDto(2024, 1, List.of(transaction("2024-01-20", "B", "-2.00")));
+        ExtractedDataDto third = new ExtractedDataDto(2023, 12, List.of(transaction("2024-01-30", "C", "-3.00")));
+
+        ExtractedDataDto merged = extractor.merge(List.of(first, second, third));
+
+        assertThat(merged.getPeriodYear()).isEqualTo(2024);
+        assertThat(merged.getPeriodMonth()).isEqualTo(1);
+    }
+
+    @Test
+    void mergeFailsWhenNoChunkReportsAPeriod() {
+        ExtractedDataDto result = new ExtractedDataDto(0, 0, List.of(transaction("2024-01-02", "A", "-1.00")));
+
+        assertThatThrownBy(() -> extractor.merge(List.of(result))).isInstanceOf(AiProcessingException.class);
+    }
+
+    @Test
+    void splitCutsAtTransactionStartsWithoutLosingText() {
+        String text = "05.01.2024 MIGROS -250,00 TL 06.01.2024 SHELL -1.200,00 TL "
+                + "07.01.2024 METRO -17,70 TL 07.01.2024 METRO -17,70 TL 08.01.2024 A101 -99,90 TL";
+
+        List<String> chunks = extractor.split(text);
+
+        assertThat(chunks).hasSizeGreaterThan(1);
+        assertThat(chunks).allSatisfy(chunk -> {
+            assertThat(chunk.length()).isLessThanOrEqualTo(60);
+            assertThat(chunk).matches("^\\d{2}\\.\\d{2}\\.\\d{4} .*");
+        });
+        assertThat(String.join(" ", chunks)).isEqualTo(text);
+    }
+
+    @Test
+    void splitFallsBackToWhitespaceWithoutDates() {
+        String text = "lorem ipsum dolor sit amet ".repeat(6).trim();
+
+        List<String> chunks = extractor.split(text);
+
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunk.length()).isLessThanOrEqualTo(60));
+        assertThat(String.join(" ", chunks)).isEqualTo(text);
+    }
+
+    private static TransactionDto transaction(String date, String description, String amount) {
+        return new TransactionDto(LocalDate.parse(date), description, new BigDecimal(amount), null);
+    }
+}
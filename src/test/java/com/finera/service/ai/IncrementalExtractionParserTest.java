@@ -0,0 +1,126 @@
+package com.finera.service.ai;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finera.dto.TransactionDto;
+import com.finera.exception.AiProcessingException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IncrementalExtractionParserTest {
+
+    // Spring Boot'un ObjectMapper'ı gibi: modelin eklediği bilinmeyen alanlar yok sayılır
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final RecordingListener listener = new RecordingListener();
+
+    private static final String RESPONSE = """
+            ```json
+            {
+              "periodYear": "2024",
+              "periodMonth": 1,
+              "transactions": [
+                {"date": "2024-01-05", "description": "MİGROS {ŞUBE 12}", "amount": -250.10, "categoryName": "Market"},
+                {"date": "2024-01-06", "description": "MAAŞ", "amount": 35000.00, "categoryName": "Maaş", "extra": {"nested": [1, 2]}}
+              ]
+            }
+            ```
+            """;
+
+    @Test
+    void emitsPeriodAndEachTransactionAsSoonAsItCloses() {
+        IncrementalExtractionParser parser = new IncrementalExtractionParser(objectMapper, listener);
+
+        // Tek karakterlik parçalar: her token parça sınırlarına bölünür
+        int firstTransactionEnd = RESPONSE.indexOf("},") + 1;
+        for (int i = 0; i < firstTransactionEnd; i++) {
+            parser.feed(String.valueOf(RESPONSE.charAt(i)));
+        }
+        assertThat(listener.period).containsExactly(2024, 1);
+        assertThat(listener.transactions).hasSize(1);
+
+        for (int i = firstTransactionEnd; i < RESPONSE.length(); i++) {
+            parser.feed(String.valueOf(RESPONSE.charAt(i)));
+        }
+        parser.finish();
+
+        assertThat(parser.getTransactionCount()).isEqualTo(2);
+        assertThat(listener.transactions).extracting(TransactionDto::getDescription)
+                .containsExactly("MİGROS {ŞUBE 12}", "MAAŞ");
+        TransactionDto first = listener.transactions.get(0);
+        assertThat(first.getDate()).isEqualTo(LocalDate.of(2024, 1, 5));
+        assertThat(first.getAmount()).isEqualByComparingTo(new BigDecimal("-250.10"));
+        assertThat(first.getCategoryName()).isEqualTo("Market");
+    }
+
+    @Test
+    void consumesFluxAndIgnoresTextAfterRootObject() {
+        IncrementalExtractionParser parser = new IncrementalExtractionParser(objectMapper, listener);
+
+        parser.consume(Flux.just(RESPONSE.substring(0, 40), RESPONSE.substring(40), "\nAçıklama: {bitti}"));
+
+        assertThat(listener.period).containsExactly(2024, 1);
+        assertThat(listener.transactions).hasSize(2);
+    }
+
+    @Test
+    void failsWhenStreamEndsBeforeObjectCloses() {
+        IncrementalExtractionParser parser = new IncrementalExtractionParser(objectMapper, listener);
+
+        parser.feed(RESPONSE.substring(0, RESPONSE.indexOf("},") + 2));
+
+        assertThatThrownBy(parser::finish).isInstanceOf(AiProcessingException.class);
+        assertThat(listener.transactions).hasSize(1);
+    }
+
+    @Test
+    void failsWhenPeriodIsMissing() {
+        IncrementalExtractionParser parser = new IncrementalExtractionParser(objectMapper, listener);
+
+        parser.feed("{\"transactions\": []}");
+
+        assertThatThrownBy(parser::finish).isInstanceOf(AiProcessingException.class);
+    }
+
+    @Test
+    void listenerFailuresAreWrappedSeparatelyFromParseErrors() {
+        IllegalStateException dbError = new IllegalStateException("connection refused");
+        IncrementalExtractionParser parser = new IncrementalExtractionParser(objectMapper, new RecordingListener() {
+            @Override
+            public void onTransaction(TransactionDto transaction) {
+                throw dbError;
+            }
+        });
+
+        assertThatThrownBy(() -> parser.feed(RESPONSE))
+                .isInstanceOf(StreamingListenerException.class)
+                .isNotInstanceOf(AiProcessingException.class)
+                .hasCause(dbError);
+    }
+
+    private static class RecordingListener implements StreamingExtractionListener {
+        private final List<Integer> period = new ArrayList<>();
+        private final List<TransactionDto> transactions = new ArrayList<>();
+
+        @Override
+        public void onPeriod(int periodYear, int periodMonth) {
+            period.add(periodYear);
+            period.add(periodMonth);
+        }
+
+        @Override
+        public void onTransaction(TransactionDto transaction) {
+            transactions.add(transaction);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.finera.service.ai.impl;
+
+import com.finera.dto.SavingsRecommendationDto;
+import com.finera.dto.SpendingCategoryDto;
+import com.finera.service.savings.LocalSavingsProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalSavingsAdvisorServiceTest {
+
+    private LocalSavingsProperties properties;
+    private LocalSavingsAdvisorService advisor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LocalSavingsProperties();
+        properties.setDefaultFlexibility(0.5);
+        advisor = new LocalSavingsAdvisorService(properties);
+    }
+
+    @Test
+    void distributesTargetProportionallyToSpendingTimesFlexibility() {
+        List<SavingsRecommendationDto> recommendations = advisor.generateRecommendations(new BigDecimal("300"),
+                List.of(spending("Restoran", "1000"), spending("Eğlence", "500")));
+
+        assertThat(reductions(recommendations)).containsExactly(
+                Map.entry("Restoran", new BigDecimal("200.00")),
+                Map.entry("Eğlence", new BigDecimal("100.00")));
+    }
+
+    @Test
+    void cappedCategoryOverflowsToTheOthers() {
+        properties.setFlexibility(Map.of("eğlence", 1.0, "market", 0.1));
+
+        // Ağırlıklar eşit (100 x 1.0 ve 1000 x 0.1): ilk turda 200'er; Eğlence 100'de tavana ulaşır, kalan 100 Market'e
+        List<SavingsRecommendationDto> recommendations = advisor.generateRecommendations(new BigDecimal("400"),
+                List.of(spending("Eğlence", "100"), spending("Market", "1000")));
+
+        assertThat(reductions(recommendations)).containsExactly(
+                Map.entry("Market", new BigDecimal("300.00")),
+                Map.entry("Eğlence", new BigDecimal("100.00")));
+        assertThat(recommendations.get(1).getReason()).contains("tamamı");
+    }
+
+    @Test
+    void neverSuggestsMoreThanCurrentSpending() {
+        List<SavingsRecommendationDto> recommendations = advisor.generateRecommendations(new BigDecimal("10000"),
+                List.of(spending("Restoran", "1000"), spending("Eğlence", "500")));
+
+        assertThat(reductions(recommendations)).containsExactly(
+                Map.entry("Restoran", new BigDecimal("1000.00")),
+                Map.entry("Eğlence", new BigDecimal("500.00")));
+    }
+
+    @Test
+    void skipsInflexibleAndNonPositiveCategories() {
+        properties.setFlexibility(Map.of("kira", 0.0));
+
+        List<SavingsRecommendationDto> recommendations = advisor.generateRecommendations(new BigDecimal("100"),
+                List.of(spending("Kira", "15000"), spending("İade", "-50"), spending("Restoran", "400")));
+
+        assertThat(reductions(recommendations)).containsExactly(Map.entry("Restoran", new BigDecimal("100.00")));
+    }
+
+    @Test
+    void roundingDriftIsCorrectedToTheCent() {
+        List<SavingsRecommendationDto> recommendations = advisor.generateRecommendations(new BigDecimal("100"),
+                List.of(spending("Restoran", "100"), spending("Eğlence", "100"), spending("Giyim", "100")));
+
+        BigDecimal total = recommendations.stream()
+                .map(SavingsRecommendationDto::getSuggestedReduction)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(total).isEqualByComparingTo("100.00");
+        assertThat(recommendations).allSatisfy(recommendation ->
+                assertThat(recommendation.getSuggestedReduction()).isBetween(new BigDecimal("33.33"), new BigDecimal("33.34")));
+    }
+
+    private static List<Map.Entry<String, BigDecimal>> reductions(List<SavingsRecommendationDto> recommendations) {
+        return recommendations.stream()
+                .map(recommendation -> Map.entry(recommendation.getCategoryName(), recommendation.getSuggestedReduction()))
+                .toList();
+    }
+
+    private static SpendingCategoryDto spending(String categoryName, String amount) {
+        SpendingCategoryDto spending = new SpendingCategoryDto();
+        spending.setCategoryName(categoryName);
+        spending.setAmount(new BigDecimal(amount));
+        return spending;
+    }
+}
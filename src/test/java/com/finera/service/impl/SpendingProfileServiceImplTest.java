@@ -0,0 +1,75 @@
+package com.finera.service.impl;
+
+import com.finera.dto.SpendingCategoryDto;
+import com.finera.projection.PeriodCategoryTotalProjection;
+import com.finera.repository.PeriodCategoryAggregateRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SpendingProfileServiceImplTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private final PeriodCategoryAggregateRepository repository = mock(PeriodCategoryAggregateRepository.class);
+    private final SpendingProfileServiceImpl service = new SpendingProfileServiceImpl(repository);
+
+    @Test
+    void averagesAggregatedCategoryTotalsOverTrailingMonthsAndDropsIncome() {
+        // Mart 2024'te biten 3 aylık aralık: 2024 * 12 + 1 .. 2024 * 12 + 3
+        when(repository.findNetCategoryTotalsByUserBetweenPeriods(USER_ID, 2024 * 12 + 1, 2024 * 12 + 3)).thenReturn(List.of(
+                row(2024, 1, 2, "Restoran", "300.00"),
+                row(2024, 1, 9, "Maaş", "-35000.00"),
+                row(2024, 2, 1, "Market", "900.00"),
+                row(2024, 3, 2, "Restoran", "600.00"),
+                row(2024, 3, 1, "Market", "1200.00")));
+
+        List<SpendingCategoryDto> profile = service.buildSpendingProfile(USER_ID, 2024, 3, 3);
+
+        assertThat(profile).extracting(SpendingCategoryDto::getCategoryName, SpendingCategoryDto::getAmount)
+                .containsExactly(
+                        tuple("Market", new BigDecimal("700.00")),
+                        tuple("Restoran", new BigDecimal("300.00")));
+    }
+
+    private static PeriodCategoryTotalProjection row(int year, int month, int categoryId, String name, String amount) {
+        return new PeriodCategoryTotalProjection() {
+            @Override
+            public Integer getPeriodYear() {
+                return year;
+            }
+
+            @Override
+            public Integer getPeriodMonth() {
+                return month;
+            }
+
+            @Override
+            public Integer getCategoryId() {
+                return categoryId;
+            }
+
+            @Override
+            public String getCategoryNameTr() {
+                return name;
+            }
+
+            @Override
+            public String getCategoryNameEn() {
+                return name;
+            }
+
+            @Override
+            public BigDecimal getNetAmount() {
+                return new BigDecimal(amount);
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.finera.service.ingestion;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UploadedStatementTest {
+
+    private static final MockMultipartFile FILE = new MockMultipartFile("statementFile", "ekstre.pdf",
+            "application/pdf", "%PDF-1.7 ornek ekstre".getBytes(StandardCharsets.US_ASCII));
+
+    @Test
+    void spooledUploadIsHashedLikeInMemoryUploadAndKeptOffHeap() throws IOException {
+        UploadedStatement inMemory = UploadedStatement.from(FILE);
+        UploadedStatement spooled = UploadedStatement.spool(FILE);
+        try {
+            assertThat(spooled.isFileBacked()).isTrue();
+            assertThat(spooled.getContent()).isNull();
+            assertThat(spooled.getSize()).isEqualTo(inMemory.getSize());
+            assertThat(spooled.getContentHash()).isEqualTo(inMemory.getContentHash());
+            assertThat(Files.readAllBytes(spooled.getFile())).isEqualTo(FILE.getBytes());
+        } finally {
+            spooled.discard();
+        }
+        assertThat(spooled.getFile()).doesNotExist();
+    }
+
+    @Test
+    void discardIsNoOpForInMemoryUpload() throws IOException {
+        UploadedStatement inMemory = UploadedStatement.from(FILE);
+
+        inMemory.discard();
+
+        assertThat(inMemory.isFileBacked()).isFalse();
+        assertThat(inMemory.getContent()).isEqualTo(FILE.getBytes());
+    }
+}
@@ -0,0 +1,164 @@
+package com.finera.service.template;
+
+import com.finera.dto.ExtractedDataDto;
+import com.finera.dto.TransactionDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatementTemplateRegistryTest {
+
+    private static final String STATEMENT = "ORNEK BANKA A.S. Kredi Kartı Ekstresi Dönem: 01/2024 "
+            + "05.01.2024 MİGROS KADIKÖY -250,10 TL 06.01.2024 SHELL -1.200,00 TL";
+
+    @Test
+    void regexTemplateExtractsPeriodAndTransactions() {
+        StatementTemplateRegistry registry = registry(List.of(), template());
+
+        Optional<ExtractedDataDto> result = registry.tryMatch(STATEMENT);
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getPeriodYear()).isEqualTo(2024);
+        assertThat(result.get().getPeriodMonth()).isEqualTo(1);
+        assertThat(result.get().getTransactions()).extracting(TransactionDto::getDate, TransactionDto::getDescription,
+                        TransactionDto::getAmount, TransactionDto::getCategoryName)
+                .containsExactly(
+                        tuple(LocalDate.of(2024, 1, 5), "MİGROS KADIKÖY", new BigDecimal("-250.10"), null),
+                        tuple(LocalDate.of(2024, 1, 6), "SHELL", new BigDecimal("-1200.00"), null));
+        assertThat(registry.getHitRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    void otherInstitutionFallsBackToAi() {
+        StatementTemplateRegistry registry = registry(List.of(), template());
+
+        assertThat(registry.tryMatch(STATEMENT.replace("ORNEK BANKA", "BASKA BANKA"))).isEmpty();
+        assertThat(registry.getHitRate()).isZero();
+    }
+
+    @Test
+    void lowConfidenceMatchFallsBackToAi() {
+        StatementTemplateRegistry registry = registry(List.of(), template());
+
+        // Tablonun ortasında şablona uymayan satır: açıklaması bir sonraki satırı yutar, 2 / 3 satır çözüldü
+        String statement = "ORNEK BANKA A.S. Dönem: 01/2024 05.01.2024 MİGROS KADIKÖY -250,10 TL "
+                + "05.01.2024 İADE USD 12.50 06.01.2024 SHELL -1.200,00 TL";
+
+        assertThat(registry.tryMatch(statement)).isEmpty();
+    }
+
+    @Test
+    void headerDatesOutsideTheTransactionTableDoNotLowerConfidence() {
+        StatementTemplateRegistry registry = registry(List.of(), template());
+
+        String statement = STATEMENT.replace("Dönem: 01/2024", "Dönem: 01/2024 Hesap Kesim Tarihi 31.01.2024")
+                + " Son Ödeme Tarihi 15.02.2024 Asgari Ödeme 290,03";
+
+        assertThat(registry.tryMatch(statement)).hasValueSatisfying(data -> assertThat(data.getTransactions()).hasSize(2));
+    }
+
+    @Test
+    void secondDateOnTwoDateRowsIsNotAnExtraCandidate() {
+        StatementTemplateProperties.Template template = template();
+        template.setTransactionPattern("(?<date>\\d{2}\\.\\d{2}\\.\\d{4}) \\d{2}\\.\\d{2}\\.\\d{4} (?<description>.+?) (?<amount>-?[\\d.]+,\\d{2}) TL");
+        StatementTemplateRegistry registry = registry(List.of(), template);
+
+        String statement = "ORNEK BANKA A.S. Dönem: 01/2024 05.01.2024 06.01.2024 MİGROS -250,10 TL "
+                + "06.01.2024 08.01.2024 SHELL -1.200,00 TL";
+
+        assertThat(registry.tryMatch(statement)).hasValueSatisfying(data -> assertThat(data.getTransactions()).hasSize(2));
+    }
+
+    @Test
+    void twoDigitYearTemplateIsScoredWithItsOwnDateFormat() {
+        StatementTemplateProperties.Template template = template();
+        template.setDateFormat("dd.MM.yy");
+        template.setTransactionPattern("(?<date>\\d{2}\\.\\d{2}\\.\\d{2}) (?<description>.+?) (?<amount>-?[\\d.]+,\\d{2}) TL");
+        StatementTemplateRegistry registry = registry(List.of(), template);
+
+        Optional<ExtractedDataDto> result = registry.tryMatch(
+                "ORNEK BANKA A.S. Dönem: 01/2024 05.01.24 MİGROS -250,10 TL 06.01.24 SHELL -1.200,00 TL");
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getTransactions()).extracting(TransactionDto::getDate)
+                .containsExactly(LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 6));
+    }
+
+    @Test
+    void beanParsersAreTriedBeforePropertyTemplates() {
+        ExtractedDataDto custom = new ExtractedDataDto(2024, 1, List.of());
+        StatementTemplateRegistry registry = registry(List.of(parser("ozel", new TemplateMatch(custom, 1.0))), template());
+
+        assertThat(registry.tryMatch(STATEMENT)).containsSame(custom);
+    }
+
+    @Test
+    void failingParserFallsBackToAi() {
+        StatementTemplateParser broken = new StatementTemplateParser() {
+            @Override
+            public String getName() {
+                return "bozuk";
+            }
+
+            @Override
+            public Optional<TemplateMatch> parse(String statementText) {
+                throw new IllegalStateException("bad template");
+            }
+        };
+        StatementTemplateRegistry registry = registry(List.of(broken), template());
+
+        assertThat(registry.tryMatch(STATEMENT)).isEmpty();
+    }
+
+    @Test
+    void estimatesSavedAiTimeFromHits() {
+        StatementTemplateRegistry registry = registry(List.of(), template());
+        registry.recordAiExtraction(2_000_000_000L);
+
+        registry.tryMatch(STATEMENT);
+
+        assertThat(registry.estimatedSavedMillis()).isBetween(1_000L, 2_000L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StatementTemplateRegistry registry(List<StatementTemplateParser> beans, StatementTemplateProperties.Template template) {
+        ObjectProvider<StatementTemplateParser> provider = mock(ObjectProvider.class);
+        when(provider.orderedStream()).thenReturn(beans.stream());
+        StatementTemplateProperties properties = new StatementTemplateProperties();
+        properties.setMinConfidence(0.9);
+        properties.setTemplates(List.of(template));
+        return new StatementTemplateRegistry(provider, properties);
+    }
+
+    private static StatementTemplateProperties.Template template() {
+        StatementTemplateProperties.Template template = new StatementTemplateProperties.Template();
+        template.setName("ornek-banka");
+        template.setInstitutionPattern("ORNEK BANKA A\\.S\\.");
+        template.setTransactionPattern("(?<date>\\d{2}\\.\\d{2}\\.\\d{4}) (?<description>.+?) (?<amount>-?[\\d.]+,\\d{2}) TL");
+        template.setPeriodPattern("Dönem: (?<month>\\d{2})/(?<year>\\d{4})");
+        return template;
+    }
+
+    private static StatementTemplateParser parser(String name, TemplateMatch match) {
+        return new StatementTemplateParser() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Optional<TemplateMatch> parse(String statementText) {
+                return Optional.of(match);
+            }
+        };
+    }
+}
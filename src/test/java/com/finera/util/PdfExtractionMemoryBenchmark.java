@@ -0,0 +1,110 @@
+package com.finera.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Yükleme başına heap tahsisini ölçer: eski yol (loadPDF + getText + iki regex geçişi),
+ * PdfTextExtractor'ın byte[] modu (sayfa sayfa, tek geçişte temizleme) ve düşük bellek modu
+ * (geçici dosyadan rastgele erişim, dosya tabanlı PDFBox önbelleği).
+ * Paralel çözme kapalıdır; tahsis çağıran thread üzerinden ölçüldüğünden tüm iş o thread'de kalmalı.
+ * Çalıştırma: mvn test -Pbenchmark -Dtest=PdfExtractionMemoryBenchmark
+ */
+@Slf4j
+@Tag("benchmark")
+class PdfExtractionMemoryBenchmark {
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    // Eski PdfTextExtractor'daki temizleme
+    private static final Pattern CONTROL_CHARS_PATTERN = Pattern.compile("[\\p{Cc}\\p{Cf}\\p{Zl}\\p{Zp}]");
+
+    @TempDir
+    Path tempDir;
+
+    @FunctionalInterface
+    private interface Extraction {
+        String extract() throws IOException;
+    }
+
+    @Test
+    void heapPerUploadForLegacyInMemoryAndLowMemoryModes() throws IOException {
+        PdfTextExtractor inMemory = extractor(false);
+        PdfTextExtractor lowMemory = extractor(true);
+
+        for (int pageCount : SyntheticStatementPdfs.PAGE_COUNTS) {
+            byte[] pdfBytes = SyntheticStatementPdfs.statement(pageCount);
+            File pdfFile = Files.write(tempDir.resolve("statement-" + pageCount + ".pdf"), pdfBytes).toFile();
+
+            String expected = legacyExtract(pdfBytes);
+            assertThat(inMemory.extractText(pdfBytes, pdfFile.getName())).isEqualTo(expected);
+            assertThat(lowMemory.extractText(pdfFile, pdfFile.getName())).isEqualTo(expected);
+
+            log.info("{} pages ({} KB PDF, {} chars of text):", pageCount, pdfBytes.length / 1024, expected.length());
+            measure("legacy (getText + 2 regex)", () -> legacyExtract(pdfBytes));
+            measure("in-memory, single-pass", () -> inMemory.extractText(pdfBytes, pdfFile.getName()));
+            measure("low-memory, file-backed", () -> lowMemory.extractText(pdfFile, pdfFile.getName()));
+        }
+    }
+
+    private static void measure(String mode, Extraction extraction) throws IOException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            extraction.extract();
+        }
+        long[] allocatedBytes = new long[MEASURED_RUNS];
+        long[] elapsedNanos = new long[MEASURED_RUNS];
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            long allocatedBefore = currentThreadAllocatedBytes();
+            long started = System.nanoTime();
+            extraction.extract();
+            elapsedNanos[run] = System.nanoTime() - started;
+            allocatedBytes[run] = currentThreadAllocatedBytes() - allocatedBefore;
+        }
+        Arrays.sort(allocatedBytes);
+        Arrays.sort(elapsedNanos);
+        log.info("  {}: median heap allocated {} KB, median {} ms", mode,
+                allocatedBytes[MEASURED_RUNS / 2] / 1024, elapsedNanos[MEASURED_RUNS / 2] / 1_000_000);
+    }
+
+    // user-009 öncesi PdfTextExtractor.extractText gövdesi
+    private static String legacyExtract(byte[] pdfBytes) throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdfBytes)) {
+            String text = new PDFTextStripper().getText(document);
+            String cleaned = CONTROL_CHARS_PATTERN.matcher(text).replaceAll(" ");
+            return cleaned.replaceAll("\\s+", " ").trim();
+        }
+    }
+
+    private static PdfTextExtractor extractor(boolean lowMemory) {
+        PdfTextExtractor extractor = new PdfTextExtractor(ForkJoinPool.commonPool());
+        ReflectionTestUtils.setField(extractor, "lowMemory", lowMemory);
+        ReflectionTestUtils.setField(extractor, "parallelEnabled", false);
+        return extractor;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported()) {
+            return threadMXBean.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+}
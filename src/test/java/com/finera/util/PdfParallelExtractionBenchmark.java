@@ -0,0 +1,81 @@
+package com.finera.util;
+
+import com.finera.config.ExecutorConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sentetik 5/50/200 sayfalık ekstrelerde seri çözme ile sayfa aralıklı paralel çözmeyi karşılaştırır.
+ * "parallel" varsayılan eşiği (finera.pdf.parallel.min-pages=20) kullanır; küçük PDF'ler seri kalır.
+ * "parallel, no threshold" eşiğin neden gerektiğini göstermek için tek aralığa (8 sayfa) sığmayan her PDF'i paralel çözer.
+ * Çalıştırma: mvn test -Pbenchmark -Dtest=PdfParallelExtractionBenchmark
+ */
+@Slf4j
+@Tag("benchmark")
+class PdfParallelExtractionBenchmark {
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 7;
+
+    // ExecutorConfiguration'daki gibi çekirdek sayısı kadar paralellik
+    private static final ForkJoinPool POOL = new ExecutorConfiguration().pdfExtractionPool(0);
+
+    @AfterAll
+    static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void serialVersusPageParallelExtraction() throws IOException {
+        PdfTextExtractor serial = extractor(false, 20);
+        PdfTextExtractor parallel = extractor(true, 20);
+        PdfTextExtractor parallelNoThreshold = extractor(true, 1);
+
+        for (int pageCount : SyntheticStatementPdfs.PAGE_COUNTS) {
+            byte[] pdfBytes = SyntheticStatementPdfs.statement(pageCount);
+            String fileName = "statement-" + pageCount + ".pdf";
+            String expected = serial.extractText(pdfBytes, fileName);
+            assertThat(parallelNoThreshold.extractText(pdfBytes, fileName)).isEqualTo(expected);
+
+            long serialNanos = medianNanos(serial, pdfBytes, fileName);
+            long parallelNanos = medianNanos(parallel, pdfBytes, fileName);
+            long noThresholdNanos = medianNanos(parallelNoThreshold, pdfBytes, fileName);
+            log.info("{} pages on {} cores: serial {} ms, parallel {} ms ({}x), parallel, no threshold {} ms ({}x)",
+                    pageCount, POOL.getParallelism(),
+                    serialNanos / 1_000_000,
+                    parallelNanos / 1_000_000, String.format("%.2f", (double) serialNanos / parallelNanos),
+                    noThresholdNanos / 1_000_000, String.format("%.2f", (double) serialNanos / noThresholdNanos));
+        }
+    }
+
+    private static long medianNanos(PdfTextExtractor extractor, byte[] pdfBytes, String fileName) throws IOException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            extractor.extractText(pdfBytes, fileName);
+        }
+        long[] elapsedNanos = new long[MEASURED_RUNS];
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            long started = System.nanoTime();
+            extractor.extractText(pdfBytes, fileName);
+            elapsedNanos[run] = System.nanoTime() - started;
+        }
+        Arrays.sort(elapsedNanos);
+        return elapsedNanos[MEASURED_RUNS / 2];
+    }
+
+    private static PdfTextExtractor extractor(boolean parallelEnabled, int parallelMinPages) {
+        PdfTextExtractor extractor = new PdfTextExtractor(POOL);
+        ReflectionTestUtils.setField(extractor, "parallelEnabled", parallelEnabled);
+        ReflectionTestUtils.setField(extractor, "parallelMinPages", parallelMinPages);
+        ReflectionTestUtils.setField(extractor, "pagesPerRange", 8);
+        return extractor;
+    }
+}
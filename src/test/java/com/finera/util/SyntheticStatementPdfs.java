@@ -0,0 +1,59 @@
+package com.finera.util;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * PDF benchmark'ları için sentetik kredi kartı ekstreleri üretir (sayfa başına başlık + 45 işlem satırı).
+ * Metin ASCII'dir; standart Helvetica fontu gömülü font gerektirmez.
+ */
+final class SyntheticStatementPdfs {
+
+    static final int[] PAGE_COUNTS = {5, 50, 200};
+
+    private static final int TRANSACTIONS_PER_PAGE = 45;
+    private static final String[] MERCHANTS = {
+            "MIGROS SANAL MARKET ISTANBUL", "SHELL PETROL KADIKOY", "YEMEKSEPETI ONLINE",
+            "TURKCELL FATURA", "AMAZON MARKETPLACE", "METRO TURIZM BILET", "STARBUCKS BESIKTAS"};
+
+    private SyntheticStatementPdfs() {
+    }
+
+    static byte[] statement(int pageCount) {
+        try (PDDocument document = new PDDocument();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            int line = 0;
+            for (int page = 1; page <= pageCount; page++) {
+                PDPage pdPage = new PDPage(PDRectangle.A4);
+                document.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(font, 9);
+                    content.setLeading(16);
+                    content.newLineAtOffset(40, 800);
+                    content.showText("ORNEK BANKA A.S. Kredi Karti Ekstresi Donem: 01/2024 Sayfa " + page + "/" + pageCount);
+                    content.newLine();
+                    for (int i = 0; i < TRANSACTIONS_PER_PAGE; i++, line++) {
+                        content.showText(String.format("%02d.01.2024   %-32s   -%d,%02d TL",
+                                1 + line % 28, MERCHANTS[line % MERCHANTS.length], 10 + line % 990, line % 100));
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
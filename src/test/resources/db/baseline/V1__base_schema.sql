@@ -0,0 +1,62 @@
+-- Yalnızca testler için: üretimde uygulama dışında oluşturulan ve Flyway'in V1 olarak baseline'ladığı temel şema.
+-- Entity eşlemeleriyle (com.finera.entities) aynı kolonlar; V2+ migration'ları bunun üzerine çalışır.
+CREATE TABLE public.users (
+    user_id       UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    name          VARCHAR(255),
+    surname       VARCHAR(255),
+    email         VARCHAR(255) NOT NULL UNIQUE,
+    tel_no        VARCHAR(30),
+    password_hash VARCHAR(255) NOT NULL,
+    created_at    TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    updated_at    TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE TABLE public.categories (
+    category_id      INTEGER PRIMARY KEY,
+    category_name_tr VARCHAR(100) NOT NULL UNIQUE,
+    category_name_en VARCHAR(100) NOT NULL UNIQUE,
+    category_type    VARCHAR(10)  NOT NULL
+);
+
+CREATE TABLE public.periods (
+    period_id    UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id      UUID    NOT NULL REFERENCES public.users (user_id),
+    period_year  INTEGER NOT NULL,
+    period_month INTEGER NOT NULL,
+    start_date   DATE    NOT NULL,
+    end_date     DATE    NOT NULL,
+    created_at   TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    updated_at   TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    UNIQUE (user_id, period_year, period_month)
+);
+
+CREATE TABLE public.period_sources (
+    source_id        UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    period_id        UUID         NOT NULL REFERENCES public.periods (period_id),
+    user_id          UUID         NOT NULL REFERENCES public.users (user_id),
+    source_type      VARCHAR(20)  NOT NULL,
+    source_name      VARCHAR(150) NOT NULL,
+    institution_name VARCHAR(100),
+    upload_timestamp TIMESTAMP WITH TIME ZONE,
+    created_at       TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    updated_at       TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    UNIQUE (period_id, source_name)
+);
+
+CREATE TABLE public.transactions (
+    transaction_id            UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    source_id                 UUID           NOT NULL REFERENCES public.period_sources (source_id),
+    user_id                   UUID           NOT NULL REFERENCES public.users (user_id),
+    period_id                 UUID           NOT NULL REFERENCES public.periods (period_id),
+    category_id               INTEGER REFERENCES public.categories (category_id),
+    transaction_date          TIMESTAMP WITH TIME ZONE NOT NULL,
+    description_original      TEXT           NOT NULL,
+    amount                    NUMERIC(15, 2) NOT NULL,
+    currency                  VARCHAR(3)     NOT NULL DEFAULT 'TRY',
+    ai_category_suggestion_id INTEGER REFERENCES public.categories (category_id),
+    ai_confidence_score       DOUBLE PRECISION,
+    is_categorized_by_ai      BOOLEAN        NOT NULL DEFAULT FALSE,
+    notes                     TEXT,
+    created_at                TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    updated_at                TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);